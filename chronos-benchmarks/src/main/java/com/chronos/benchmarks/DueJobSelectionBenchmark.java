@@ -0,0 +1,143 @@
+package com.chronos.benchmarks;
+
+import com.chronos.dto.DueJob;
+import com.chronos.model.Job;
+import com.chronos.repository.JobRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scheduler's due-job query against an in-memory H2 database holding
+ * {@code jobCount} jobs: half of them finished, 10% due and the rest scheduled in the
+ * future. {@code firstPage} is one poll of a quiet tick; {@code drainDue} pages
+ * through every due job with the keyset cursor, like a tick after a backlog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DueJobSelectionBenchmark {
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Param({"10000", "100000"})
+    private int jobCount;
+
+    @Param({"500"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private JobRepository jobRepository;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DatastoreConfig.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        // Keep the scheduler's application.yml, which targets Postgres, off the classpath config
+                        "spring.config.name=chronos-benchmarks",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.open-in-view=false")
+                .run();
+        jobRepository = context.getBean(JobRepository.class);
+        now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DueJob> firstPage() {
+        return jobRepository.findDueJobs(now, KEYSET_START, 0L, PageRequest.of(0, batchSize));
+    }
+
+    @Benchmark
+    public int drainDue() {
+        LocalDateTime afterTime = KEYSET_START;
+        long afterId = 0;
+        int found = 0;
+        while (true) {
+            List<DueJob> page = jobRepository.findDueJobs(now, afterTime, afterId, PageRequest.of(0, batchSize));
+            found += page.size();
+            if (page.size() < batchSize) {
+                return found;
+            }
+            DueJob last = page.get(page.size() - 1);
+            afterTime = last.getNextRunTime();
+            afterId = last.getId();
+        }
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        // H2 has no partial indexes; a full (next_run_time, id) index stands in for idx_jobs_due
+        jdbcTemplate.execute("CREATE INDEX idx_jobs_due ON jobs (next_run_time, id)");
+        List<Object[]> rows = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            String status;
+            LocalDateTime nextRunTime;
+            if (i % 10 == 0) {
+                status = "SCHEDULED";
+                nextRunTime = now.minusSeconds(i % 3600);
+            } else if (i % 2 == 0) {
+                status = "COMPLETED";
+                nextRunTime = null;
+            } else {
+                status = "SCHEDULED";
+                nextRunTime = now.plusMinutes(1 + i % 10_000);
+            }
+            rows.add(new Object[]{"job-" + i, "owner-" + i % 50, "HTTP_REQUEST", status,
+                    nextRunTime != null ? Timestamp.valueOf(nextRunTime) : null, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO jobs (name, owner, type, status, is_recurring, max_retries, current_retries, "
+                + "version, pending_dependencies, next_run_time, created_at) VALUES (?, ?, ?, ?, FALSE, 3, 0, 1, 0, ?, ?)", rows);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Job.class)
+    @EnableJpaRepositories(basePackageClasses = JobRepository.class)
+    static class DatastoreConfig {
+    }
+}
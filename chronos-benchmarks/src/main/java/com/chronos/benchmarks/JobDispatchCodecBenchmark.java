@@ -0,0 +1,70 @@
+package com.chronos.benchmarks;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.dto.JobDispatchCodec;
+import com.chronos.model.Job;
+import com.chronos.model.JobType;
+import com.chronos.service.CircuitBreakerService;
+import com.chronos.service.JobSpecCompiler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue message encoding used by every backend of {@code JobQueueService}, with and
+ * without the compiled spec inlined
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobDispatchCodecBenchmark {
+
+    @Param({"false", "true"})
+    private boolean inlineSpec;
+
+    private JobDispatch dispatch;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        dispatch = JobDispatch.forJob(Job.builder()
+                .id(42L)
+                .nextRunTime(LocalDateTime.of(2024, 1, 1, 9, 0))
+                .version(3)
+                .build());
+        if (inlineSpec) {
+            JobSpecCompiler compiler = new JobSpecCompiler(new ObjectMapper(), new CircuitBreakerService(new SimpleMeterRegistry()));
+            dispatch.setSpec(compiler.compile(42L, 3, JobType.HTTP_REQUEST,
+                    "{\"url\": \"https://api.example.com/reports/daily\", \"method\": \"POST\", "
+                            + "\"headers\": {\"Content-Type\": \"application/json\"}, \"body\": {\"date\": \"2024-01-01\"}}",
+                    "{\"timeoutSeconds\": 300}"));
+        }
+        encoded = JobDispatchCodec.encode(dispatch);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return JobDispatchCodec.encode(dispatch);
+    }
+
+    @Benchmark
+    public JobDispatch decode() {
+        return JobDispatchCodec.decode(encoded);
+    }
+}
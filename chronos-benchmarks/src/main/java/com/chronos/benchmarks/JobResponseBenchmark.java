@@ -0,0 +1,95 @@
+package com.chronos.benchmarks;
+
+import com.chronos.dto.JobResponse;
+import com.chronos.dto.JobRunResponse;
+import com.chronos.model.Job;
+import com.chronos.model.JobRun;
+import com.chronos.model.JobStatus;
+import com.chronos.model.JobType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a job and its five most recent runs to the REST response, and writing it
+ * with an object mapper configured like Spring Boot's
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobResponseBenchmark {
+
+    private Job job;
+    private List<JobRun> runs;
+    private JobResponse response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 9, 0);
+        job = Job.builder()
+                .id(42L)
+                .name("Daily Report")
+                .owner("user@example.com")
+                .type(JobType.HTTP_REQUEST)
+                .status(JobStatus.SCHEDULED)
+                .description("Generate daily report")
+                .schedule("0 0 9 * * ?")
+                .isRecurring(true)
+                .jobData("{\"url\": \"https://api.example.com/report\", \"method\": \"POST\", \"body\": {\"date\": \"2024-01-01\"}}")
+                .config("{\"timeoutSeconds\": 300}")
+                .version(3)
+                .nextRunTime(now.plusDays(1))
+                .lastRunTime(now)
+                .createdAt(now.minusDays(30))
+                .updatedAt(now)
+                .build();
+        runs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            runs.add(JobRun.builder()
+                    .id(100L + i)
+                    .job(job)
+                    .status(JobStatus.COMPLETED)
+                    .startedAt(now.minusDays(i))
+                    .completedAt(now.minusDays(i).plusSeconds(2))
+                    .output("HTTP 200 OK: {\"status\": \"queued\", \"report\": \"daily-" + i + "\"}")
+                    .retryAttempt(0)
+                    .workerId("node-1")
+                    .build());
+        }
+        response = map();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public JobResponse map() {
+        return JobResponse.from(job, runs.stream().map(JobRunResponse::from).toList());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(map());
+    }
+}
@@ -0,0 +1,65 @@
+package com.chronos.benchmarks;
+
+import com.chronos.model.JobType;
+import com.chronos.service.CircuitBreakerService;
+import com.chronos.service.JobSpecCompiler;
+import com.chronos.spec.JobSpec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing jobData and config into a typed spec, done at submit time and on the first
+ * execution of every job version (spec cache miss)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobSpecCompilerBenchmark {
+
+    private static final String HTTP_JOB_DATA = "{\"url\": \"https://api.example.com/reports/daily\", \"method\": \"POST\", "
+            + "\"headers\": {\"Content-Type\": \"application/json\", \"Authorization\": \"Bearer abc.def.ghi\"}, "
+            + "\"body\": {\"date\": \"2024-01-01\", \"format\": \"csv\", \"recipients\": [\"ops@example.com\", \"finance@example.com\"]}}";
+    private static final String SHELL_JOB_DATA = "{\"script\": \"cd /srv/reports && ./export.sh --date $(date +%F) && gzip -f out.csv\"}";
+    private static final String CONFIG = "{\"timeoutSeconds\": 300, \"retryDelaySeconds\": 30}";
+
+    @Param({"HTTP_REQUEST", "SHELL_SCRIPT"})
+    private JobType type;
+
+    private ObjectMapper objectMapper;
+    private JobSpecCompiler compiler;
+    private String jobData;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        compiler = new JobSpecCompiler(objectMapper, new CircuitBreakerService(new SimpleMeterRegistry()));
+        jobData = type == JobType.HTTP_REQUEST ? HTTP_JOB_DATA : SHELL_JOB_DATA;
+    }
+
+    @Benchmark
+    public JsonNode parseJobData() throws Exception {
+        return objectMapper.readTree(jobData);
+    }
+
+    @Benchmark
+    public JobSpec compile() {
+        return compiler.compile(42L, 3, type, jobData, CONFIG);
+    }
+}
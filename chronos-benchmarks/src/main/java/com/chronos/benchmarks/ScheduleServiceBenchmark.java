@@ -0,0 +1,52 @@
+package com.chronos.benchmarks;
+
+import com.chronos.service.ScheduleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Next fire time of a recurring job, computed after every run of the job
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleServiceBenchmark {
+
+    @Param({"0 */5 * * * ?", "0 0 9 * * ?", "0 15 10 ? * MON-FRI"})
+    private String cron;
+
+    private ScheduleService scheduleService;
+    private LocalDateTime from;
+
+    @Setup
+    public void setUp() {
+        scheduleService = new ScheduleService();
+        from = LocalDateTime.of(2024, 1, 1, 8, 30);
+    }
+
+    @Benchmark
+    public Optional<LocalDateTime> nextRunTime() {
+        return scheduleService.getNextRunTime(cron, from);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return scheduleService.isValidCronExpression(cron);
+    }
+}
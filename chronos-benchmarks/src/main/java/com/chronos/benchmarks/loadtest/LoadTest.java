@@ -0,0 +1,330 @@
+package com.chronos.benchmarks.loadtest;
+
+import com.chronos.ChronosApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load-test harness. Starts Chronos in this JVM on in-memory H2 with the local queue
+ * backend, submits HTTP jobs against the application's own {@code /api/mock}
+ * endpoints through the REST API, and reports creation latency, schedule lag (run
+ * start minus the scheduled fire time), run duration and throughput.
+ *
+ * <p>The same load runs for {@code warmup-seconds} first; runs that start during the
+ * warmup are left out of the report, as are the jobs created during it.
+ *
+ * <p>One-time jobs are submitted open-loop at {@code create-rate}: latency is measured
+ * from the intended send time, so a stalled server shows up as latency instead of a
+ * lower request rate.
+ */
+public class LoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(30);
+
+    private final LoadTestOptions options;
+    private final JdbcTemplate jdbcTemplate;
+    private final String baseUrl;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Histogram createLatency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger createErrors = new AtomicInteger();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private String token;
+
+    LoadTest(LoadTestOptions options, ConfigurableApplicationContext context) {
+        this.options = options;
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (ConfigurableApplicationContext context = start(options)) {
+            new LoadTest(options, context).run();
+        }
+        // Executor threads of the embedded application may still be winding down
+        System.exit(0);
+    }
+
+    static ConfigurableApplicationContext start(LoadTestOptions options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.profiles.active", "local");
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:chronos-loadtest;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        // The Flyway migrations are written for Postgres
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("chronos.queue.local.journal.enabled", "false");
+        // Every mock target is the same host, so one breaker would gate all of them
+        properties.put("chronos.job.http.circuit-breaker.enabled", "false");
+        // Application logs go to a file only, so the console shows the report
+        properties.put("logging.level.com.chronos", "WARN");
+        properties.put("logging.level.org.springframework.amqp", "WARN");
+        properties.put("logging.pattern.console", "");
+        properties.put("logging.file.name", "target/loadtest/chronos.log");
+        for (String arg : options.applicationArgs) {
+            properties.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        List<String> args = new ArrayList<>();
+        properties.forEach((name, value) -> args.add("--" + name + "=" + value));
+        return new SpringApplicationBuilder(ChronosApplication.class).run(args.toArray(String[]::new));
+    }
+
+    void run() throws Exception {
+        token = login();
+        System.out.printf("Chronos load test against %s: %d s (after %d s warmup) at %.1f jobs/s, %d recurring jobs (%s), mix %s%n",
+                baseUrl, options.durationSeconds, options.warmupSeconds, options.createRate, options.recurringJobs,
+                options.recurringCron, options.mix);
+
+        List<Long> recurring = new ArrayList<>();
+        for (int i = 0; i < options.recurringJobs; i++) {
+            Long id = createJob(recurringJob(), System.nanoTime());
+            if (id != null) {
+                recurring.add(id);
+            }
+        }
+
+        submitOneTimeJobs(options.warmupSeconds);
+        createLatency.reset();
+        created.set(0);
+        createErrors.set(0);
+
+        long measuredFromMillis = System.currentTimeMillis();
+        int submitted = submitOneTimeJobs(options.durationSeconds);
+
+        for (Long id : recurring) {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs/" + id + "/cancel"))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+        }
+        drain();
+        report(submitted, measuredFromMillis);
+    }
+
+    /**
+     * Submit one-time jobs at the configured rate for the given time and wait for the
+     * submissions to return
+     */
+    private int submitOneTimeJobs(int seconds) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        if (options.createRate == 0) {
+            LockSupport.parkNanos(end - System.nanoTime());
+            return 0;
+        }
+        ExecutorService clients = Executors.newFixedThreadPool(options.clients);
+        long intervalNanos = (long) (1e9 / options.createRate);
+        int submitted = 0;
+        for (long intended = System.nanoTime(); intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intendedStart = intended;
+            clients.execute(() -> createJob(oneTimeJob(), intendedStart));
+            submitted++;
+        }
+        clients.shutdown();
+        clients.awaitTermination(options.drainSeconds, TimeUnit.SECONDS);
+        return submitted;
+    }
+
+    /**
+     * Wait for the one-time jobs to finish, up to the drain timeout
+     */
+    private void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.drainSeconds);
+        while (System.nanoTime() < deadline) {
+            Integer unfinished = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jobs WHERE is_recurring = FALSE "
+                    + "AND status IN ('PENDING', 'SCHEDULED', 'RUNNING', 'RETRYING')", Integer.class);
+            if (unfinished == null || unfinished == 0) {
+                return;
+            }
+            Thread.sleep(250);
+        }
+        System.out.println("Drain timeout reached; unfinished jobs are left out of the run statistics");
+    }
+
+    private Long createJob(Map<String, Object> job, long intendedStartNanos) {
+        try {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/jobs"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(job))));
+            createLatency.recordValue(Math.min((System.nanoTime() - intendedStartNanos) / 1000, HIGHEST_TRACKABLE_MICROS));
+            if (response.statusCode() / 100 != 2) {
+                createErrors.incrementAndGet();
+                return null;
+            }
+            created.incrementAndGet();
+            return objectMapper.readTree(response.body()).path("id").asLong();
+        } catch (Exception e) {
+            createErrors.incrementAndGet();
+            return null;
+        }
+    }
+
+    private Map<String, Object> oneTimeJob() {
+        Map<String, Object> job = job("load-" + sequence.incrementAndGet(), pickTarget());
+        job.put("maxRetries", options.maxRetries);
+        return job;
+    }
+
+    private Map<String, Object> recurringJob() {
+        Map<String, Object> job = job("recurring-" + sequence.incrementAndGet(), "/api/mock/delay?ms=" + options.delayMs);
+        job.put("isRecurring", true);
+        job.put("schedule", options.recurringCron);
+        job.put("maxRetries", 0);
+        return job;
+    }
+
+    private Map<String, Object> job(String name, String target) {
+        Map<String, Object> job = new LinkedHashMap<>();
+        job.put("name", name);
+        job.put("owner", "loadtest");
+        job.put("type", "HTTP_REQUEST");
+        job.put("jobData", "{\"url\": \"" + baseUrl + target + "\", \"method\": \"GET\"}");
+        job.put("config", "{\"retryDelaySeconds\": 1}");
+        return job;
+    }
+
+    private String pickTarget() {
+        int total = options.mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<String, Integer> entry : options.mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return switch (entry.getKey()) {
+                    case "flaky" -> "/api/mock/flaky?probability=" + options.flakyProbability;
+                    case "fail" -> "/api/mock/fail?status=500";
+                    default -> "/api/mock/delay?ms=" + options.delayMs;
+                };
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private String login() throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\": \"admin\", \"password\": \"admin\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode body = objectMapper.readTree(response.body());
+        if (!body.hasNonNull("token")) {
+            throw new IllegalStateException("Login failed: " + response.body());
+        }
+        return body.get("token").asText();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.header("Authorization", "Bearer " + token).timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void report(int submitted, long measuredFromMillis) throws IOException {
+        Histogram oneTimeLag = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Histogram recurringLag = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Histogram runDuration = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        Map<String, Integer> runStatuses = new TreeMap<>();
+        long[] window = {Long.MAX_VALUE, Long.MIN_VALUE};
+
+        jdbcTemplate.query("SELECT r.fire_id, r.started_at, r.completed_at, r.status, j.is_recurring "
+                + "FROM job_runs r JOIN jobs j ON j.id = r.job_id", row -> {
+            Long startedAt = epochMillis(row.getTimestamp("started_at"));
+            Long completedAt = epochMillis(row.getTimestamp("completed_at"));
+            String fireId = row.getString("fire_id");
+            if (startedAt == null || startedAt < measuredFromMillis) {
+                return;
+            }
+            runStatuses.merge(row.getString("status"), 1, Integer::sum);
+            window[0] = Math.min(window[0], startedAt);
+            if (fireId != null && fireId.indexOf(':') > 0) {
+                long lagMillis = Math.max(0, startedAt - Long.parseLong(fireId.substring(fireId.indexOf(':') + 1)));
+                (row.getBoolean("is_recurring") ? recurringLag : oneTimeLag)
+                        .recordValue(Math.min(lagMillis * 1000, HIGHEST_TRACKABLE_MICROS));
+            }
+            if (completedAt != null) {
+                window[1] = Math.max(window[1], completedAt);
+                runDuration.recordValue(Math.min(Math.max(0, completedAt - startedAt) * 1000, HIGHEST_TRACKABLE_MICROS));
+            }
+        });
+
+        PrintStream out = System.out;
+        out.println();
+        out.printf("Jobs submitted      %d one-time (%.1f/s), %d jobs created in total, %d create errors%n",
+                submitted, (double) submitted / options.durationSeconds, created.get(), createErrors.get());
+        int runs = runStatuses.values().stream().mapToInt(Integer::intValue).sum();
+        double runSeconds = window[1] > window[0] ? (window[1] - window[0]) / 1000.0 : 0;
+        out.printf("Runs                %d %s, %.1f completed runs/s%n",
+                runs, runStatuses, runSeconds > 0 ? runDuration.getTotalCount() / runSeconds : 0.0);
+        out.println();
+        out.printf("%-24s %8s %9s %9s %9s %9s %9s%n", "Latency (ms)", "count", "p50", "p90", "p99", "p99.9", "max");
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        histograms.put("create", createLatency);
+        histograms.put("schedule-lag-one-time", oneTimeLag);
+        histograms.put("schedule-lag-recurring", recurringLag);
+        histograms.put("run-duration", runDuration);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            out.printf("%-24s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(), histogram.getTotalCount(),
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+        }
+
+        if (options.out != null) {
+            Path directory = Files.createDirectories(Path.of(options.out));
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                try (PrintStream file = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+                    // Microsecond values scaled to milliseconds
+                    entry.getValue().outputPercentileDistribution(file, 1000.0);
+                }
+            }
+            out.println();
+            out.println("Percentile distributions written to " + directory.toAbsolutePath());
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static Long epochMillis(Timestamp timestamp) {
+        // Run timestamps are local date-times in the JVM zone, like the millis in fire ids
+        return timestamp != null ? timestamp.toLocalDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
+    }
+}
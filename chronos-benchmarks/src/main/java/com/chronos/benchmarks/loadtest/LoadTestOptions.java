@@ -0,0 +1,83 @@
+package com.chronos.benchmarks.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of {@link LoadTest}: {@code --name=value} pairs. Spring and Chronos
+ * properties ({@code --spring.*}, {@code --chronos.*}, {@code --server.*},
+ * {@code --logging.*}, {@code --management.*}) are passed on to the embedded
+ * application unchanged.
+ */
+public class LoadTestOptions {
+
+    private static final List<String> APPLICATION_PREFIXES = List.of("spring.", "chronos.", "server.", "logging.", "management.");
+
+    int warmupSeconds = 10;
+    int durationSeconds = 60;
+    int drainSeconds = 30;
+    double createRate = 20; // One-time jobs submitted per second
+    int clients = 8;
+    int recurringJobs = 50;
+    String recurringCron = "*/10 * * * * ?";
+    Map<String, Integer> mix = parseMix("delay:80,flaky:15,fail:5");
+    long delayMs = 100;
+    double flakyProbability = 0.3;
+    int maxRetries = 2;
+    String out; // Directory for .hgrm percentile files, optional
+    final List<String> applicationArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (APPLICATION_PREFIXES.stream().anyMatch(name::startsWith)) {
+                options.applicationArgs.add(arg);
+                continue;
+            }
+            switch (name) {
+                case "warmup-seconds" -> options.warmupSeconds = Integer.parseInt(value);
+                case "duration-seconds" -> options.durationSeconds = Integer.parseInt(value);
+                case "drain-seconds" -> options.drainSeconds = Integer.parseInt(value);
+                case "create-rate" -> options.createRate = Double.parseDouble(value);
+                case "clients" -> options.clients = Integer.parseInt(value);
+                case "recurring-jobs" -> options.recurringJobs = Integer.parseInt(value);
+                case "recurring-cron" -> options.recurringCron = value;
+                case "mix" -> options.mix = parseMix(value);
+                case "delay-ms" -> options.delayMs = Long.parseLong(value);
+                case "flaky-probability" -> options.flakyProbability = Double.parseDouble(value);
+                case "max-retries" -> options.maxRetries = Integer.parseInt(value);
+                case "out" -> options.out = value;
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.createRate < 0 || options.warmupSeconds < 0 || options.clients < 1 || options.durationSeconds < 1) {
+            throw new IllegalArgumentException("create-rate and warmup-seconds must not be negative, clients and duration-seconds must be positive");
+        }
+        return options;
+    }
+
+    /**
+     * Weights of the mock targets, e.g. {@code delay:80,flaky:15,fail:5}
+     */
+    static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2 || !List.of("delay", "flaky", "fail").contains(parts[0])) {
+                throw new IllegalArgumentException("mix entries are delay|flaky|fail:<weight>, got " + entry);
+            }
+            mix.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix weights must add up to more than 0");
+        }
+        return mix;
+    }
+}
@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react'
+import { useState, useEffect, useRef } from 'react'
 import axios from 'axios'
 import CreateJobModal from './CreateJobModal'
 import './index.css'
@@ -9,14 +9,36 @@ function App() {
   const [error, setError] = useState(null)
   const [runningJobId, setRunningJobId] = useState(null)
   const [showCreateModal, setShowCreateModal] = useState(false)
+  const [filters, setFilters] = useState({ name: '', status: '', type: '' })
+  const jobsRef = useRef([])
+  const filtersRef = useRef(filters)
 
   useEffect(() => {
+    jobsRef.current = jobs
+  }, [jobs])
+
+  useEffect(() => {
+    filtersRef.current = filters
     fetchJobs()
+  }, [filters])
+
+  useEffect(() => {
+    // Live job and run changes; the browser reconnects and resumes from the last event id
+    const events = new EventSource('/api/jobs/events')
+    events.addEventListener('job', (e) => applyEvent(JSON.parse(e.data)))
+    events.addEventListener('resync', () => fetchJobs())
+    return () => events.close()
   }, [])
 
   const fetchJobs = async () => {
     try {
-      const response = await axios.get('/api/jobs')
+      // Filtered on the server; the summary view leaves out payloads and run history
+      const { name, status, type } = filtersRef.current
+      const params = { view: 'summary' }
+      if (name) params.name = name
+      if (status) params.status = status
+      if (type) params.type = type
+      const response = await axios.get('/api/jobs', { params })
       setJobs(response.data.content || response.data)
       setLoading(false)
     } catch (err) {
@@ -26,11 +48,45 @@ function App() {
     }
   }
 
+  const fetchJob = async (id) => {
+    try {
+      const response = await axios.get(`/api/jobs/${id}`)
+      setJobs(current => current.some(job => job.id === id)
+        ? current.map(job => job.id === id ? response.data : job)
+        : [response.data, ...current])
+    } catch (err) {
+      console.error(err)
+    }
+  }
+
+  // Events only carry what changed; outputs and unknown jobs are fetched one at a time
+  const applyEvent = (event) => {
+    if (!jobsRef.current.some(job => job.id === event.jobId)) {
+      // A filtered list reloads instead of guessing whether the job matches
+      const { name, status, type } = filtersRef.current
+      if (name || status || type) {
+        fetchJobs()
+      } else {
+        fetchJob(event.jobId)
+      }
+      return
+    }
+    setJobs(current => current.map(job => job.id !== event.jobId ? job : {
+      ...job,
+      status: event.status ?? job.status,
+      lastRunTime: event.lastRunTime ?? job.lastRunTime,
+      nextRunTime: event.nextRunTime ?? job.nextRunTime,
+    }))
+    if (event.runStatus && event.runStatus !== 'RUNNING') {
+      fetchJob(event.jobId)
+    }
+  }
+
   const handleCreateJob = async (jobData) => {
     try {
-      await axios.post('/api/jobs', jobData)
+      const response = await axios.post('/api/jobs', jobData)
       setShowCreateModal(false)
-      fetchJobs() // Refresh list
+      fetchJob(response.data.id)
     } catch (err) {
       console.error(err)
       alert('Failed to create job: ' + (err.response?.data?.message || err.message))
@@ -41,7 +97,6 @@ function App() {
     setRunningJobId(id)
     try {
       await axios.post(`/api/jobs/${id}/run`)
-      setTimeout(fetchJobs, 1000)
     } catch (err) {
       alert('Failed to trigger job')
     } finally {
@@ -53,8 +108,10 @@ function App() {
     switch (status) {
       case 'COMPLETED': return 'status-success'
       case 'FAILED': return 'status-error'
+      case 'TIMED_OUT': return 'status-error'
       case 'RUNNING': return 'status-running'
       case 'SCHEDULED': return 'status-info'
+      case 'WAITING': return 'status-info'
       default: return 'status-default'
     }
   }
@@ -70,6 +127,27 @@ function App() {
       </header>
       
       <main>
+        <div className="job-filters">
+          <input
+            type="text"
+            placeholder="Name starts with..."
+            value={filters.name}
+            onChange={(e) => setFilters({ ...filters, name: e.target.value })}
+          />
+          <select value={filters.status} onChange={(e) => setFilters({ ...filters, status: e.target.value })}>
+            <option value="">All statuses</option>
+            {['PENDING', 'SCHEDULED', 'WAITING', 'RUNNING', 'RETRYING', 'COMPLETED', 'FAILED', 'TIMED_OUT', 'CANCELLED'].map(status => (
+              <option key={status} value={status}>{status}</option>
+            ))}
+          </select>
+          <select value={filters.type} onChange={(e) => setFilters({ ...filters, type: e.target.value })}>
+            <option value="">All types</option>
+            {['HTTP_REQUEST', 'SHELL_SCRIPT', 'JAVA_CLASS', 'PYTHON_SCRIPT', 'CUSTOM', 'BATCH'].map(type => (
+              <option key={type} value={type}>{type}</option>
+            ))}
+          </select>
+        </div>
+
         {showCreateModal && (
           <CreateJobModal 
             onClose={() => setShowCreateModal(false)}
@@ -108,12 +186,16 @@ function App() {
               </div>
 
               {job.recentRuns && job.recentRuns.length > 0 && 
-               ['HTTP_REQUEST', 'SHELL_SCRIPT'].includes(job.type) && (
+               ['HTTP_REQUEST', 'SHELL_SCRIPT', 'BATCH'].includes(job.type) && (
                 <div className="job-output">
                   <h4>Last Outcome</h4>
                   <pre>{job.recentRuns[0].error || job.recentRuns[0].output || 'No output'}</pre>
                 </div>
               )}
+              {!job.recentRuns && job.lastRunTime &&
+               ['HTTP_REQUEST', 'SHELL_SCRIPT', 'BATCH'].includes(job.type) && (
+                <button className="outcome-btn" onClick={() => fetchJob(job.id)}>Show Last Outcome</button>
+              )}
             </div>
           ))}
         </div>
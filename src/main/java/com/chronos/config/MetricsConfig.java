@@ -1,75 +1,35 @@
 package com.chronos.config;
 
-import io.micrometer.core.instrument.Counter;
+import com.chronos.service.JobQueueService;
+import com.chronos.service.RunningExecutionRegistry;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.atomic.AtomicLong;
-
+/**
+ * Gauges read their source on every scrape. Counters and timers of job executions are
+ * registered by {@link com.chronos.service.JobMetrics}.
+ */
 @Configuration
 @RequiredArgsConstructor
 public class MetricsConfig {
 
     private final MeterRegistry meterRegistry;
-    private final AtomicLong activeJobs = new AtomicLong(0);
-    private final AtomicLong queuedJobs = new AtomicLong(0);
-
-    @Bean
-    public Timer jobExecutionTimer() {
-        return Timer.builder("chronos.job.execution.time")
-                .description("Time taken to execute jobs")
-                .register(meterRegistry);
-    }
-
-    @Bean
-    public Counter jobSubmissionCounter() {
-        return Counter.builder("chronos.job.submitted")
-                .description("Total number of jobs submitted")
-                .register(meterRegistry);
-    }
-
-    @Bean
-    public Counter jobCompletionCounter() {
-        return Counter.builder("chronos.job.completed")
-                .description("Total number of jobs completed")
-                .register(meterRegistry);
-    }
-
-    @Bean
-    public Counter jobFailureCounter() {
-        return Counter.builder("chronos.job.failed")
-                .description("Total number of jobs failed")
-                .register(meterRegistry);
-    }
 
     @Bean
-    public Gauge activeJobsGauge() {
-        return Gauge.builder("chronos.job.active", activeJobs, AtomicLong::get)
-                .description("Number of currently active jobs")
+    public Gauge activeJobsGauge(RunningExecutionRegistry executionRegistry) {
+        return Gauge.builder("chronos.job.active", executionRegistry, RunningExecutionRegistry::size)
+                .description("Executions in flight on this node")
                 .register(meterRegistry);
     }
 
     @Bean
-    public Gauge queuedJobsGauge() {
-        return Gauge.builder("chronos.job.queued", queuedJobs, AtomicLong::get)
-                .description("Number of jobs in queue")
+    public Gauge queuedJobsGauge(JobQueueService jobQueueService) {
+        return Gauge.builder("chronos.job.queued", jobQueueService, JobQueueService::depth)
+                .description("Dispatches waiting in the queue to be consumed")
+                .tag("backend", jobQueueService.backend())
                 .register(meterRegistry);
     }
-
-    public void incrementActiveJobs() {
-        activeJobs.incrementAndGet();
-    }
-
-    public void decrementActiveJobs() {
-        activeJobs.decrementAndGet();
-    }
-
-    public void setQueuedJobs(long count) {
-        queuedJobs.set(count);
-    }
 }
-
@@ -1,5 +1,11 @@
 package com.chronos.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
@@ -8,10 +14,15 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "amqp", matchIfMissing = true)
 public class RabbitMQConfig {
 
     @Value("${chronos.scheduler.worker.queue-name:job.execution.queue}")
@@ -20,6 +31,18 @@ public class RabbitMQConfig {
     @Value("${chronos.scheduler.worker.dead-letter-queue:job.execution.dlq}")
     private String deadLetterQueue;
 
+    @Value("${chronos.scheduler.worker.cancel-exchange:job.cancel.fanout}")
+    private String cancelExchange;
+
+    @Value("${chronos.scheduler.worker.redelivery.max-attempts:3}")
+    private int redeliveryMaxAttempts;
+
+    @Value("${chronos.scheduler.worker.redelivery.initial-interval-ms:1000}")
+    private long redeliveryInitialIntervalMs;
+
+    @Value("${chronos.scheduler.worker.redelivery.multiplier:2.0}")
+    private double redeliveryMultiplier;
+
     @Bean
     public Queue jobExecutionQueue() {
         return QueueBuilder.durable(queueName)
@@ -33,6 +56,44 @@ public class RabbitMQConfig {
         return QueueBuilder.durable(deadLetterQueue).build();
     }
 
+    /**
+     * One delay queue per redelivery attempt. Messages wait out the queue TTL and are
+     * then dead-lettered back onto the execution queue, so backoff never blocks a
+     * listener thread. Using a fixed TTL per queue avoids head-of-line blocking that
+     * per-message expiration would cause.
+     */
+    @Bean
+    public Declarables redeliveryQueues() {
+        List<Declarable> queues = new ArrayList<>();
+        for (int attempt = 1; attempt <= redeliveryMaxAttempts; attempt++) {
+            queues.add(QueueBuilder.durable(retryQueueName(queueName, attempt))
+                    .withArgument("x-message-ttl", retryDelayMs(attempt))
+                    .withArgument("x-dead-letter-exchange", "")
+                    .withArgument("x-dead-letter-routing-key", queueName)
+                    .build());
+        }
+        return new Declarables(queues);
+    }
+
+    /**
+     * Cancel requests are broadcast to every node; each node listens on its own
+     * auto-deleted queue bound to the fanout exchange.
+     */
+    @Bean
+    public FanoutExchange jobCancelExchange() {
+        return new FanoutExchange(cancelExchange);
+    }
+
+    @Bean
+    public Queue jobCancelQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding jobCancelBinding() {
+        return BindingBuilder.bind(jobCancelQueue()).to(jobCancelExchange());
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -52,7 +113,16 @@ public class RabbitMQConfig {
         factory.setMessageConverter(jsonMessageConverter());
         factory.setConcurrentConsumers(10);
         factory.setMaxConcurrentConsumers(20);
+        // Redelivery is handled by JobConsumer; anything that still escapes goes to the DLQ
+        factory.setDefaultRequeueRejected(false);
         return factory;
     }
-}
 
+    public static String retryQueueName(String queueName, int attempt) {
+        return queueName + ".retry." + attempt;
+    }
+
+    private long retryDelayMs(int attempt) {
+        return (long) (redeliveryInitialIntervalMs * Math.pow(redeliveryMultiplier, attempt - 1));
+    }
+}
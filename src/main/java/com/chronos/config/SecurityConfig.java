@@ -32,6 +32,8 @@ public class SecurityConfig {
                 http
                                 .csrf(csrf -> csrf.disable())
                                 .authorizeHttpRequests(auth -> auth
+                                                // Starts JFR recordings and serves them, stack traces included
+                                                .requestMatchers("/actuator/profiling/**").authenticated()
                                                 .requestMatchers("/api/health", "/actuator/**", "/api/auth/**",
                                                                 "/api/monitoring/**",
                                                                 "/api/mock/**", "/api/jobs/**")
@@ -0,0 +1,23 @@
+package com.chronos.consumer;
+
+import com.chronos.service.RunningExecutionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "amqp", matchIfMissing = true)
+public class JobCancellationConsumer {
+
+    private final RunningExecutionRegistry executionRegistry;
+
+    @RabbitListener(queues = "#{jobCancelQueue.name}", concurrency = "1")
+    public void consumeCancel(Long jobId) {
+        log.debug("Received cancel broadcast for job {}", jobId);
+        executionRegistry.cancel(jobId);
+    }
+}
@@ -1,30 +1,66 @@
 package com.chronos.consumer;
 
+import com.chronos.dto.JobDispatch;
+import com.chronos.dto.JobDispatchCodec;
+import com.chronos.exception.JobNotFoundException;
 import com.chronos.service.JobExecutionService;
+import com.chronos.service.JobTracing;
+import com.chronos.service.MessageRedeliveryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.HexFormat;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "amqp", matchIfMissing = true)
 public class JobConsumer {
 
+    private static final int LOGGED_BODY_BYTES = 32;
+
     private final JobExecutionService jobExecutionService;
+    private final MessageRedeliveryService redeliveryService;
     private final ObjectMapper objectMapper;
 
+    /**
+     * Failures never propagate to the container: poison messages are dead-lettered and
+     * transient ones are handed to the delayed retry queue, so the listener thread is
+     * released immediately instead of sleeping through a retry backoff.
+     */
     @RabbitListener(queues = "${chronos.scheduler.worker.queue-name:job.execution.queue}")
-    public void consumeJob(String message) {
+    public void consumeJob(Message message) {
+        JobDispatch dispatch;
         try {
-            Long jobId = objectMapper.readValue(message, Long.class);
-            log.info("Received job execution request for job ID: {}", jobId);
-            jobExecutionService.executeJob(jobId);
+            dispatch = JobDispatchCodec.decodeAny(message.getBody(), objectMapper);
+            if (dispatch.getTraceParent() == null) {
+                dispatch.setTraceParent(message.getMessageProperties().getHeader(JobTracing.TRACE_PARENT));
+            }
         } catch (Exception e) {
-            log.error("Error processing job message: {}", message, e);
-            throw new RuntimeException("Failed to process job", e);
+            byte[] body = message.getBody();
+            // Bodies are binary envelopes, so only their start is logged, as hex
+            log.error("Unreadable job message: content type {}, {} bytes, starting {}",
+                    message.getMessageProperties().getContentType(), body.length,
+                    HexFormat.of().formatHex(Arrays.copyOf(body, Math.min(body.length, LOGGED_BODY_BYTES))), e);
+            redeliveryService.deadLetter(message, "Unreadable message: " + e.getMessage());
+            return;
+        }
+
+        try {
+            log.info("Received job execution request for job ID: {} (fire {})",
+                    dispatch.getJobId(), dispatch.getFireId());
+            jobExecutionService.executeJob(dispatch);
+        } catch (JobNotFoundException e) {
+            redeliveryService.deadLetter(message, e.getMessage());
+        } catch (Exception e) {
+            log.error("Error processing job {}", dispatch.getJobId(), e);
+            redeliveryService.retryLater(message, e);
         }
     }
 }
-
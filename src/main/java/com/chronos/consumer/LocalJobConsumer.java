@@ -0,0 +1,119 @@
+package com.chronos.consumer;
+
+import com.chronos.exception.JobNotFoundException;
+import com.chronos.queue.LocalJobQueue;
+import com.chronos.queue.LocalJobQueue.Delivery;
+import com.chronos.service.JobExecutionService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Worker threads of the local queue backend. Like {@link JobConsumer}, failures never
+ * block a worker: transient ones are redelivered after a backoff, and jobs that no
+ * longer exist are dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "local")
+public class LocalJobConsumer {
+
+    private static final long MIN_IDLE_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LocalJobQueue queue;
+    private final JobExecutionService jobExecutionService;
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService redeliveryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chronos-queue-redelivery");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+
+    @Value("${chronos.queue.local.consumers:10}")
+    private int consumers;
+
+    @Value("${chronos.scheduler.worker.redelivery.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${chronos.scheduler.worker.redelivery.initial-interval-ms:1000}")
+    private long initialIntervalMs;
+
+    @Value("${chronos.scheduler.worker.redelivery.multiplier:2.0}")
+    private double multiplier;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        running = true;
+        for (int i = 0; i < consumers; i++) {
+            Thread worker = new Thread(this::consumeLoop, "chronos-worker-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Started {} local queue consumers", consumers);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        redeliveryScheduler.shutdownNow();
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void consumeLoop() {
+        long idleNanos = MIN_IDLE_NANOS;
+        while (running) {
+            Delivery delivery = queue.poll();
+            if (delivery == null) {
+                LockSupport.parkNanos(idleNanos);
+                idleNanos = Math.min(idleNanos * 2, MAX_IDLE_NANOS);
+                continue;
+            }
+            idleNanos = MIN_IDLE_NANOS;
+            consume(delivery);
+        }
+    }
+
+    private void consume(Delivery delivery) {
+        Long jobId = delivery.getDispatch().getJobId();
+        try {
+            jobExecutionService.executeJob(delivery.getDispatch());
+            queue.acknowledge(delivery);
+        } catch (JobNotFoundException e) {
+            log.warn("Dropping dispatch: {}", e.getMessage());
+            queue.acknowledge(delivery);
+        } catch (Exception e) {
+            int attempt = delivery.nextAttempt();
+            if (attempt > maxAttempts) {
+                log.error("Giving up on job {} after {} delivery attempts", jobId, maxAttempts, e);
+                queue.acknowledge(delivery);
+                return;
+            }
+            long delayMs = (long) (initialIntervalMs * Math.pow(multiplier, attempt - 1));
+            log.warn("Error processing job {}, redelivering in {} ms (attempt {}/{})",
+                    jobId, delayMs, attempt, maxAttempts, e);
+            redeliveryScheduler.schedule(() -> queue.redeliver(delivery), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
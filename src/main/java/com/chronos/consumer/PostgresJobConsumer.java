@@ -0,0 +1,151 @@
+package com.chronos.consumer;
+
+import com.chronos.exception.JobNotFoundException;
+import com.chronos.queue.PostgresJobQueue;
+import com.chronos.queue.PostgresJobQueue.Delivery;
+import com.chronos.service.JobExecutionService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Workers of the Postgres queue backend. A single poller claims only as many rows as
+ * there are idle workers, so claimed rows never wait behind a busy pool, and sleeps
+ * until a NOTIFY arrives or the poll interval elapses. Failed deliveries are made
+ * available again after a backoff; a worker that dies mid-job leaves its row to
+ * reappear once the visibility timeout expires.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "postgres")
+public class PostgresJobConsumer {
+
+    private final PostgresJobQueue queue;
+    private final JobExecutionService jobExecutionService;
+    private volatile boolean running;
+    private volatile boolean backlogged;
+    private Semaphore idleWorkers;
+    private ExecutorService workers;
+    private Thread poller;
+
+    @Value("${chronos.queue.postgres.consumers:10}")
+    private int consumers;
+
+    @Value("${chronos.queue.postgres.batch-size:50}")
+    private int batchSize;
+
+    @Value("${chronos.queue.postgres.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${chronos.scheduler.worker.redelivery.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${chronos.scheduler.worker.redelivery.initial-interval-ms:1000}")
+    private long initialIntervalMs;
+
+    @Value("${chronos.scheduler.worker.redelivery.multiplier:2.0}")
+    private double multiplier;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        running = true;
+        idleWorkers = new Semaphore(consumers);
+        AtomicInteger index = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(consumers,
+                r -> new Thread(r, "chronos-worker-" + index.getAndIncrement()));
+        poller = new Thread(this::pollLoop, "chronos-queue-poller");
+        poller.setDaemon(true);
+        poller.start();
+        log.info("Started {} Postgres queue consumers", consumers);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (poller == null) {
+            return;
+        }
+        poller.interrupt();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                int idle = idleWorkers.availablePermits();
+                if (idle == 0) {
+                    queue.awaitWork(pollIntervalMs);
+                    continue;
+                }
+                int limit = Math.min(idle, batchSize);
+                List<Delivery> deliveries = queue.claim(limit);
+                backlogged = deliveries.size() == limit;
+                for (Delivery delivery : deliveries) {
+                    idleWorkers.acquire();
+                    workers.execute(() -> {
+                        try {
+                            consume(delivery);
+                        } finally {
+                            idleWorkers.release();
+                            if (backlogged) {
+                                queue.wakeUp();
+                            }
+                        }
+                    });
+                }
+                if (!backlogged) {
+                    queue.awaitWork(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.error("Failed to claim dispatches from job_queue", e);
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void consume(Delivery delivery) {
+        Long jobId = delivery.getDispatch().getJobId();
+        try {
+            jobExecutionService.executeJob(delivery.getDispatch());
+            queue.acknowledge(delivery);
+        } catch (JobNotFoundException e) {
+            log.warn("Dropping dispatch: {}", e.getMessage());
+            queue.acknowledge(delivery);
+        } catch (Exception e) {
+            int attempt = delivery.getAttempts();
+            if (attempt > maxAttempts) {
+                log.error("Giving up on job {} after {} delivery attempts", jobId, attempt, e);
+                queue.acknowledge(delivery);
+                return;
+            }
+            long delayMs = (long) (initialIntervalMs * Math.pow(multiplier, attempt - 1));
+            log.warn("Error processing job {}, redelivering in {} ms (attempt {}/{})",
+                    jobId, delayMs, attempt, maxAttempts, e);
+            queue.retryLater(delivery, delayMs);
+        }
+    }
+}
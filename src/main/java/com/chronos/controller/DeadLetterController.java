@@ -0,0 +1,38 @@
+package com.chronos.controller;
+
+import com.chronos.service.MessageRedeliveryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/monitoring/dlq")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "amqp", matchIfMissing = true)
+public class DeadLetterController {
+
+    private final MessageRedeliveryService redeliveryService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getDeadLetterQueue() {
+        log.info("GET /api/monitoring/dlq");
+        Map<String, Object> response = new HashMap<>();
+        response.put("queue", redeliveryService.getDeadLetterQueue());
+        response.put("messageCount", redeliveryService.deadLetterCount());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> replay(@RequestParam(defaultValue = "100") int max) {
+        log.info("POST /api/monitoring/dlq/replay?max={}", max);
+        Map<String, Object> response = new HashMap<>();
+        response.put("replayed", redeliveryService.replayDeadLetters(max));
+        return ResponseEntity.ok(response);
+    }
+}
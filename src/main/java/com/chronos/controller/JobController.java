@@ -1,8 +1,13 @@
 package com.chronos.controller;
 
+import com.chronos.dto.BatchProgressResponse;
+import com.chronos.dto.JobQuery;
 import com.chronos.dto.JobRequest;
 import com.chronos.dto.JobResponse;
 import com.chronos.dto.RescheduleRequest;
+import com.chronos.model.JobStatus;
+import com.chronos.model.JobType;
+import com.chronos.service.JobEventHub;
 import com.chronos.service.JobService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,9 +15,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -21,6 +33,7 @@ import org.springframework.web.bind.annotation.*;
 public class JobController {
 
     private final JobService jobService;
+    private final JobEventHub jobEventHub;
 
     @PostMapping
     public ResponseEntity<JobResponse> createJob(@Valid @RequestBody JobRequest request) {
@@ -37,15 +50,64 @@ public class JobController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/batch")
+    public ResponseEntity<BatchProgressResponse> getBatchProgress(@PathVariable Long id) {
+        log.info("GET /api/jobs/{}/batch", id);
+        return jobService.getBatchProgress(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Jobs matching the given filters, newest first. The summary view leaves out the
+     * description, payloads and recent runs; the full view returns {@link JobResponse}s.
+     */
     @GetMapping
-    public ResponseEntity<Page<JobResponse>> getJobs(
+    public ResponseEntity<Page<?>> getJobs(
             @RequestParam(required = false) String owner,
+            @RequestParam(required = false) List<JobStatus> status,
+            @RequestParam(required = false) List<JobType> type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime nextRunFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime nextRunTo,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "full") String view,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
-        log.info("GET /api/jobs?owner={}&page={}&size={}", owner, page, size);
-        Pageable pageable = PageRequest.of(page, size);
-        Page<JobResponse> jobs = jobService.getJobs(owner, pageable);
-        return ResponseEntity.ok(jobs);
+        log.info("GET /api/jobs?owner={}&status={}&type={}&nextRunFrom={}&nextRunTo={}&name={}&view={}&page={}&size={}",
+                owner, status, type, nextRunFrom, nextRunTo, name, view, page, size);
+        JobQuery query = JobQuery.builder()
+                .owner(owner)
+                .statuses(status)
+                .types(type)
+                .nextRunFrom(nextRunFrom)
+                .nextRunTo(nextRunTo)
+                .namePrefix(name)
+                .build();
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
+        if ("summary".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(jobService.getJobSummaries(query, pageable));
+        }
+        if ("full".equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(jobService.getJobs(query, pageable));
+        }
+        throw new IllegalArgumentException("Unknown view: " + view + " (expected summary or full)");
+    }
+
+    /**
+     * Stream of job and run state changes made on this node. Browsers resume from the
+     * Last-Event-ID header when they reconnect; other clients can pass lastEventId.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) Long lastEventId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader) {
+        log.info("GET /api/jobs/events?owner={}", owner);
+        try {
+            return ResponseEntity.ok(jobEventHub.subscribe(owner, lastEventIdHeader != null ? lastEventIdHeader : lastEventId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
     }
 
     @PostMapping("/{id}/cancel")
@@ -3,6 +3,7 @@ package com.chronos.controller;
 import com.chronos.dto.JobRunResponse;
 import com.chronos.repository.JobRepository;
 import com.chronos.repository.JobRunRepository;
+import com.chronos.service.JobSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -19,6 +20,7 @@ public class JobRunController {
 
         private final JobRepository jobRepository;
         private final JobRunRepository jobRunRepository;
+        private final JobSnapshotCache jobSnapshotCache;
 
         @GetMapping
         public ResponseEntity<Page<JobRunResponse>> getJobRuns(
@@ -27,21 +29,12 @@ public class JobRunController {
                         @RequestParam(defaultValue = "20") int size) {
                 log.info("GET /api/jobs/{}/runs?page={}&size={}", jobId, page, size);
 
-                return jobRepository.findById(jobId)
-                                .map(job -> {
+                // Jobs are never deleted, so any cached snapshot proves the job exists
+                return jobSnapshotCache.get(jobId)
+                                .map(snapshot -> {
                                         Pageable pageable = PageRequest.of(page, size);
-                                        Page<JobRunResponse> runs = jobRunRepository.findByJob(job, pageable)
-                                                        .map(run -> JobRunResponse.builder()
-                                                                        .id(run.getId())
-                                                                        .jobId(run.getJob().getId())
-                                                                        .status(run.getStatus())
-                                                                        .startedAt(run.getStartedAt())
-                                                                        .completedAt(run.getCompletedAt())
-                                                                        .output(run.getOutput())
-                                                                        .error(run.getError())
-                                                                        .retryAttempt(run.getRetryAttempt())
-                                                                        .workerId(run.getWorkerId())
-                                                                        .build());
+                                        Page<JobRunResponse> runs = jobRunRepository.findByJob(jobRepository.getReferenceById(jobId), pageable)
+                                                        .map(JobRunResponse::from);
                                         return ResponseEntity.ok(runs);
                                 })
                                 .orElse(ResponseEntity.notFound().build());
@@ -55,17 +48,7 @@ public class JobRunController {
 
                 return jobRunRepository.findById(runId)
                                 .filter(run -> run.getJob().getId().equals(jobId))
-                                .map(run -> JobRunResponse.builder()
-                                                .id(run.getId())
-                                                .jobId(run.getJob().getId())
-                                                .status(run.getStatus())
-                                                .startedAt(run.getStartedAt())
-                                                .completedAt(run.getCompletedAt())
-                                                .output(run.getOutput())
-                                                .error(run.getError())
-                                                .retryAttempt(run.getRetryAttempt())
-                                                .workerId(run.getWorkerId())
-                                                .build())
+                                .map(JobRunResponse::from)
                                 .map(ResponseEntity::ok)
                                 .orElse(ResponseEntity.notFound().build());
         }
@@ -3,6 +3,11 @@ package com.chronos.controller;
 import com.chronos.model.JobStatus;
 import com.chronos.repository.JobRepository;
 import com.chronos.repository.JobRunRepository;
+import com.chronos.config.NodeIdentity;
+import com.chronos.service.CircuitBreakerService;
+import com.chronos.service.JobQueueService;
+import com.chronos.service.SchedulerLeaderElection;
+import com.chronos.service.SchedulerShardManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -21,6 +27,11 @@ public class MonitoringController {
 
     private final JobRepository jobRepository;
     private final JobRunRepository jobRunRepository;
+    private final CircuitBreakerService circuitBreakerService;
+    private final SchedulerLeaderElection leaderElection;
+    private final SchedulerShardManager shardManager;
+    private final NodeIdentity nodeIdentity;
+    private final JobQueueService jobQueueService;
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
@@ -51,6 +62,11 @@ public class MonitoringController {
         }
         runStats.put("byStatus", runStatusStats);
         stats.put("runs", runStats);
+
+        Map<String, Object> queueStats = new HashMap<>();
+        queueStats.put("backend", jobQueueService.backend());
+        queueStats.put("depth", jobQueueService.depth());
+        stats.put("queue", queueStats);
         
         // System health
         Map<String, String> health = new HashMap<>();
@@ -61,6 +77,27 @@ public class MonitoringController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<List<Map<String, Object>>> getCircuitBreakers() {
+        log.info("GET /api/monitoring/circuit-breakers");
+        return ResponseEntity.ok(circuitBreakerService.getBreakerStates());
+    }
+
+    @GetMapping("/scheduler")
+    public ResponseEntity<Map<String, Object>> getSchedulerState() {
+        log.info("GET /api/monitoring/scheduler");
+        Map<String, Object> state = new HashMap<>();
+        state.put("nodeId", nodeIdentity.getNodeId());
+        state.put("shardingEnabled", shardManager.isEnabled());
+        if (shardManager.isEnabled()) {
+            state.put("ownedShards", shardManager.getOwnedShards());
+            state.put("liveNodes", shardManager.getLiveNodes());
+        } else {
+            state.put("leader", leaderElection.isLeader());
+        }
+        return ResponseEntity.ok(state);
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         Map<String, String> health = new HashMap<>();
@@ -0,0 +1,46 @@
+package com.chronos.controller;
+
+import com.chronos.dto.WorkflowRequest;
+import com.chronos.dto.WorkflowResponse;
+import com.chronos.service.WorkflowService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/workflows")
+@RequiredArgsConstructor
+public class WorkflowController {
+
+    private final WorkflowService workflowService;
+
+    @PostMapping
+    public ResponseEntity<WorkflowResponse> createWorkflow(@Valid @RequestBody WorkflowRequest request) {
+        log.info("POST /api/workflows - Creating workflow: {}", request.getName());
+        WorkflowResponse response = workflowService.createWorkflow(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<WorkflowResponse> getWorkflow(@PathVariable Long id) {
+        log.info("GET /api/workflows/{}", id);
+        return workflowService.getWorkflow(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<Void> cancelWorkflow(@PathVariable Long id) {
+        log.info("POST /api/workflows/{}/cancel", id);
+        boolean cancelled = workflowService.cancelWorkflow(id);
+        if (cancelled) {
+            return ResponseEntity.ok().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.chronos.dto;
+
+import com.chronos.model.BatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchProgressResponse {
+    private Long jobId;
+    private Long runId;
+    private BatchStatus status;
+    private Integer totalPartitions;
+    private Long totalItems;
+    private Integer completedPartitions;
+    private Integer failedPartitions;
+    private Double percentComplete;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,21 @@
+package com.chronos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection of a job that is due: all the scheduler needs to dispatch it.
+ * The version lets the dispatcher attach a cached execution spec to the message.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DueJob {
+    private Long id;
+    private LocalDateTime nextRunTime;
+    private Integer version;
+    private Integer currentRetries;
+}
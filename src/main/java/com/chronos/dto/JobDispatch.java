@@ -0,0 +1,84 @@
+package com.chronos.dto;
+
+import com.chronos.model.Job;
+import com.chronos.spec.JobSpec;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Queue message asking a worker to execute one scheduled fire of a job. Sent in the
+ * binary format of {@link JobDispatchCodec}; older producers sent it as JSON with
+ * only jobId and fireId.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDispatch {
+    private Long jobId;
+    private String fireId; // "<jobId>:<scheduled fire time in epoch millis>", unique per fire
+    private Long fireTime; // Scheduled fire time in epoch millis
+    private Integer version; // Job version the message was produced for
+    private Integer retryAttempt;
+    private Long enqueuedAt; // Epoch millis when the dispatch was handed to the queue backend
+    private String traceParent; // W3C traceparent of the span that enqueued the dispatch
+    @Builder.Default
+    private int priority = 0; // Reserved; 0 is normal priority
+
+    /**
+     * Compiled definition of the job at {@link #version}. When present the worker can
+     * start the run without reading the job row first.
+     */
+    @JsonIgnore
+    private JobSpec spec;
+
+    public JobDispatch(Long jobId, String fireId) {
+        this.jobId = jobId;
+        this.fireId = fireId;
+    }
+
+    public static JobDispatch forJob(Job job) {
+        return builder()
+                .jobId(job.getId())
+                .fireId(fireId(job.getId(), job.getNextRunTime()))
+                .fireTime(epochMillis(job.getNextRunTime()))
+                .version(job.getVersion())
+                .retryAttempt(job.getCurrentRetries())
+                .build();
+    }
+
+    public static JobDispatch forDueJob(DueJob dueJob) {
+        return builder()
+                .jobId(dueJob.getId())
+                .fireId(fireId(dueJob.getId(), dueJob.getNextRunTime()))
+                .fireTime(epochMillis(dueJob.getNextRunTime()))
+                .version(dueJob.getVersion())
+                .retryAttempt(dueJob.getCurrentRetries())
+                .build();
+    }
+
+    /**
+     * Identify a single scheduled fire. Retries, manual runs and deferrals all move
+     * nextRunTime, so each of them gets a distinct fire id.
+     */
+    public static String fireId(Long jobId, LocalDateTime fireTime) {
+        if (fireTime == null) {
+            return null;
+        }
+        return fireId(jobId, epochMillis(fireTime));
+    }
+
+    public static String fireId(Long jobId, long fireTimeMillis) {
+        return jobId + ":" + fireTimeMillis;
+    }
+
+    private static Long epochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
+    }
+}
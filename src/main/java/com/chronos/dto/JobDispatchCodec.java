@@ -0,0 +1,326 @@
+package com.chronos.dto;
+
+import com.chronos.model.JobType;
+import com.chronos.spec.CustomJobSpec;
+import com.chronos.spec.ExecutionSpec;
+import com.chronos.spec.HttpJobSpec;
+import com.chronos.spec.JavaClassJobSpec;
+import com.chronos.spec.JobSpec;
+import com.chronos.spec.ScriptJobSpec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpMethod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of {@link JobDispatch}. All numbers are big-endian:
+ *
+ * <pre>
+ * magic 'C' 'J' | format version (1 byte) | flags (1 byte) | jobId (8)
+ * [fireTime (8)] [version (4)] [retryAttempt (4)] | priority (1) | [spec] [enqueuedAt (8)]
+ * [traceParent (string)]
+ * </pre>
+ *
+ * Optional fields are present when their flag bit is set. Strings are a 4-byte
+ * length followed by UTF-8 bytes. Decoders ignore bytes after the known fields, so
+ * fields may be appended without bumping the format version; any other change
+ * needs a new version, which older decoders reject instead of misreading.
+ *
+ * BATCH specs are never inlined: their templates can be large and a batch is a
+ * single dispatch, so the worker reads them from the job row instead.
+ */
+public final class JobDispatchCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.chronos.dispatch";
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final byte MAGIC_0 = 'C';
+    private static final byte MAGIC_1 = 'J';
+
+    private static final int FLAG_FIRE_TIME = 1;
+    private static final int FLAG_VERSION = 1 << 1;
+    private static final int FLAG_RETRY_ATTEMPT = 1 << 2;
+    private static final int FLAG_SPEC = 1 << 3;
+    private static final int FLAG_ENQUEUED_AT = 1 << 4;
+    private static final int FLAG_TRACE_PARENT = 1 << 5;
+
+    private JobDispatchCodec() {
+    }
+
+    /**
+     * Whether the body starts with the envelope magic, as opposed to legacy JSON
+     */
+    public static boolean isEncoded(byte[] body) {
+        return body.length >= 3 && body[0] == MAGIC_0 && body[1] == MAGIC_1;
+    }
+
+    public static byte[] encode(JobDispatch dispatch) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(dispatch.getSpec() != null ? 256 : 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            int flags = 0;
+            if (dispatch.getFireTime() != null) {
+                flags |= FLAG_FIRE_TIME;
+            }
+            if (dispatch.getVersion() != null) {
+                flags |= FLAG_VERSION;
+            }
+            if (dispatch.getRetryAttempt() != null) {
+                flags |= FLAG_RETRY_ATTEMPT;
+            }
+            boolean inlineSpec = dispatch.getSpec() != null && dispatch.getSpec().getType() != JobType.BATCH;
+            if (inlineSpec) {
+                flags |= FLAG_SPEC;
+            }
+            if (dispatch.getEnqueuedAt() != null) {
+                flags |= FLAG_ENQUEUED_AT;
+            }
+            if (dispatch.getTraceParent() != null) {
+                flags |= FLAG_TRACE_PARENT;
+            }
+
+            out.writeByte(MAGIC_0);
+            out.writeByte(MAGIC_1);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(flags);
+            out.writeLong(dispatch.getJobId());
+            if (dispatch.getFireTime() != null) {
+                out.writeLong(dispatch.getFireTime());
+            }
+            if (dispatch.getVersion() != null) {
+                out.writeInt(dispatch.getVersion());
+            }
+            if (dispatch.getRetryAttempt() != null) {
+                out.writeInt(dispatch.getRetryAttempt());
+            }
+            out.writeByte(dispatch.getPriority());
+            if (inlineSpec) {
+                writeSpec(out, dispatch.getSpec());
+            }
+            if (dispatch.getEnqueuedAt() != null) {
+                out.writeLong(dispatch.getEnqueuedAt());
+            }
+            if (dispatch.getTraceParent() != null) {
+                writeString(out, dispatch.getTraceParent());
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the envelope as well as the JSON {@link JobDispatch} object and the bare
+     * job id (optionally double-encoded as a JSON string) sent by older producers
+     *
+     * @throws IllegalArgumentException if the body is an unsupported envelope or names
+     *                                  no job
+     * @throws IOException              if the body is neither an envelope nor JSON
+     */
+    public static JobDispatch decodeAny(byte[] body, ObjectMapper objectMapper) throws IOException {
+        if (isEncoded(body)) {
+            return decode(body);
+        }
+        JsonNode node = objectMapper.readTree(body);
+        if (node.isTextual()) {
+            node = objectMapper.readTree(node.asText());
+        }
+        if (node.isNumber()) {
+            return new JobDispatch(node.asLong(), null);
+        }
+        JobDispatch dispatch = objectMapper.treeToValue(node, JobDispatch.class);
+        if (dispatch.getJobId() == null) {
+            throw new IllegalArgumentException("Message has no jobId");
+        }
+        return dispatch;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the body is not a supported envelope
+     */
+    public static JobDispatch decode(byte[] body) {
+        if (!isEncoded(body)) {
+            throw new IllegalArgumentException("Not a job dispatch envelope");
+        }
+        if (body[2] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported job dispatch format version " + body[2]);
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(body, 3, body.length - 3);
+            int flags = in.get();
+            JobDispatch dispatch = new JobDispatch();
+            dispatch.setJobId(in.getLong());
+            if ((flags & FLAG_FIRE_TIME) != 0) {
+                long fireTime = in.getLong();
+                dispatch.setFireTime(fireTime);
+                dispatch.setFireId(JobDispatch.fireId(dispatch.getJobId(), fireTime));
+            }
+            if ((flags & FLAG_VERSION) != 0) {
+                dispatch.setVersion(in.getInt());
+            }
+            if ((flags & FLAG_RETRY_ATTEMPT) != 0) {
+                dispatch.setRetryAttempt(in.getInt());
+            }
+            dispatch.setPriority(in.get());
+            if ((flags & FLAG_SPEC) != 0) {
+                dispatch.setSpec(readSpec(in, body, dispatch.getJobId(), dispatch.getVersion()));
+            }
+            if ((flags & FLAG_ENQUEUED_AT) != 0) {
+                dispatch.setEnqueuedAt(in.getLong());
+            }
+            if ((flags & FLAG_TRACE_PARENT) != 0) {
+                dispatch.setTraceParent(readString(in, body));
+            }
+            return dispatch;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated job dispatch envelope", e);
+        }
+    }
+
+    private static void writeSpec(DataOutputStream out, JobSpec spec) throws IOException {
+        out.writeByte(typeCode(spec.getType()));
+        out.writeInt(spec.getTimeoutSeconds() != null ? spec.getTimeoutSeconds() : 0);
+        out.writeLong(spec.getRetryDelaySeconds());
+
+        ExecutionSpec execution = spec.getExecution();
+        if (execution instanceof HttpJobSpec http) {
+            writeString(out, http.getUrl());
+            writeString(out, http.getHost());
+            writeString(out, http.getMethod().name());
+            out.writeInt(http.getHeaders().size());
+            for (Map.Entry<String, String> header : http.getHeaders().entrySet()) {
+                writeString(out, header.getKey());
+                writeString(out, header.getValue());
+            }
+            writeString(out, http.getBody());
+        } else if (execution instanceof ScriptJobSpec script) {
+            out.writeInt(script.getCommand().size());
+            for (String arg : script.getCommand()) {
+                writeString(out, arg);
+            }
+        } else if (execution instanceof JavaClassJobSpec javaClass) {
+            writeString(out, javaClass.getClassName());
+        } else if (execution instanceof CustomJobSpec custom) {
+            writeString(out, custom.getJobData());
+        } else {
+            throw new IllegalArgumentException("Unsupported spec " + execution.getClass().getSimpleName());
+        }
+    }
+
+    private static JobSpec readSpec(ByteBuffer in, byte[] body, Long jobId, Integer version) {
+        JobType type = typeOf(in.get());
+        int timeoutSeconds = in.getInt();
+        long retryDelaySeconds = in.getLong();
+
+        ExecutionSpec execution;
+        switch (type) {
+            case HTTP_REQUEST: {
+                String url = readString(in, body);
+                String host = readString(in, body);
+                HttpMethod method = HttpMethod.valueOf(readString(in, body));
+                int headerCount = in.getInt();
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (int i = 0; i < headerCount; i++) {
+                    headers.put(readString(in, body), readString(in, body));
+                }
+                execution = new HttpJobSpec(url, host, method, Map.copyOf(headers), readString(in, body));
+                break;
+            }
+            case SHELL_SCRIPT:
+            case PYTHON_SCRIPT: {
+                int argCount = in.getInt();
+                List<String> command = new ArrayList<>(argCount);
+                for (int i = 0; i < argCount; i++) {
+                    command.add(readString(in, body));
+                }
+                execution = new ScriptJobSpec(List.copyOf(command));
+                break;
+            }
+            case JAVA_CLASS:
+                execution = new JavaClassJobSpec(readString(in, body));
+                break;
+            default:
+                execution = new CustomJobSpec(readString(in, body));
+        }
+
+        return JobSpec.builder()
+                .jobId(jobId)
+                .version(version)
+                .type(type)
+                .execution(execution)
+                .timeoutSeconds(timeoutSeconds > 0 ? timeoutSeconds : null)
+                .retryDelaySeconds(retryDelaySeconds)
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Decodes straight from the backing array, so the only allocation is the string
+     */
+    private static String readString(ByteBuffer in, byte[] body) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        int position = in.position();
+        String value = new String(body, position, length, StandardCharsets.UTF_8);
+        in.position(position + length);
+        return value;
+    }
+
+    // Explicit codes rather than ordinals, so reordering JobType cannot change the format
+    private static int typeCode(JobType type) {
+        switch (type) {
+            case HTTP_REQUEST:
+                return 1;
+            case SHELL_SCRIPT:
+                return 2;
+            case JAVA_CLASS:
+                return 3;
+            case PYTHON_SCRIPT:
+                return 4;
+            case CUSTOM:
+                return 5;
+            default:
+                throw new IllegalArgumentException("No envelope code for job type " + type);
+        }
+    }
+
+    private static JobType typeOf(byte code) {
+        switch (code) {
+            case 1:
+                return JobType.HTTP_REQUEST;
+            case 2:
+                return JobType.SHELL_SCRIPT;
+            case 3:
+                return JobType.JAVA_CLASS;
+            case 4:
+                return JobType.PYTHON_SCRIPT;
+            case 5:
+                return JobType.CUSTOM;
+            default:
+                throw new IllegalArgumentException("Unknown job type code " + code);
+        }
+    }
+}
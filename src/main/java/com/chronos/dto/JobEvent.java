@@ -0,0 +1,31 @@
+package com.chronos.dto;
+
+import com.chronos.model.JobStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State change of a job or one of its runs, as streamed by {@code GET /api/jobs/events}.
+ * Only the fields that changed are set: job fields are absent when only a run changed,
+ * run fields when the change was not made by a run.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobEvent {
+    private Long jobId;
+    private String owner;
+    private JobStatus status;
+    private LocalDateTime lastRunTime;
+    private LocalDateTime nextRunTime;
+    private Long runId;
+    private JobStatus runStatus;
+    private LocalDateTime timestamp;
+}
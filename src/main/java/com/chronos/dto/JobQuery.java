@@ -0,0 +1,28 @@
+package com.chronos.dto;
+
+import com.chronos.model.JobStatus;
+import com.chronos.model.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters of {@code GET /api/jobs}. Unset fields do not restrict the result; list
+ * fields match any of their values.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobQuery {
+    private String owner;
+    private List<JobStatus> statuses;
+    private List<JobType> types;
+    private LocalDateTime nextRunFrom; // Inclusive
+    private LocalDateTime nextRunTo; // Exclusive
+    private String namePrefix;
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class JobRequest {
     @NotBlank(message = "Job name is required")
@@ -27,5 +29,9 @@ public class JobRequest {
     private String jobData; // JSON payload
 
     private String config; // Additional configuration JSON
+
+    private String key; // Name other jobs of the same workflow use in dependsOn; defaults to name
+
+    private List<String> dependsOn; // Keys of upstream jobs; only within a workflow
 }
 
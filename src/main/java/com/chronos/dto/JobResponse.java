@@ -1,5 +1,6 @@
 package com.chronos.dto;
 
+import com.chronos.model.Job;
 import com.chronos.model.JobStatus;
 import com.chronos.model.JobType;
 import lombok.AllArgsConstructor;
@@ -28,10 +29,62 @@ public class JobResponse {
     private String jobData;
     private String config;
     private Integer version;
+    private Long workflowId;
     private LocalDateTime nextRunTime;
     private LocalDateTime lastRunTime;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<JobRunResponse> recentRuns;
-}
 
+    public static JobResponse from(Job job, List<JobRunResponse> recentRuns) {
+        return builder()
+                .id(job.getId())
+                .name(job.getName())
+                .owner(job.getOwner())
+                .type(job.getType())
+                .status(job.getStatus())
+                .description(job.getDescription())
+                .schedule(job.getSchedule())
+                .isRecurring(job.getIsRecurring())
+                .maxRetries(job.getMaxRetries())
+                .currentRetries(job.getCurrentRetries())
+                .jobData(job.getJobData())
+                .config(job.getConfig())
+                .version(job.getVersion())
+                .workflowId(job.getWorkflowId())
+                .nextRunTime(job.getNextRunTime())
+                .lastRunTime(job.getLastRunTime())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .recentRuns(recentRuns)
+                .build();
+    }
+
+    /**
+     * Response from a cached definition and the job's current state, which must be at
+     * the snapshot's version
+     */
+    public static JobResponse from(JobSnapshot snapshot, JobState state, List<JobRunResponse> recentRuns) {
+        return builder()
+                .id(snapshot.getId())
+                .name(snapshot.getName())
+                .owner(snapshot.getOwner())
+                .type(snapshot.getType())
+                .status(state.getStatus())
+                .description(snapshot.getDescription())
+                .schedule(snapshot.getSchedule())
+                .isRecurring(snapshot.getIsRecurring())
+                .maxRetries(snapshot.getMaxRetries())
+                .currentRetries(state.getCurrentRetries())
+                .jobData(snapshot.getJobData())
+                .config(snapshot.getConfig())
+                .version(snapshot.getVersion())
+                .workflowId(snapshot.getWorkflowId())
+                .nextRunTime(state.getNextRunTime())
+                .lastRunTime(state.getLastRunTime())
+                .createdAt(snapshot.getCreatedAt())
+                .updatedAt(state.getUpdatedAt())
+                .recentRuns(recentRuns)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.chronos.dto;
 
+import com.chronos.model.JobRun;
 import com.chronos.model.JobStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,5 +23,18 @@ public class JobRunResponse {
     private String error;
     private Integer retryAttempt;
     private String workerId;
-}
 
+    public static JobRunResponse from(JobRun run) {
+        return builder()
+                .id(run.getId())
+                .jobId(run.getJob().getId())
+                .status(run.getStatus())
+                .startedAt(run.getStartedAt())
+                .completedAt(run.getCompletedAt())
+                .output(run.getOutput())
+                .error(run.getError())
+                .retryAttempt(run.getRetryAttempt())
+                .workerId(run.getWorkerId())
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.chronos.dto;
+
+import com.chronos.model.Job;
+import com.chronos.model.JobType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the parts of a job that only change together with its version:
+ * the definition, but none of the status, run times, retries or lease that every
+ * execution updates.
+ */
+@Value
+@Builder
+public class JobSnapshot {
+    Long id;
+    Integer version;
+    String name;
+    String owner;
+    JobType type;
+    String description;
+    String schedule;
+    Boolean isRecurring;
+    Integer maxRetries;
+    String jobData;
+    String config;
+    Long workflowId;
+    LocalDateTime createdAt;
+
+    public static JobSnapshot from(Job job) {
+        return builder()
+                .id(job.getId())
+                .version(job.getVersion())
+                .name(job.getName())
+                .owner(job.getOwner())
+                .type(job.getType())
+                .description(job.getDescription())
+                .schedule(job.getSchedule())
+                .isRecurring(job.getIsRecurring())
+                .maxRetries(job.getMaxRetries())
+                .jobData(job.getJobData())
+                .config(job.getConfig())
+                .workflowId(job.getWorkflowId())
+                .createdAt(job.getCreatedAt())
+                .build();
+    }
+}
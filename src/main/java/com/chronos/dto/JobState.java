@@ -0,0 +1,24 @@
+package com.chronos.dto;
+
+import com.chronos.model.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection of the columns of a job that executions change, read without the
+ * definition payloads. The version names the {@link JobSnapshot} that goes with it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobState {
+    private JobStatus status;
+    private LocalDateTime nextRunTime;
+    private LocalDateTime lastRunTime;
+    private Integer currentRetries;
+    private Integer version;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package com.chronos.dto;
+
+import com.chronos.model.JobStatus;
+import com.chronos.model.JobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * List view of a job: what a job list shows, without the description, payloads and
+ * run history of {@link JobResponse}. Read straight from the selected columns, so
+ * the payload columns are never fetched.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobSummaryResponse {
+    private Long id;
+    private String name;
+    private String owner;
+    private JobType type;
+    private JobStatus status;
+    private String schedule;
+    private Boolean isRecurring;
+    private Integer maxRetries;
+    private Integer currentRetries;
+    private Integer version;
+    private Long workflowId;
+    private LocalDateTime nextRunTime;
+    private LocalDateTime lastRunTime;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,70 @@
+package com.chronos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * What the threads in scope spent their time and memory on during a recording.
+ * Allocations are estimated from JFR's allocation samples; contention and JDBC times
+ * are wall-clock sums over the events in scope. GC is node-wide.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfileSummary {
+    private Long executions; // Job executions (and batch steps) in the recording
+    private Double executionTimeMs;
+    private Long schedulerTicks;
+    private Double schedulerTimeMs;
+    private Long allocatedBytes;
+    private List<AllocationSite> allocationSites;
+    private Double contentionTimeMs;
+    private List<ContentionSite> contention;
+    private Long jdbcStatements;
+    private Double jdbcTimeMs;
+    private List<JdbcStatement> jdbc;
+    private Long gcCollections;
+    private Double gcPauseTimeMs;
+    private Double gcLongestPauseMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AllocationSite {
+        private String objectClass;
+        private String frame; // Allocating method
+        private String applicationFrame; // Nearest Chronos method on the stack
+        private Long bytes;
+        private Long samples;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ContentionSite {
+        private String lockClass;
+        private String frame;
+        private String applicationFrame;
+        private Long count;
+        private Double totalMs;
+        private Double maxMs;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class JdbcStatement {
+        private String sql;
+        private Long count;
+        private Double totalMs;
+        private Double maxMs;
+    }
+}
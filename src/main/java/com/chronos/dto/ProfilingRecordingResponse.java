@@ -0,0 +1,26 @@
+package com.chronos.dto;
+
+import com.chronos.profiling.ProfilingScope;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProfilingRecordingResponse {
+    private Long id;
+    private ProfilingScope scope;
+    private String state; // RUNNING, FINISHED or FAILED
+    private LocalDateTime startedAt;
+    private Integer durationSeconds;
+    private Long sizeBytes;
+    private String download; // Path of the raw .jfr (e.g. /actuator/profiling/1/jfr), once finished
+    private ProfileSummary summary; // Only on a single finished recording
+}
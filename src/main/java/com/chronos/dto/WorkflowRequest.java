@@ -0,0 +1,19 @@
+package com.chronos.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class WorkflowRequest {
+    @NotBlank(message = "Workflow name is required")
+    private String name;
+
+    @NotBlank(message = "Owner is required")
+    private String owner;
+
+    @NotEmpty(message = "A workflow needs at least one job")
+    private List<JobRequest> jobs; // Job owners default to the workflow owner
+}
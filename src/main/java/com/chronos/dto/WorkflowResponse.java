@@ -0,0 +1,41 @@
+package com.chronos.dto;
+
+import com.chronos.model.JobStatus;
+import com.chronos.model.WorkflowStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowResponse {
+    private Long id;
+    private String name;
+    private String owner;
+    private WorkflowStatus status;
+    private Map<JobStatus, Long> jobCounts;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private List<Node> jobs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Node {
+        private Long id;
+        private String name;
+        private JobStatus status;
+        private List<Long> dependsOn;
+        private Integer pendingDependencies;
+        private LocalDateTime lastRunTime;
+    }
+}
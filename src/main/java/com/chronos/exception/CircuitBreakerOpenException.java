@@ -0,0 +1,22 @@
+package com.chronos.exception;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thrown when an HTTP job targets a host whose circuit breaker is open.
+ * The job is not executed and should be retried at {@link #getRetryAt()}.
+ */
+@Getter
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    private final String host;
+    private final LocalDateTime retryAt;
+
+    public CircuitBreakerOpenException(String host, LocalDateTime retryAt) {
+        super("Circuit breaker open for host " + host + ", retry after " + retryAt);
+        this.host = host;
+        this.retryAt = retryAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.chronos.exception;
+
+/**
+ * Thrown when a dispatched job no longer exists. Such messages can never succeed,
+ * so consumers treat them as poison rather than retrying.
+ */
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(Long jobId) {
+        super("Job not found: " + jobId);
+    }
+}
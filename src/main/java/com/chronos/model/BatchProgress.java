@@ -0,0 +1,62 @@
+package com.chronos.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the latest run of a BATCH job. Partitions are not stored individually:
+ * counters and a bitmap of completed partition indexes are enough to report progress
+ * and to resume after a failed run.
+ */
+@Entity
+@Table(name = "batch_progress")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchProgress {
+    @Id
+    private Long jobId;
+
+    @Column
+    private Long runId;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BatchStatus status;
+
+    @Column(nullable = false)
+    private Integer totalPartitions;
+
+    @Column(nullable = false)
+    private Long totalItems;
+
+    @Column(nullable = false)
+    private Integer completedPartitions;
+
+    @Column(nullable = false)
+    private Integer failedPartitions;
+
+    @Column
+    private byte[] donePartitions; // BitSet.toByteArray() of completed partition indexes
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime updatedAt;
+
+    @Column
+    private LocalDateTime completedAt;
+}
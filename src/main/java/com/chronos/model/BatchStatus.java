@@ -0,0 +1,9 @@
+package com.chronos.model;
+
+public enum BatchStatus {
+    RUNNING,
+    REDUCING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
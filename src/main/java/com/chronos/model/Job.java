@@ -5,16 +5,21 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// Schema is owned by the Flyway migrations in db/migration, which also define the
+// partial due-job indexes (idx_jobs_due, idx_jobs_shard_due) and the name prefix
+// index (idx_jobs_owner_name) JPA cannot express
 @Table(name = "jobs", indexes = {
-    @Index(name = "idx_owner", columnList = "owner"),
-    @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_next_run", columnList = "nextRunTime")
+    @Index(name = "idx_jobs_owner_id", columnList = "owner, id"),
+    @Index(name = "idx_jobs_owner_status_id", columnList = "owner, status, id"),
+    @Index(name = "idx_status", columnList = "status")
 })
 @Data
 @Builder
@@ -58,11 +63,11 @@ public class Job {
     @Builder.Default
     private Integer currentRetries = 0;
 
-    @Column(columnDefinition = "TEXT")
-    private String jobData; // JSON payload for job execution
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String jobData; // JSON payload for job execution, stored as JSONB
 
-    @Column(columnDefinition = "TEXT")
-    private String config; // Additional configuration
+    @JdbcTypeCode(SqlTypes.JSON)
+    private String config; // Additional configuration, stored as JSONB
 
     @Column(nullable = false)
     @Builder.Default
@@ -71,9 +76,25 @@ public class Job {
     @Column
     private LocalDateTime nextRunTime;
 
+    @Column
+    private Integer shard; // Scheduler shard: id modulo chronos.scheduler.sharding.shard-count
+
     @Column
     private LocalDateTime lastRunTime;
 
+    @Column
+    private Long workflowId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer pendingDependencies = 0; // Upstream workflow jobs not yet completed
+
+    @Column
+    private String leaseOwner; // Node currently executing the job
+
+    @Column
+    private LocalDateTime leaseExpiresAt; // Renewed by the owner's heartbeat while RUNNING
+
     @Column
     private LocalDateTime createdAt;
 
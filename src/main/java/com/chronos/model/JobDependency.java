@@ -0,0 +1,33 @@
+package com.chronos.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Edge of a workflow DAG: {@code jobId} runs once {@code dependsOnJobId} has completed.
+ */
+@Entity
+@Table(name = "job_dependencies")
+@IdClass(JobDependency.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDependency {
+    @Id
+    private Long jobId;
+
+    @Id
+    private Long dependsOnJobId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long jobId;
+        private Long dependsOnJobId;
+    }
+}
@@ -10,9 +10,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "job_runs", indexes = {
-    @Index(name = "idx_job_id", columnList = "job_id"),
+    @Index(name = "idx_job_runs_job_created", columnList = "job_id, createdAt DESC"),
     @Index(name = "idx_run_status", columnList = "status"),
     @Index(name = "idx_started_at", columnList = "startedAt")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_job_run_fire_id", columnNames = "fireId")
 })
 @Data
 @Builder
@@ -47,7 +49,13 @@ public class JobRun {
     private Integer retryAttempt;
 
     @Column
-    private String workerId; // Identifier of the worker that executed this run
+    private String workerId; // Node id of the worker that executed this run
+
+    @Column
+    private LocalDateTime leaseExpiresAt; // Renewed by the worker's heartbeat while RUNNING
+
+    @Column
+    private String fireId; // Job id + scheduled fire time; at most one run per fire
 
     @Column
     private LocalDateTime createdAt;
@@ -7,6 +7,8 @@ public enum JobStatus {
     COMPLETED,
     FAILED,
     CANCELLED,
-    RETRYING
+    RETRYING,
+    TIMED_OUT,
+    WAITING // Workflow job whose upstream jobs have not all completed
 }
 
@@ -5,6 +5,7 @@ public enum JobType {
     SHELL_SCRIPT,
     JAVA_CLASS,
     PYTHON_SCRIPT,
-    CUSTOM
+    CUSTOM,
+    BATCH // Fans a partitioned input out to child executions of another type
 }
 
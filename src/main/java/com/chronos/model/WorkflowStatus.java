@@ -0,0 +1,8 @@
+package com.chronos.model;
+
+public enum WorkflowStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
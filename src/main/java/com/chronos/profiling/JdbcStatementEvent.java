@@ -0,0 +1,26 @@
+package com.chronos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One JDBC statement execution, including the wait for the database
+ */
+@Name("chronos.JdbcStatement")
+@Label("JDBC Statement")
+@Category("Chronos")
+@Description("One JDBC statement execution, including the wait for the database")
+class JdbcStatementEvent extends Event {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Success")
+    boolean success;
+}
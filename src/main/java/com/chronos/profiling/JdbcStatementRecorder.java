@@ -0,0 +1,54 @@
+package com.chronos.profiling;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Emits a {@link JdbcStatementEvent} for every statement run through the proxied data
+ * source while a recording has the event enabled. Outside recordings it costs one
+ * enabled check per statement.
+ */
+@Component
+public class JdbcStatementRecorder implements QueryExecutionListener {
+
+    private static final String EVENT_KEY = JdbcStatementEvent.class.getName();
+    private static final int MAX_SQL_LENGTH = 300;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        JdbcStatementEvent event = new JdbcStatementEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            execInfo.addCustomValue(EVENT_KEY, event);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        JdbcStatementEvent event = execInfo.getCustomValue(EVENT_KEY, JdbcStatementEvent.class);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.sql = queryInfoList.isEmpty() ? null : normalize(queryInfoList.get(0).getQuery());
+            event.batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+            event.success = execInfo.isSuccess();
+            event.commit();
+        }
+    }
+
+    private static String normalize(String sql) {
+        if (sql == null) {
+            return null;
+        }
+        String collapsed = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        return collapsed.length() > MAX_SQL_LENGTH ? collapsed.substring(0, MAX_SQL_LENGTH) + "..." : collapsed;
+    }
+}
@@ -0,0 +1,35 @@
+package com.chronos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A worker executing one dispatched fire of a job, from consume to completion, or
+ * one step of a batch run. Profiling summaries use it to tell executor threads apart.
+ */
+@Name("chronos.JobExecution")
+@Label("Job Execution")
+@Category("Chronos")
+@Description("A worker executing one dispatched fire of a job, or one step of a batch run")
+@StackTrace(false)
+public class JobExecutionEvent extends Event {
+
+    @Label("Job Id")
+    long jobId;
+
+    @Label("Fire Id")
+    String fireId;
+
+    @Label("Batch Step")
+    boolean batchStep;
+
+    public JobExecutionEvent(Long jobId, String fireId, boolean batchStep) {
+        this.jobId = jobId != null ? jobId : 0;
+        this.fireId = fireId;
+        this.batchStep = batchStep;
+    }
+}
@@ -0,0 +1,90 @@
+package com.chronos.profiling;
+
+import com.chronos.dto.ProfilingRecordingResponse;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code /actuator/profiling}: start a time-boxed JFR recording on this node, then
+ * read its summary for the executor and/or scheduler threads or download the raw
+ * .jfr for JDK Mission Control.
+ */
+@Component
+@Endpoint(id = "profiling")
+public class ProfilingEndpoint {
+
+    private final ProfilingService profilingService;
+
+    public ProfilingEndpoint(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    @ReadOperation
+    public List<ProfilingRecordingResponse> recordings() {
+        return profilingService.list();
+    }
+
+    /**
+     * @param durationSeconds defaults to {@code chronos.profiling.default-duration-seconds}
+     * @param scope           executor, scheduler or all (default)
+     */
+    @WriteOperation
+    public WebEndpointResponse<Object> start(@Nullable Integer durationSeconds, @Nullable String scope) {
+        ProfilingScope profilingScope;
+        try {
+            profilingScope = scope != null ? ProfilingScope.valueOf(scope.toUpperCase(Locale.ROOT)) : ProfilingScope.ALL;
+        } catch (IllegalArgumentException e) {
+            return error("scope must be executor, scheduler or all", WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        try {
+            return new WebEndpointResponse<>(profilingService.start(durationSeconds, profilingScope));
+        } catch (IllegalArgumentException e) {
+            return error(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return error(e.getMessage(), 409);
+        }
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<ProfilingRecordingResponse> recording(@Selector long id) {
+        ProfilingRecordingResponse response = profilingService.get(id);
+        return response != null
+                ? new WebEndpointResponse<>(response)
+                : new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    /**
+     * {@code GET /actuator/profiling/{id}/jfr}
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector long id, @Selector String format) {
+        Path file = "jfr".equals(format) ? profilingService.file(id) : null;
+        return file != null
+                ? new WebEndpointResponse<>(new FileSystemResource(file))
+                : new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> delete(@Selector long id) {
+        return new WebEndpointResponse<>(profilingService.delete(id)
+                ? WebEndpointResponse.STATUS_NO_CONTENT
+                : WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private static WebEndpointResponse<Object> error(String message, int status) {
+        return new WebEndpointResponse<>(Map.of("message", message), status);
+    }
+}
@@ -0,0 +1,18 @@
+package com.chronos.profiling;
+
+/**
+ * Threads a profiling summary covers: those executing jobs, those polling for due
+ * jobs, or both. Threads are matched by the Chronos events they were inside of when
+ * the sampled event happened, not by name, so any pool or listener container counts.
+ */
+public enum ProfilingScope {
+    EXECUTOR, SCHEDULER, ALL;
+
+    boolean includesExecutor() {
+        return this != SCHEDULER;
+    }
+
+    boolean includesScheduler() {
+        return this != EXECUTOR;
+    }
+}
@@ -0,0 +1,241 @@
+package com.chronos.profiling;
+
+import com.chronos.dto.ProfileSummary;
+import com.chronos.dto.ProfilingRecordingResponse;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-boxed JFR recordings started on demand. Only one recording runs at a time;
+ * JFR stops it after its duration and writes it to the profiling directory, where the
+ * last few are kept for summaries and download.
+ *
+ * Recordings use the JDK's "profile" settings, with lock contention recorded from a
+ * lower threshold and the Chronos events that mark executor and scheduler threads.
+ */
+@Slf4j
+@Service
+public class ProfilingService {
+
+    private final Map<Long, ProfiledRecording> recordings = new LinkedHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Value("${chronos.profiling.directory:${java.io.tmpdir}/chronos-profiling}")
+    private Path directory;
+
+    @Value("${chronos.profiling.default-duration-seconds:30}")
+    private int defaultDurationSeconds;
+
+    @Value("${chronos.profiling.max-duration-seconds:300}")
+    private int maxDurationSeconds;
+
+    @Value("${chronos.profiling.retained-recordings:5}")
+    private int retainedRecordings;
+
+    @Value("${chronos.profiling.contention-threshold-ms:1}")
+    private long contentionThresholdMs;
+
+    @Value("${chronos.profiling.top-sites:20}")
+    private int topSites;
+
+    @Value("${management.endpoints.web.base-path:/actuator}")
+    private String actuatorBasePath;
+
+    /**
+     * @throws IllegalArgumentException if the duration is out of range
+     * @throws IllegalStateException    if a recording is already running
+     */
+    public synchronized ProfilingRecordingResponse start(Integer durationSeconds, ProfilingScope scope) {
+        int duration = durationSeconds != null ? durationSeconds : defaultDurationSeconds;
+        if (duration < 1 || duration > maxDurationSeconds) {
+            throw new IllegalArgumentException("durationSeconds must be between 1 and " + maxDurationSeconds);
+        }
+        for (ProfiledRecording profiled : recordings.values()) {
+            if (profiled.recording.getState() == RecordingState.RUNNING) {
+                throw new IllegalStateException("Recording " + profiled.id + " is still running");
+            }
+        }
+
+        long id = ids.incrementAndGet();
+        Path file = directory.resolve("chronos-" + id + ".jfr");
+        Recording recording;
+        try {
+            Files.createDirectories(directory);
+            recording = new Recording(Configuration.getConfiguration("profile"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot create recording: " + e.getMessage(), e);
+        }
+        recording.setName("chronos-" + id);
+        recording.enable(JobExecutionEvent.class);
+        recording.enable(SchedulerTickEvent.class);
+        recording.enable(JdbcStatementEvent.class).withStackTrace();
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(contentionThresholdMs)).withStackTrace();
+        recording.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(contentionThresholdMs)).withStackTrace();
+        recording.setToDisk(true);
+        recording.setDuration(Duration.ofSeconds(duration));
+        try {
+            recording.setDestination(file);
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+
+        ProfiledRecording profiled = new ProfiledRecording(id, scope, duration, recording, file);
+        recordings.put(id, profiled);
+        evictOldRecordings();
+        log.info("Started {}s {} profiling recording {} to {}", duration, scope, id, file);
+        return toResponse(profiled);
+    }
+
+    public synchronized List<ProfilingRecordingResponse> list() {
+        List<ProfilingRecordingResponse> responses = new ArrayList<>();
+        recordings.values().forEach(profiled -> responses.add(toResponse(profiled)));
+        return responses;
+    }
+
+    /**
+     * The recording with its summary once it has finished, or null if unknown. The
+     * summary is computed on first request and kept.
+     */
+    public ProfilingRecordingResponse get(long id) {
+        ProfiledRecording profiled;
+        synchronized (this) {
+            profiled = recordings.get(id);
+        }
+        if (profiled == null) {
+            return null;
+        }
+        ProfilingRecordingResponse response = toResponse(profiled);
+        if ("FINISHED".equals(response.getState())) {
+            response.setSummary(summarize(profiled));
+        }
+        return response;
+    }
+
+    /**
+     * The raw recording, or null unless it has finished
+     */
+    public synchronized Path file(long id) {
+        ProfiledRecording profiled = recordings.get(id);
+        return profiled != null && "FINISHED".equals(state(profiled)) ? profiled.file : null;
+    }
+
+    /**
+     * Stop the recording if it is still running and delete it
+     *
+     * @return false if there is no such recording
+     */
+    public synchronized boolean delete(long id) {
+        ProfiledRecording profiled = recordings.remove(id);
+        if (profiled == null) {
+            return false;
+        }
+        discard(profiled);
+        return true;
+    }
+
+    private ProfileSummary summarize(ProfiledRecording profiled) {
+        synchronized (profiled) {
+            if (profiled.summary == null) {
+                try {
+                    profiled.summary = new RecordingAnalyzer(profiled.scope, topSites).analyze(profiled.file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read recording " + profiled.id, e);
+                }
+            }
+            return profiled.summary;
+        }
+    }
+
+    private void evictOldRecordings() {
+        Iterator<ProfiledRecording> iterator = recordings.values().iterator();
+        while (recordings.size() > retainedRecordings && iterator.hasNext()) {
+            ProfiledRecording oldest = iterator.next();
+            iterator.remove();
+            discard(oldest);
+        }
+    }
+
+    private void discard(ProfiledRecording profiled) {
+        profiled.recording.close();
+        try {
+            Files.deleteIfExists(profiled.file);
+        } catch (IOException e) {
+            log.warn("Could not delete recording {}", profiled.file, e);
+        }
+    }
+
+    private String state(ProfiledRecording profiled) {
+        RecordingState state = profiled.recording.getState();
+        if (state == RecordingState.NEW || state == RecordingState.DELAYED || state == RecordingState.RUNNING) {
+            return "RUNNING";
+        }
+        // JFR writes the destination file when the recording stops
+        return Files.exists(profiled.file) ? "FINISHED" : "FAILED";
+    }
+
+    private ProfilingRecordingResponse toResponse(ProfiledRecording profiled) {
+        String state = state(profiled);
+        boolean finished = "FINISHED".equals(state);
+        return ProfilingRecordingResponse.builder()
+                .id(profiled.id)
+                .scope(profiled.scope)
+                .state(state)
+                .startedAt(profiled.startedAt)
+                .durationSeconds(profiled.durationSeconds)
+                .sizeBytes(finished ? size(profiled.file) : null)
+                .download(finished ? actuatorBasePath + "/profiling/" + profiled.id + "/jfr" : null)
+                .build();
+    }
+
+    private static Long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        recordings.values().forEach(profiled -> profiled.recording.close());
+    }
+
+    private static class ProfiledRecording {
+        private final long id;
+        private final ProfilingScope scope;
+        private final int durationSeconds;
+        private final Recording recording;
+        private final Path file;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private ProfileSummary summary;
+
+        ProfiledRecording(long id, ProfilingScope scope, int durationSeconds, Recording recording, Path file) {
+            this.id = id;
+            this.scope = scope;
+            this.durationSeconds = durationSeconds;
+            this.recording = recording;
+            this.file = file;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.chronos.profiling;
+
+import com.chronos.dto.ProfileSummary;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Summarises a finished recording for the threads in a {@link ProfilingScope}. The
+ * file is read twice: first for the intervals each thread spent inside a job
+ * execution or scheduler tick, then for the allocation, contention and JDBC events
+ * that fall inside those intervals.
+ */
+class RecordingAnalyzer {
+
+    private static final String APPLICATION_PACKAGE = "com.chronos.";
+
+    private final ProfilingScope scope;
+    private final int top;
+
+    private final Map<Long, List<long[]>> intervals = new HashMap<>();
+    private long executions;
+    private long executionNanos;
+    private long schedulerTicks;
+    private long schedulerNanos;
+
+    private long allocatedBytes;
+    private final Map<String, Allocation> allocations = new HashMap<>();
+    private long contentionNanos;
+    private final Map<String, Timing> contention = new HashMap<>();
+    private long jdbcStatements;
+    private long jdbcNanos;
+    private final Map<String, Timing> jdbc = new HashMap<>();
+    private long gcCollections;
+    private long gcPauseNanos;
+    private long gcLongestPauseNanos;
+
+    RecordingAnalyzer(ProfilingScope scope, int top) {
+        this.scope = scope;
+        this.top = top;
+    }
+
+    ProfileSummary analyze(Path file) throws IOException {
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                collectInterval(recording.readEvent());
+            }
+        }
+        intervals.values().forEach(list -> list.sort(Comparator.comparingLong(interval -> interval[0])));
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                aggregate(recording.readEvent());
+            }
+        }
+
+        return ProfileSummary.builder()
+                .executions(executions)
+                .executionTimeMs(millis(executionNanos))
+                .schedulerTicks(schedulerTicks)
+                .schedulerTimeMs(millis(schedulerNanos))
+                .allocatedBytes(allocatedBytes)
+                .allocationSites(topSites(allocations, allocation -> allocation.bytes, allocation -> ProfileSummary.AllocationSite.builder()
+                        .objectClass(allocation.objectClass)
+                        .frame(allocation.frame)
+                        .applicationFrame(allocation.applicationFrame)
+                        .bytes(allocation.bytes)
+                        .samples(allocation.samples)
+                        .build()))
+                .contentionTimeMs(millis(contentionNanos))
+                .contention(topSites(contention, timing -> timing.totalNanos, timing -> ProfileSummary.ContentionSite.builder()
+                        .lockClass(timing.label)
+                        .frame(timing.frame)
+                        .applicationFrame(timing.applicationFrame)
+                        .count(timing.count)
+                        .totalMs(millis(timing.totalNanos))
+                        .maxMs(millis(timing.maxNanos))
+                        .build()))
+                .jdbcStatements(jdbcStatements)
+                .jdbcTimeMs(millis(jdbcNanos))
+                .jdbc(topSites(jdbc, timing -> timing.totalNanos, timing -> ProfileSummary.JdbcStatement.builder()
+                        .sql(timing.label)
+                        .count(timing.count)
+                        .totalMs(millis(timing.totalNanos))
+                        .maxMs(millis(timing.maxNanos))
+                        .build()))
+                .gcCollections(gcCollections)
+                .gcPauseTimeMs(millis(gcPauseNanos))
+                .gcLongestPauseMs(millis(gcLongestPauseNanos))
+                .build();
+    }
+
+    private void collectInterval(RecordedEvent event) {
+        String name = event.getEventType().getName();
+        boolean execution = name.equals("chronos.JobExecution") && scope.includesExecutor();
+        boolean tick = name.equals("chronos.SchedulerTick") && scope.includesScheduler();
+        if (!execution && !tick || event.getThread() == null) {
+            return;
+        }
+        long nanos = event.getDuration().toNanos();
+        if (execution) {
+            executions++;
+            executionNanos += nanos;
+        } else {
+            schedulerTicks++;
+            schedulerNanos += nanos;
+        }
+        intervals.computeIfAbsent(event.getThread().getJavaThreadId(), id -> new ArrayList<>())
+                .add(new long[]{epochNanos(event.getStartTime()), epochNanos(event.getEndTime())});
+    }
+
+    private void aggregate(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ObjectAllocationSample" -> {
+                if (inScope(event)) {
+                    long weight = event.getLong("weight");
+                    allocatedBytes += weight;
+                    RecordedClass objectClass = event.getClass("objectClass");
+                    String className = objectClass != null ? objectClass.getName() : "unknown";
+                    String frame = topFrame(event.getStackTrace());
+                    Allocation allocation = allocations.computeIfAbsent(className + " @ " + frame,
+                            key -> new Allocation(className, frame, applicationFrame(event.getStackTrace())));
+                    allocation.bytes += weight;
+                    allocation.samples++;
+                }
+            }
+            case "jdk.JavaMonitorEnter" -> recordContention(event, event.getClass("monitorClass"));
+            case "jdk.ThreadPark" -> {
+                // Only waits on locks; parking for futures and queues is not contention
+                RecordedClass parkedClass = event.getClass("parkedClass");
+                if (parkedClass != null && parkedClass.getName().startsWith("java.util.concurrent.locks.")) {
+                    recordContention(event, parkedClass);
+                }
+            }
+            case "chronos.JdbcStatement" -> {
+                if (inScope(event)) {
+                    long nanos = event.getDuration().toNanos();
+                    jdbcStatements++;
+                    jdbcNanos += nanos;
+                    String sql = event.getString("sql");
+                    jdbc.computeIfAbsent(sql != null ? sql : "unknown", key -> new Timing(key, null, null)).add(nanos);
+                }
+            }
+            case "jdk.GarbageCollection" -> {
+                long pauses = event.getDuration("sumOfPauses").toNanos();
+                gcCollections++;
+                gcPauseNanos += pauses;
+                gcLongestPauseNanos = Math.max(gcLongestPauseNanos, event.getDuration("longestPause").toNanos());
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void recordContention(RecordedEvent event, RecordedClass lockClass) {
+        if (!inScope(event)) {
+            return;
+        }
+        long nanos = event.getDuration().toNanos();
+        contentionNanos += nanos;
+        String className = lockClass != null ? lockClass.getName() : "unknown";
+        String frame = topFrame(event.getStackTrace());
+        contention.computeIfAbsent(className + " @ " + frame,
+                key -> new Timing(className, frame, applicationFrame(event.getStackTrace()))).add(nanos);
+    }
+
+    /**
+     * Whether the event's thread was inside an execution or tick of the scope when
+     * the event started
+     */
+    private boolean inScope(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        List<long[]> threadIntervals = thread != null ? intervals.get(thread.getJavaThreadId()) : null;
+        if (threadIntervals == null) {
+            return false;
+        }
+        long time = epochNanos(event.getStartTime());
+        // Last interval starting at or before the event
+        int low = 0;
+        int high = threadIntervals.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (threadIntervals.get(mid)[0] <= time) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found >= 0 && threadIntervals.get(found)[1] >= time;
+    }
+
+    private <T, R> List<R> topSites(Map<String, T> sites, Function<T, Long> weight, Function<T, R> mapper) {
+        return sites.values().stream()
+                .sorted(Comparator.comparing(weight).reversed())
+                .limit(top)
+                .map(mapper)
+                .toList();
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        return describe(stackTrace.getFrames().get(0));
+    }
+
+    private static String applicationFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return null;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        String method = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+        return frame.getLineNumber() > 0 ? method + ":" + frame.getLineNumber() : method;
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static Double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    private static class Allocation {
+        private final String objectClass;
+        private final String frame;
+        private final String applicationFrame;
+        private long bytes;
+        private long samples;
+
+        Allocation(String objectClass, String frame, String applicationFrame) {
+            this.objectClass = objectClass;
+            this.frame = frame;
+            this.applicationFrame = applicationFrame;
+        }
+    }
+
+    private static class Timing {
+        private final String label;
+        private final String frame;
+        private final String applicationFrame;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Timing(String label, String frame, String applicationFrame) {
+            this.label = label;
+            this.frame = frame;
+            this.applicationFrame = applicationFrame;
+        }
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.chronos.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One poll of the scheduler for due jobs
+ */
+@Name("chronos.SchedulerTick")
+@Label("Scheduler Tick")
+@Category("Chronos")
+@Description("One poll of the scheduler for due jobs")
+@StackTrace(false)
+public class SchedulerTickEvent extends Event {
+
+    @Label("Dispatched")
+    int dispatched;
+
+    public void setDispatched(int dispatched) {
+        this.dispatched = dispatched;
+    }
+}
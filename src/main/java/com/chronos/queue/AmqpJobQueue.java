@@ -0,0 +1,72 @@
+package com.chronos.queue;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.dto.JobDispatchCodec;
+import com.chronos.service.JobTracing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * RabbitMQ backend: dispatches go to the durable execution queue and cancels to the
+ * fanout exchange every node listens on.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "amqp", matchIfMissing = true)
+public class AmqpJobQueue implements JobQueue {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+
+    @Value("${chronos.scheduler.worker.queue-name:job.execution.queue}")
+    private String queueName;
+
+    @Value("${chronos.scheduler.worker.cancel-exchange:job.cancel.fanout}")
+    private String cancelExchange;
+
+    /**
+     * The trace context travels in the envelope; it is repeated in the standard
+     * traceparent header for consumers and tools that do not read the envelope.
+     */
+    @Override
+    public void enqueue(JobDispatch dispatch) {
+        Message message = MessageBuilder.withBody(JobDispatchCodec.encode(dispatch))
+                .setContentType(JobDispatchCodec.CONTENT_TYPE)
+                .setPriority(dispatch.getPriority())
+                .build();
+        if (dispatch.getTraceParent() != null) {
+            message.getMessageProperties().setHeader(JobTracing.TRACE_PARENT, dispatch.getTraceParent());
+        }
+        rabbitTemplate.send(queueName, message);
+    }
+
+    @Override
+    public void broadcastCancel(Long jobId) {
+        rabbitTemplate.convertAndSend(cancelExchange, "", jobId);
+    }
+
+    @Override
+    public long depth() {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(queueName);
+            return info != null ? info.getMessageCount() : 0;
+        } catch (Exception e) {
+            log.debug("Could not read depth of queue {}", queueName, e);
+            return 0;
+        }
+    }
+
+    @Override
+    public String backend() {
+        return "amqp";
+    }
+}
@@ -0,0 +1,172 @@
+package com.chronos.queue;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Append-only journal behind the local queue. Every accepted dispatch is written as an
+ * ENQUEUE record and every finished one as an ACK record, so after a restart the
+ * dispatches without an ACK can be replayed. Writes go through a buffer that is
+ * flushed (and optionally fsynced) on an interval; a crash can lose at most the last
+ * interval, and replay duplicates are dropped by the fire id check.
+ *
+ * Record layout: type (1 byte), sequence (8), and for ENQUEUE a 4-byte length and the
+ * encoded dispatch. A torn record at the end of the file is ignored.
+ */
+@Slf4j
+class DispatchJournal implements AutoCloseable {
+
+    private static final byte ENQUEUE = 1;
+    private static final byte ACK = 2;
+
+    private final Path path;
+    private final boolean fsync;
+    private final long compactThresholdBytes;
+    private final Map<Long, byte[]> recovered;
+    private FileOutputStream file;
+    private DataOutputStream out;
+    private long nextSequence;
+    private long pending;
+    private long writtenBytes;
+
+    DispatchJournal(Path path, boolean fsync, long compactThresholdBytes) {
+        this.path = path;
+        this.fsync = fsync;
+        this.compactThresholdBytes = compactThresholdBytes;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            recovered = read(path);
+            rewrite(recovered);
+            pending = recovered.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open queue journal " + path, e);
+        }
+    }
+
+    /**
+     * Dispatches that were enqueued but never acknowledged before the last shutdown,
+     * in enqueue order, keyed by sequence
+     */
+    Map<Long, byte[]> recovered() {
+        return recovered;
+    }
+
+    synchronized long append(byte[] dispatch) {
+        long sequence = nextSequence++;
+        try {
+            out.writeByte(ENQUEUE);
+            out.writeLong(sequence);
+            out.writeInt(dispatch.length);
+            out.write(dispatch);
+            writtenBytes += 13 + dispatch.length;
+        } catch (IOException e) {
+            nextSequence--;
+            throw new UncheckedIOException("Failed to write queue journal", e);
+        }
+        pending++;
+        return sequence;
+    }
+
+    synchronized void ack(long sequence) {
+        try {
+            out.writeByte(ACK);
+            out.writeLong(sequence);
+            writtenBytes += 9;
+        } catch (IOException e) {
+            // The dispatch will be replayed after a restart and dropped as a duplicate
+            log.warn("Failed to acknowledge dispatch {} in queue journal", sequence, e);
+        }
+        pending--;
+    }
+
+    /**
+     * Push buffered records to the file and truncate it once nothing is pending
+     */
+    synchronized void flush() {
+        try {
+            out.flush();
+            if (pending == 0 && writtenBytes > compactThresholdBytes) {
+                file.getChannel().truncate(0);
+                writtenBytes = 0;
+            }
+            if (fsync) {
+                file.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            log.error("Failed to flush queue journal {}", path, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Failed to close queue journal {}", path, e);
+        }
+    }
+
+    private Map<Long, byte[]> read(Path path) throws IOException {
+        Map<Long, byte[]> unacknowledged = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return unacknowledged;
+        }
+        try (InputStream stream = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            while (true) {
+                byte type = in.readByte();
+                long sequence = in.readLong();
+                nextSequence = Math.max(nextSequence, sequence + 1);
+                if (type == ENQUEUE) {
+                    byte[] dispatch = new byte[in.readInt()];
+                    in.readFully(dispatch);
+                    unacknowledged.put(sequence, dispatch);
+                } else if (type == ACK) {
+                    unacknowledged.remove(sequence);
+                } else {
+                    log.warn("Unknown record type {} in queue journal {}, ignoring the rest", type, path);
+                    break;
+                }
+            }
+        } catch (EOFException e) {
+            // End of journal, possibly a torn last record
+        }
+        return unacknowledged;
+    }
+
+    /**
+     * Replace the journal with one holding only the unacknowledged records
+     */
+    private void rewrite(Map<Long, byte[]> unacknowledged) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (DataOutputStream tmp = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compacted.toFile())))) {
+            for (Map.Entry<Long, byte[]> record : unacknowledged.entrySet()) {
+                tmp.writeByte(ENQUEUE);
+                tmp.writeLong(record.getKey());
+                tmp.writeInt(record.getValue().length);
+                tmp.write(record.getValue());
+                writtenBytes += 13 + record.getValue().length;
+            }
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        file = new FileOutputStream(path.toFile(), true);
+        out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024));
+    }
+}
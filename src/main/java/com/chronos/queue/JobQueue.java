@@ -0,0 +1,47 @@
+package com.chronos.queue;
+
+import com.chronos.dto.JobDispatch;
+
+import java.util.List;
+
+/**
+ * Transport between the scheduler and the workers. Selected with
+ * {@code chronos.queue.backend}.
+ */
+public interface JobQueue {
+
+    /**
+     * Hand a dispatch to the workers
+     *
+     * @throws RuntimeException if the dispatch could not be accepted
+     */
+    void enqueue(JobDispatch dispatch);
+
+    /**
+     * Hand over several dispatches; backends that can should do it in one round trip
+     */
+    default void enqueueAll(List<JobDispatch> dispatches) {
+        dispatches.forEach(this::enqueue);
+    }
+
+    /**
+     * Ask every node sharing this queue to stop in-flight executions of the job
+     */
+    void broadcastCancel(Long jobId);
+
+    /**
+     * Dispatches waiting to be consumed
+     */
+    long depth();
+
+    /**
+     * Whether {@link #enqueue} joins the caller's database transaction. Otherwise
+     * dispatches for rows written in a transaction are held back until it commits,
+     * so workers never see a job before it exists.
+     */
+    default boolean isTransactional() {
+        return false;
+    }
+
+    String backend();
+}
@@ -0,0 +1,168 @@
+package com.chronos.queue;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.dto.JobDispatchCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process backend for single-node deployments, tests and benchmarks. Dispatches
+ * are handed to the workers of {@link com.chronos.consumer.LocalJobConsumer} through
+ * a lock-free ring buffer, with no broker hop. Unless disabled, every dispatch is
+ * also written to a local journal and replayed after a restart if it was never
+ * acknowledged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "local")
+public class LocalJobQueue implements JobQueue {
+
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final MpmcRingBuffer<Delivery> ring;
+    // Replayed and redelivered dispatches; consumed before the ring
+    private final Queue<Delivery> overflow = new ConcurrentLinkedQueue<>();
+    private final DispatchJournal journal;
+    private final ScheduledExecutorService journalFlusher;
+    private final long offerTimeoutNanos;
+
+    public LocalJobQueue(@Value("${chronos.queue.local.capacity:65536}") int capacity,
+                         @Value("${chronos.queue.local.offer-timeout-ms:5000}") long offerTimeoutMs,
+                         @Value("${chronos.queue.local.journal.enabled:true}") boolean journalEnabled,
+                         @Value("${chronos.queue.local.journal.path:./data/chronos-queue.journal}") String journalPath,
+                         @Value("${chronos.queue.local.journal.flush-interval-ms:10}") long flushIntervalMs,
+                         @Value("${chronos.queue.local.journal.fsync:false}") boolean fsync,
+                         @Value("${chronos.queue.local.journal.compact-threshold-bytes:67108864}") long compactThresholdBytes) {
+        this.ring = new MpmcRingBuffer<>(capacity);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+
+        if (!journalEnabled) {
+            journal = null;
+            journalFlusher = null;
+            log.info("Local job queue started with capacity {} and no journal", ring.capacity());
+            return;
+        }
+
+        journal = new DispatchJournal(Path.of(journalPath), fsync, compactThresholdBytes);
+        for (Map.Entry<Long, byte[]> record : journal.recovered().entrySet()) {
+            try {
+                overflow.add(new Delivery(record.getKey(), JobDispatchCodec.decode(record.getValue())));
+            } catch (IllegalArgumentException e) {
+                log.error("Dropping unreadable dispatch {} from queue journal", record.getKey(), e);
+                journal.ack(record.getKey());
+            }
+        }
+        journalFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chronos-queue-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        journalFlusher.scheduleWithFixedDelay(journal::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Local job queue started with capacity {}, replaying {} dispatches from {}",
+                ring.capacity(), overflow.size(), journalPath);
+    }
+
+    /**
+     * Blocks while the ring is full, up to the offer timeout
+     */
+    @Override
+    public void enqueue(JobDispatch dispatch) {
+        long sequence = journal != null ? journal.append(JobDispatchCodec.encode(dispatch)) : -1;
+        Delivery delivery = new Delivery(sequence, dispatch);
+
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        long backoffNanos = 1_000;
+        while (!ring.offer(delivery)) {
+            if (System.nanoTime() >= deadline) {
+                if (journal != null) {
+                    journal.ack(sequence);
+                }
+                throw new IllegalStateException("Local job queue is full (" + ring.capacity() + " dispatches)");
+            }
+            LockSupport.parkNanos(backoffNanos);
+            backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+        }
+    }
+
+    /**
+     * Every execution runs in this process, and the cancel service has already
+     * stopped the local ones
+     */
+    @Override
+    public void broadcastCancel(Long jobId) {
+    }
+
+    @Override
+    public long depth() {
+        return ring.size() + overflow.size();
+    }
+
+    @Override
+    public String backend() {
+        return "local";
+    }
+
+    /**
+     * Next dispatch to execute, or null if there is none
+     */
+    public Delivery poll() {
+        Delivery delivery = overflow.poll();
+        return delivery != null ? delivery : ring.poll();
+    }
+
+    /**
+     * Put a failed delivery back for another attempt without journaling it again
+     */
+    public void redeliver(Delivery delivery) {
+        if (!ring.offer(delivery)) {
+            overflow.add(delivery);
+        }
+    }
+
+    /**
+     * The delivery has been handled (executed, dropped or given up on) and must not
+     * be replayed
+     */
+    public void acknowledge(Delivery delivery) {
+        if (journal != null && delivery.sequence >= 0) {
+            journal.ack(delivery.sequence);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (journal != null) {
+            journalFlusher.shutdownNow();
+            journal.close();
+        }
+    }
+
+    @Getter
+    public static class Delivery {
+        private final long sequence;
+        private final JobDispatch dispatch;
+        private int attempt;
+
+        Delivery(long sequence, JobDispatch dispatch) {
+            this.sequence = sequence;
+            this.dispatch = dispatch;
+        }
+
+        public int nextAttempt() {
+            return ++attempt;
+        }
+    }
+}
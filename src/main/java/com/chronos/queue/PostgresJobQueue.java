@@ -0,0 +1,224 @@
+package com.chronos.queue;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.dto.JobDispatchCodec;
+import com.chronos.service.RunningExecutionRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Postgres backend: dispatches are rows in {@code job_queue}. Enqueueing joins the
+ * caller's transaction, so a job and its dispatch commit (or roll back) together.
+ * Workers claim batches with {@code FOR UPDATE SKIP LOCKED}, which lets any number of
+ * nodes poll the same table without blocking each other, and hide claimed rows for a
+ * visibility timeout so that a crashed worker's dispatches are picked up again.
+ * {@code NOTIFY} wakes idle workers as soon as a dispatch commits; cancels are
+ * broadcast on a second channel.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "postgres")
+public class PostgresJobQueue implements JobQueue {
+
+    private static final String QUEUE_CHANNEL = "chronos_job_queue";
+    private static final String CANCEL_CHANNEL = "chronos_job_cancel";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final RunningExecutionRegistry executionRegistry;
+    private final BlockingQueue<Boolean> wakeups = new ArrayBlockingQueue<>(1);
+    private volatile boolean listening;
+    private Thread listener;
+
+    @Value("${chronos.queue.postgres.visibility-timeout-seconds:300}")
+    private int visibilityTimeoutSeconds;
+
+    @Value("${chronos.queue.postgres.listen-timeout-ms:5000}")
+    private int listenTimeoutMs;
+
+    public PostgresJobQueue(JdbcTemplate jdbcTemplate, DataSource dataSource, RunningExecutionRegistry executionRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.executionRegistry = executionRegistry;
+    }
+
+    @Override
+    public void enqueue(JobDispatch dispatch) {
+        jdbcTemplate.update("INSERT INTO job_queue (job_id, payload) VALUES (?, ?)",
+                dispatch.getJobId(), JobDispatchCodec.encode(dispatch));
+        notify(QUEUE_CHANNEL, "");
+    }
+
+    /**
+     * One batched insert and a single notification for the whole batch
+     */
+    @Override
+    public void enqueueAll(List<JobDispatch> dispatches) {
+        if (dispatches.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(dispatches.size());
+        for (JobDispatch dispatch : dispatches) {
+            rows.add(new Object[]{dispatch.getJobId(), JobDispatchCodec.encode(dispatch)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO job_queue (job_id, payload) VALUES (?, ?)", rows);
+        notify(QUEUE_CHANNEL, "");
+    }
+
+    @Override
+    public void broadcastCancel(Long jobId) {
+        notify(CANCEL_CHANNEL, String.valueOf(jobId));
+    }
+
+    @Override
+    public long depth() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM job_queue", Long.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public String backend() {
+        return "postgres";
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+
+    /**
+     * Claim up to {@code max} available dispatches, hiding them from other workers for
+     * the visibility timeout. Unreadable rows are deleted.
+     */
+    public List<Delivery> claim(int max) {
+        List<Delivery> deliveries = new ArrayList<>();
+        List<Long> unreadable = new ArrayList<>();
+        jdbcTemplate.query(
+                "UPDATE job_queue SET attempts = attempts + 1, available_at = now() + ? * INTERVAL '1 second' " +
+                        "WHERE id IN (SELECT id FROM job_queue WHERE available_at <= now() " +
+                        "ORDER BY available_at, id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                        "RETURNING id, payload, attempts",
+                rs -> {
+                    long id = rs.getLong("id");
+                    try {
+                        deliveries.add(new Delivery(id, JobDispatchCodec.decode(rs.getBytes("payload")), rs.getInt("attempts")));
+                    } catch (IllegalArgumentException e) {
+                        log.error("Dropping unreadable dispatch {} from job_queue", id, e);
+                        unreadable.add(id);
+                    }
+                },
+                visibilityTimeoutSeconds, max);
+        unreadable.forEach(id -> jdbcTemplate.update("DELETE FROM job_queue WHERE id = ?", id));
+        return deliveries;
+    }
+
+    public void acknowledge(Delivery delivery) {
+        jdbcTemplate.update("DELETE FROM job_queue WHERE id = ?", delivery.getId());
+    }
+
+    /**
+     * Make a failed delivery available again after the delay
+     */
+    public void retryLater(Delivery delivery, long delayMs) {
+        jdbcTemplate.update("UPDATE job_queue SET available_at = now() + ? * INTERVAL '1 millisecond' WHERE id = ?",
+                delayMs, delivery.getId());
+    }
+
+    /**
+     * Wait until a dispatch may be available or the timeout elapses
+     */
+    public void awaitWork(long timeoutMs) throws InterruptedException {
+        wakeups.poll(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void wakeUp() {
+        wakeups.offer(Boolean.TRUE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startListening() {
+        listening = true;
+        listener = new Thread(this::listen, "chronos-queue-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stopListening() {
+        listening = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Holds one pooled connection for LISTEN, reconnecting after failures
+     */
+    private void listen() {
+        while (listening) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + QUEUE_CHANNEL);
+                    statement.execute("LISTEN " + CANCEL_CHANNEL);
+                }
+                log.info("Listening for queue notifications");
+                while (listening) {
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        if (CANCEL_CHANNEL.equals(notification.getName())) {
+                            executionRegistry.cancel(Long.valueOf(notification.getParameter()));
+                        } else {
+                            wakeUp();
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!listening) {
+                    return;
+                }
+                log.warn("Queue notification listener failed, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(listenTimeoutMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void notify(String channel, String payload) {
+        // Sent when the surrounding transaction commits, or immediately without one
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Delivery {
+        private final long id;
+        private final JobDispatch dispatch;
+        private final int attempts; // Including this one
+    }
+}
@@ -0,0 +1,29 @@
+package com.chronos.repository;
+
+import com.chronos.model.BatchProgress;
+import com.chronos.model.BatchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BatchProgressRepository extends JpaRepository<BatchProgress, Long> {
+
+    /**
+     * Write a counter snapshot of the given run; a newer run of the job owns the row
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE BatchProgress p SET p.status = :status, p.completedPartitions = :completed, " +
+            "p.failedPartitions = :failed, p.donePartitions = :done, p.lastError = :lastError, " +
+            "p.updatedAt = :now, p.completedAt = :completedAt WHERE p.jobId = :jobId AND p.runId = :runId")
+    int updateProgress(@Param("jobId") Long jobId, @Param("runId") Long runId, @Param("status") BatchStatus status,
+                       @Param("completed") int completed, @Param("failed") int failed, @Param("done") byte[] done,
+                       @Param("lastError") String lastError, @Param("now") LocalDateTime now,
+                       @Param("completedAt") LocalDateTime completedAt);
+}
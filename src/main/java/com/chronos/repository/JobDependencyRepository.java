@@ -0,0 +1,19 @@
+package com.chronos.repository;
+
+import com.chronos.model.JobDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobDependencyRepository extends JpaRepository<JobDependency, JobDependency.Key> {
+
+    @Query("SELECT d.jobId FROM JobDependency d WHERE d.dependsOnJobId = :jobId ORDER BY d.jobId")
+    List<Long> findDownstreamJobIds(@Param("jobId") Long jobId);
+
+    @Query("SELECT d FROM JobDependency d WHERE d.jobId IN (SELECT j.id FROM Job j WHERE j.workflowId = :workflowId)")
+    List<JobDependency> findByWorkflowId(@Param("workflowId") Long workflowId);
+}
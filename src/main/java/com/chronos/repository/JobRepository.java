@@ -1,29 +1,125 @@
 package com.chronos.repository;
 
+import com.chronos.dto.DueJob;
+import com.chronos.dto.JobState;
 import com.chronos.model.Job;
 import com.chronos.model.JobStatus;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface JobRepository extends JpaRepository<Job, Long> {
-    Page<Job> findByOwner(String owner, Pageable pageable);
+public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificationExecutor<Job>, JobSummaryRepository {
 
-    List<Job> findByStatusAndNextRunTimeLessThanEqual(JobStatus status, LocalDateTime time);
+    /**
+     * The columns executions change, without the definition payloads; the rest of the
+     * job comes from its cached {@link com.chronos.dto.JobSnapshot}
+     */
+    @Query("SELECT new com.chronos.dto.JobState(j.status, j.nextRunTime, j.lastRunTime, j.currentRetries, j.version, j.updatedAt) " +
+            "FROM Job j WHERE j.id = :id")
+    Optional<JobState> findStateById(@Param("id") Long id);
 
-    @Query("SELECT j FROM Job j WHERE j.status = :status AND j.nextRunTime <= :time AND j.isRecurring = true")
-    List<Job> findRecurringJobsToExecute(@Param("status") JobStatus status, @Param("time") LocalDateTime time);
+    /**
+     * One keyset page of due jobs, served by the partial idx_jobs_due index. Only the
+     * columns needed to build the queue message are read, never the payloads.
+     */
+    @Query("SELECT new com.chronos.dto.DueJob(j.id, j.nextRunTime, j.version, j.currentRetries) FROM Job j " +
+            "WHERE j.status IN (com.chronos.model.JobStatus.SCHEDULED, com.chronos.model.JobStatus.RETRYING) " +
+            "AND j.nextRunTime <= :time " +
+            "AND (j.nextRunTime > :afterTime OR (j.nextRunTime = :afterTime AND j.id > :afterId)) " +
+            "ORDER BY j.nextRunTime, j.id")
+    List<DueJob> findDueJobs(@Param("time") LocalDateTime time,
+                             @Param("afterTime") LocalDateTime afterTime,
+                             @Param("afterId") Long afterId,
+                             Pageable pageable);
 
-    @Query("SELECT j FROM Job j WHERE j.status = :status AND j.nextRunTime <= :time AND j.isRecurring = false")
-    List<Job> findOneTimeJobsToExecute(@Param("status") JobStatus status, @Param("time") LocalDateTime time);
+    /**
+     * Same as {@link #findDueJobs} restricted to a shard range (idx_jobs_shard_due)
+     */
+    @Query("SELECT new com.chronos.dto.DueJob(j.id, j.nextRunTime, j.version, j.currentRetries) FROM Job j " +
+            "WHERE j.status IN (com.chronos.model.JobStatus.SCHEDULED, com.chronos.model.JobStatus.RETRYING) " +
+            "AND j.shard BETWEEN :fromShard AND :toShard " +
+            "AND j.nextRunTime <= :time " +
+            "AND (j.nextRunTime > :afterTime OR (j.nextRunTime = :afterTime AND j.id > :afterId)) " +
+            "ORDER BY j.nextRunTime, j.id")
+    List<DueJob> findDueJobsInShards(@Param("fromShard") Integer fromShard,
+                                     @Param("toShard") Integer toShard,
+                                     @Param("time") LocalDateTime time,
+                                     @Param("afterTime") LocalDateTime afterTime,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.shard = MOD(j.id, :shardCount) WHERE j.shard IS NULL")
+    int assignMissingShards(@Param("shardCount") int shardCount);
 
     long countByStatus(JobStatus status);
+
+    List<Job> findByWorkflowIdOrderById(Long workflowId);
+
+    long countByWorkflowIdAndStatusNot(Long workflowId, JobStatus status);
+
+    /**
+     * Lock downstream jobs of a workflow while their dependency counters change; the
+     * id order keeps concurrent completions from deadlocking
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM Job j WHERE j.id IN :ids ORDER BY j.id")
+    List<Job> lockAllById(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.chronos.model.JobStatus.CANCELLED " +
+            "WHERE j.id IN :ids AND j.status = com.chronos.model.JobStatus.WAITING")
+    int cancelWaiting(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Mark a job RUNNING only if it is still at the dispatched version and has not
+     * been cancelled, without loading the row first
+     */
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.chronos.model.JobStatus.RUNNING, j.lastRunTime = :now, " +
+            "j.leaseOwner = :owner, j.leaseExpiresAt = :expiresAt, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.version = :version AND j.status <> com.chronos.model.JobStatus.CANCELLED")
+    int markRunningIfCurrent(@Param("id") Long id, @Param("version") Integer version, @Param("owner") String owner,
+                             @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.leaseExpiresAt = :expiresAt WHERE j.id IN :ids AND j.leaseOwner = :owner AND j.status = com.chronos.model.JobStatus.RUNNING")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.chronos.model.JobStatus.RETRYING, j.currentRetries = j.currentRetries + 1, j.nextRunTime = :now, " +
+            "j.leaseOwner = null, j.leaseExpiresAt = null " +
+            "WHERE j.status = com.chronos.model.JobStatus.RUNNING AND (j.leaseExpiresAt < :now OR j.leaseExpiresAt IS NULL) AND j.currentRetries < j.maxRetries")
+    int requeueExpiredLeases(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.chronos.model.JobStatus.SCHEDULED, j.currentRetries = 0, j.nextRunTime = :now, " +
+            "j.leaseOwner = null, j.leaseExpiresAt = null " +
+            "WHERE j.status = com.chronos.model.JobStatus.RUNNING AND (j.leaseExpiresAt < :now OR j.leaseExpiresAt IS NULL) AND j.isRecurring = true")
+    int rescheduleExpiredRecurringLeases(@Param("now") LocalDateTime now);
+
+    /**
+     * Workflow jobs that {@link #failExpiredLeases} is about to fail
+     */
+    @Query("SELECT j FROM Job j WHERE j.status = com.chronos.model.JobStatus.RUNNING AND (j.leaseExpiresAt < :now OR j.leaseExpiresAt IS NULL) " +
+            "AND j.workflowId IS NOT NULL AND j.currentRetries >= j.maxRetries AND j.isRecurring = false")
+    List<Job> findExpiredWorkflowLeases(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Job j SET j.status = com.chronos.model.JobStatus.FAILED, j.leaseOwner = null, j.leaseExpiresAt = null " +
+            "WHERE j.status = com.chronos.model.JobStatus.RUNNING AND (j.leaseExpiresAt < :now OR j.leaseExpiresAt IS NULL)")
+    int failExpiredLeases(@Param("now") LocalDateTime now);
 }
 
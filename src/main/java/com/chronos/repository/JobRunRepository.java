@@ -5,8 +5,13 @@ import com.chronos.model.JobRun;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,5 +19,16 @@ public interface JobRunRepository extends JpaRepository<JobRun, Long> {
     List<JobRun> findByJobOrderByCreatedAtDesc(Job job, Pageable pageable);
 
     Page<JobRun> findByJob(Job job, Pageable pageable);
+
+    boolean existsByFireId(String fireId);
+
+    @Modifying
+    @Query("UPDATE JobRun r SET r.leaseExpiresAt = :expiresAt WHERE r.id IN :ids AND r.status = com.chronos.model.JobStatus.RUNNING")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE JobRun r SET r.status = com.chronos.model.JobStatus.FAILED, r.completedAt = :now, r.error = 'Worker lease expired' " +
+            "WHERE r.status = com.chronos.model.JobStatus.RUNNING AND (r.leaseExpiresAt < :now OR r.leaseExpiresAt IS NULL)")
+    int failExpiredLeases(@Param("now") LocalDateTime now);
 }
 
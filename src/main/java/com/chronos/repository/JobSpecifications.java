@@ -0,0 +1,63 @@
+package com.chronos.repository;
+
+import com.chronos.dto.JobQuery;
+import com.chronos.model.Job;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria for the job list. Owner, status and name prefix are the leading columns
+ * of the idx_jobs_owner_* indexes, so owner-scoped lists never scan other owners'
+ * jobs.
+ */
+public final class JobSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private JobSpecifications() {
+    }
+
+    public static Specification<Job> matching(JobQuery query) {
+        return (root, criteria, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(query.getOwner())) {
+                predicates.add(cb.equal(root.get("owner"), query.getOwner()));
+            }
+            if (query.getStatuses() != null && !query.getStatuses().isEmpty()) {
+                predicates.add(root.get("status").in(query.getStatuses()));
+            }
+            if (query.getTypes() != null && !query.getTypes().isEmpty()) {
+                predicates.add(root.get("type").in(query.getTypes()));
+            }
+            if (query.getNextRunFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("nextRunTime"), query.getNextRunFrom()));
+            }
+            if (query.getNextRunTo() != null) {
+                predicates.add(cb.lessThan(root.get("nextRunTime"), query.getNextRunTo()));
+            }
+            if (hasText(query.getNamePrefix())) {
+                // Case-sensitive, so the pattern_ops index can serve it as a range scan
+                predicates.add(cb.like(root.get("name"), escapeLike(query.getNamePrefix()) + "%", LIKE_ESCAPE));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
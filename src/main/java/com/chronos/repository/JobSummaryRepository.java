@@ -0,0 +1,16 @@
+package com.chronos.repository;
+
+import com.chronos.dto.JobSummaryResponse;
+import com.chronos.model.Job;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Fragment of {@link JobRepository} for list views that select only the summary
+ * columns of matching jobs
+ */
+public interface JobSummaryRepository {
+
+    Page<JobSummaryResponse> findSummaries(Specification<Job> spec, Pageable pageable);
+}
@@ -0,0 +1,55 @@
+package com.chronos.repository;
+
+import com.chronos.dto.JobSummaryResponse;
+import com.chronos.model.Job;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+class JobSummaryRepositoryImpl implements JobSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<JobSummaryResponse> findSummaries(Specification<Job> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<JobSummaryResponse> query = cb.createQuery(JobSummaryResponse.class);
+        Root<Job> root = query.from(Job.class);
+        query.select(cb.construct(JobSummaryResponse.class,
+                root.get("id"), root.get("name"), root.get("owner"), root.get("type"), root.get("status"),
+                root.get("schedule"), root.get("isRecurring"), root.get("maxRetries"), root.get("currentRetries"),
+                root.get("version"), root.get("workflowId"), root.get("nextRunTime"), root.get("lastRunTime"),
+                root.get("createdAt"), root.get("updatedAt")));
+        query.where(spec.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<JobSummaryResponse> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<JobSummaryResponse> content = typedQuery.getResultList();
+        // The count is skipped when the page itself shows the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<Job> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Job> root = query.from(Job.class);
+        query.select(cb.count(root));
+        query.where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
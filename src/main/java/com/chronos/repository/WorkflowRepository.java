@@ -0,0 +1,33 @@
+package com.chronos.repository;
+
+import com.chronos.model.Workflow;
+import com.chronos.model.WorkflowStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface WorkflowRepository extends JpaRepository<Workflow, Long> {
+
+    /**
+     * Lock a workflow row so completions of its jobs decide in turn whether it is done
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM Workflow w WHERE w.id = :id")
+    Optional<Workflow> lockById(@Param("id") Long id);
+
+    /**
+     * Move a running workflow to a final status; later outcomes do not overwrite it
+     */
+    @Modifying
+    @Query("UPDATE Workflow w SET w.status = :status, w.completedAt = :now, w.updatedAt = :now " +
+            "WHERE w.id = :id AND w.status = com.chronos.model.WorkflowStatus.RUNNING")
+    int finish(@Param("id") Long id, @Param("status") WorkflowStatus status, @Param("now") LocalDateTime now);
+}
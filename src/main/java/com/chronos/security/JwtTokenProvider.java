@@ -1,27 +1,55 @@
 package com.chronos.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies JWTs. Verified tokens are cached until they expire, keyed by
+ * their SHA-256 hash so raw tokens are not kept in memory, which leaves a cache lookup
+ * and a hash as the cost of authenticating a request with a known token. At most
+ * {@code chronos.security.jwt.cache.max-entries} tokens are kept; an evicted one is
+ * simply verified again.
+ */
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
     private final SecretKey secretKey;
     private final long expirationMs;
+    private final JwtParser parser; // Immutable, shared by all requests
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtTokenProvider(@Value("${chronos.security.jwt.secret}") String secret,
-                           @Value("${chronos.security.jwt.expiration-ms}") long expirationMs) {
+                           @Value("${chronos.security.jwt.expiration-ms}") long expirationMs,
+                           @Value("${chronos.security.jwt.cache.max-entries:10000}") int maxCachedTokens) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
     }
 
     public String generateToken(String username) {
@@ -36,26 +64,69 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+    /**
+     * Username of a token with a valid signature that has not expired. The token is
+     * parsed and verified at most once until it expires.
+     */
+    public Optional<String> verify(String token) {
+        String key = hash(token);
+        // Entries are dropped when their token expires; an expired token is then
+        // rejected by the parser below
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached.username);
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            // Expected for expired or forged tokens; not worth a stack trace
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+        String username = claims.getSubject();
+        if (username == null) {
+            return Optional.empty();
+        }
+        // Tokens without an expiry are accepted but not cached
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, new VerifiedToken(username, claims.getExpiration().getTime()));
+        }
+        return Optional.of(username);
     }
 
-    public boolean validateToken(String token) {
+    private static String hash(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            log.error("Invalid JWT token", e);
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE provides SHA-256
+            throw new IllegalStateException(e);
         }
     }
-}
 
+    @AllArgsConstructor
+    private static class VerifiedToken {
+        private final String username;
+        private final long expiresAtMillis;
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAtMillis - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.chronos.service;
+
+import com.chronos.model.BatchProgress;
+import com.chronos.model.BatchStatus;
+import com.chronos.model.JobType;
+import com.chronos.repository.BatchProgressRepository;
+import com.chronos.service.RunningExecutionRegistry.RunningExecution;
+import com.chronos.spec.BatchJobSpec;
+import com.chronos.spec.JobSpec;
+import com.chronos.spec.ScriptJobSpec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Runs a BATCH job inside its single run: splits the input into partitions, runs the
+ * map step for each on a bounded pool, then the optional reduce step. Progress is
+ * kept in memory and written to {@code batch_progress} at most once per flush
+ * interval. A new run of the same job version resumes with the partitions that have
+ * not completed yet.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BatchJobExecutor {
+
+    private static final ContextSnapshotFactory CONTEXT = ContextSnapshotFactory.builder().build();
+
+    private final JobSpecCompiler jobSpecCompiler;
+    private final BatchProgressRepository batchProgressRepository;
+    private final RunningExecutionRegistry executionRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${chronos.job.batch.max-parallelism:16}")
+    private int maxParallelism;
+
+    @Value("${chronos.job.batch.progress-flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    /**
+     * Runs one step (map or reduce) with the executor of the step's type
+     */
+    @FunctionalInterface
+    public interface StepRunner {
+        String run(JobSpec step, RunningExecution execution) throws Exception;
+    }
+
+    public String execute(Long jobId, Integer version, BatchJobSpec spec, RunningExecution execution, StepRunner runner) throws Exception {
+        long totalItems = countItems(spec);
+        // Ranges and lists were checked at submit time; files only now
+        int totalPartitions = jobSpecCompiler.partitionCount(totalItems, spec.getPartitionSize());
+        BatchRun batch = new BatchRun(jobId, execution.getRunId(), start(jobId, version, execution.getRunId(), totalPartitions, totalItems));
+        int parallelism = Math.min(spec.getParallelism(), maxParallelism);
+        log.info("Batch job {}: {} items in {} partitions, {} already done, parallelism {}",
+                jobId, totalItems, totalPartitions, batch.completed.get(), parallelism);
+
+        JsonNode mapTemplate = readTemplate(spec.getMapTemplate());
+        Semaphore slots = new Semaphore(parallelism);
+        AtomicInteger threadIndex = new AtomicInteger();
+        // Steps carry the run's observation, so their spans join the run's trace
+        ExecutorService pool = ContextExecutorService.wrap(Executors.newFixedThreadPool(parallelism,
+                r -> new Thread(r, "chronos-batch-" + jobId + "-" + threadIndex.getAndIncrement())), CONTEXT::captureAll);
+        Set<RunningExecution> activeSteps = ConcurrentHashMap.newKeySet();
+        // Cancelling or timing out the run stops every step in flight
+        execution.attachSubscription(() -> {
+            batch.stopped = true;
+            activeSteps.forEach(executionRegistry::stop);
+        });
+
+        try (PartitionSource partitions = partitions(spec)) {
+            while (partitions.hasNext()) {
+                Partition partition = partitions.next();
+                if (batch.isDone(partition.index)) {
+                    continue;
+                }
+                slots.acquire();
+                // Checked once a slot is free, so failures of the steps just finished count
+                if (batch.stopped || batch.failed.get() > spec.getMaxFailedPartitions()) {
+                    slots.release();
+                    break;
+                }
+                pool.execute(() -> {
+                    RunningExecution stepExecution = executionRegistry.child(execution);
+                    activeSteps.add(stepExecution);
+                    try {
+                        JobSpec step = jobSpecCompiler.compileStep(jobId, version, spec.getMapType(),
+                                substitute(mapTemplate, partition.placeholders()));
+                        runner.run(withEnvironment(step, partition.environment()), stepExecution);
+                        batch.markDone(partition.index);
+                    } catch (Exception e) {
+                        if (!batch.stopped) {
+                            log.warn("Batch job {} partition {} failed: {}", jobId, partition.index, e.getMessage());
+                            batch.markFailed("Partition " + partition.index + ": " + e.getMessage());
+                        }
+                    } finally {
+                        activeSteps.remove(stepExecution);
+                        slots.release();
+                        batch.flush(BatchStatus.RUNNING, false);
+                    }
+                });
+            }
+            // Wait for the steps in flight
+            slots.acquire(parallelism);
+        } catch (Exception e) {
+            // Interrupted by a worker shutdown, or the input could not be read: stop the
+            // steps and close the progress row, which would otherwise stay RUNNING
+            batch.stopped = true;
+            activeSteps.forEach(executionRegistry::stop);
+            if (!(e instanceof InterruptedException)) {
+                batch.lastError = "Input: " + e.getMessage();
+            }
+            batch.flush(execution.isCancelled() ? BatchStatus.CANCELLED : BatchStatus.FAILED, true);
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (batch.stopped) {
+            batch.flush(execution.isCancelled() ? BatchStatus.CANCELLED : BatchStatus.FAILED, true);
+            throw new IllegalStateException("Batch stopped after " + batch.completed.get() + " of " + totalPartitions + " partitions");
+        }
+        if (batch.failed.get() > spec.getMaxFailedPartitions()) {
+            batch.flush(BatchStatus.FAILED, true);
+            throw new IllegalStateException(String.format("Batch failed: %d of %d partitions failed (allowed %d). Last error: %s",
+                    batch.failed.get(), totalPartitions, spec.getMaxFailedPartitions(), batch.lastError));
+        }
+
+        String reduceOutput = null;
+        if (spec.getReduceType() != null) {
+            batch.flush(BatchStatus.REDUCING, true);
+            Map<String, String> summary = Map.of(
+                    "partitions", String.valueOf(totalPartitions),
+                    "completed", String.valueOf(batch.completed.get()),
+                    "failed", String.valueOf(batch.failed.get()),
+                    "items", String.valueOf(totalItems));
+            JobSpec reduce = jobSpecCompiler.compileStep(jobId, version, spec.getReduceType(),
+                    substitute(readTemplate(spec.getReduceTemplate()), summary));
+            RunningExecution reduceExecution = executionRegistry.child(execution);
+            activeSteps.add(reduceExecution);
+            try {
+                reduceOutput = runner.run(withEnvironment(reduce, environment(summary)), reduceExecution);
+            } catch (Exception e) {
+                batch.markFailed("Reduce: " + e.getMessage());
+                batch.flush(execution.isCancelled() ? BatchStatus.CANCELLED : BatchStatus.FAILED, true);
+                throw e;
+            } finally {
+                activeSteps.remove(reduceExecution);
+            }
+        }
+
+        batch.flush(BatchStatus.COMPLETED, true);
+        String output = String.format("Batch completed: %d partitions (%d items), %d failed",
+                totalPartitions, totalItems, batch.failed.get());
+        return reduceOutput != null ? output + ". Reduce: " + reduceOutput : output;
+    }
+
+    /**
+     * Take over the job's progress row. Completed partitions are kept if the previous
+     * run of the same version and input did not complete.
+     */
+    private BatchProgress start(Long jobId, Integer version, Long runId, int totalPartitions, long totalItems) {
+        LocalDateTime now = LocalDateTime.now();
+        BatchProgress progress = batchProgressRepository.findById(jobId).orElse(null);
+        boolean resume = progress != null
+                && progress.getStatus() != BatchStatus.COMPLETED
+                && progress.getVersion().equals(version)
+                && progress.getTotalPartitions() == totalPartitions;
+        if (progress == null) {
+            progress = BatchProgress.builder().jobId(jobId).build();
+        }
+        byte[] done = resume ? progress.getDonePartitions() : null;
+        progress.setRunId(runId);
+        progress.setVersion(version);
+        progress.setStatus(BatchStatus.RUNNING);
+        progress.setTotalPartitions(totalPartitions);
+        progress.setTotalItems(totalItems);
+        progress.setCompletedPartitions(done != null ? BitSet.valueOf(done).cardinality() : 0);
+        progress.setFailedPartitions(0);
+        progress.setDonePartitions(done);
+        progress.setLastError(null);
+        progress.setStartedAt(now);
+        progress.setUpdatedAt(now);
+        progress.setCompletedAt(null);
+        return batchProgressRepository.save(progress);
+    }
+
+    private long countItems(BatchJobSpec spec) throws IOException {
+        switch (spec.getInputKind()) {
+            case RANGE:
+                return spec.getRangeEnd() - spec.getRangeStart();
+            case LIST:
+                return spec.getItems().size();
+            default:
+                try (Stream<String> lines = Files.lines(Path.of(spec.getFile()))) {
+                    return lines.count();
+                }
+        }
+    }
+
+    private PartitionSource partitions(BatchJobSpec spec) throws IOException {
+        int size = spec.getPartitionSize();
+        switch (spec.getInputKind()) {
+            case RANGE: {
+                long start = spec.getRangeStart();
+                long end = spec.getRangeEnd();
+                return new PartitionSource() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return start + (long) index * size < end;
+                    }
+
+                    @Override
+                    public Partition next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        long from = start + (long) index * size;
+                        return new Partition(index++, from, Math.min(end, from + size), null);
+                    }
+                };
+            }
+            case LIST: {
+                List<String> items = spec.getItems();
+                return new PartitionSource() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return (long) index * size < items.size();
+                    }
+
+                    @Override
+                    public Partition next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int from = index * size;
+                        int to = Math.min(items.size(), from + size);
+                        return new Partition(index++, from, to, items.subList(from, to));
+                    }
+                };
+            }
+            default: {
+                // Streams the file so only the partitions in flight are held in memory
+                BufferedReader reader = Files.newBufferedReader(Path.of(spec.getFile()));
+                return new PartitionSource() {
+                    private int index;
+                    private long line;
+                    private List<String> nextChunk = readChunk();
+
+                    private List<String> readChunk() {
+                        try {
+                            List<String> chunk = new ArrayList<>(size);
+                            String value;
+                            while (chunk.size() < size && (value = reader.readLine()) != null) {
+                                chunk.add(value);
+                            }
+                            return chunk.isEmpty() ? null : chunk;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextChunk != null;
+                    }
+
+                    @Override
+                    public Partition next() {
+                        if (nextChunk == null) {
+                            throw new NoSuchElementException();
+                        }
+                        List<String> chunk = nextChunk;
+                        Partition partition = new Partition(index++, line, line + chunk.size(), chunk);
+                        line += chunk.size();
+                        nextChunk = readChunk();
+                        return partition;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        reader.close();
+                    }
+                };
+            }
+        }
+    }
+
+    private JsonNode readTemplate(String template) {
+        try {
+            return objectMapper.readTree(template);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid batch step template: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Copy of the template with {{name}} placeholders replaced in every string value
+     */
+    private JsonNode substitute(JsonNode node, Map<String, String> values) {
+        if (node.isTextual()) {
+            String text = node.asText();
+            if (text.contains("{{")) {
+                for (Map.Entry<String, String> value : values.entrySet()) {
+                    text = text.replace("{{" + value.getKey() + "}}", value.getValue());
+                }
+                return TextNode.valueOf(text);
+            }
+            return node;
+        }
+        if (node.isObject()) {
+            ObjectNode copy = objectMapper.createObjectNode();
+            node.fields().forEachRemaining(field -> copy.set(field.getKey(), substitute(field.getValue(), values)));
+            return copy;
+        }
+        if (node.isArray()) {
+            ArrayNode copy = objectMapper.createArrayNode();
+            node.forEach(element -> copy.add(substitute(element, values)));
+            return copy;
+        }
+        return node;
+    }
+
+    private JobSpec withEnvironment(JobSpec step, Map<String, String> environment) {
+        if (step.getType() != JobType.SHELL_SCRIPT && step.getType() != JobType.PYTHON_SCRIPT) {
+            return step;
+        }
+        return JobSpec.builder()
+                .jobId(step.getJobId())
+                .version(step.getVersion())
+                .type(step.getType())
+                .execution(step.execution(ScriptJobSpec.class).withEnvironment(environment))
+                .retryDelaySeconds(step.getRetryDelaySeconds())
+                .build();
+    }
+
+    private static Map<String, String> environment(Map<String, String> values) {
+        Map<String, String> environment = new LinkedHashMap<>();
+        values.forEach((name, value) -> environment.put("CHRONOS_BATCH_" + name.toUpperCase(), value));
+        return environment;
+    }
+
+    private interface PartitionSource extends Iterator<Partition>, AutoCloseable {
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    @AllArgsConstructor
+    private class Partition {
+        private final int index;
+        private final long start;
+        private final long end; // Exclusive
+        private final List<String> items; // Null for ranges
+
+        Map<String, String> placeholders() {
+            Map<String, String> values = new LinkedHashMap<>();
+            values.put("partition", String.valueOf(index));
+            values.put("start", String.valueOf(start));
+            values.put("end", String.valueOf(end));
+            if (items != null) {
+                try {
+                    values.put("items", objectMapper.writeValueAsString(items));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return values;
+        }
+
+        Map<String, String> environment() {
+            Map<String, String> environment = BatchJobExecutor.environment(Map.of(
+                    "partition", String.valueOf(index),
+                    "start", String.valueOf(start),
+                    "end", String.valueOf(end)));
+            if (items != null) {
+                environment.put("CHRONOS_BATCH_ITEMS", String.join("\n", items));
+            }
+            return environment;
+        }
+    }
+
+    /**
+     * In-memory counters of one run, written out by {@link #flush}
+     */
+    private class BatchRun {
+        private final Long jobId;
+        private final Long runId;
+        private final BitSet done;
+        private final AtomicInteger completed;
+        private final AtomicInteger failed = new AtomicInteger();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private volatile String lastError;
+        private volatile boolean stopped;
+        private long lastFlushMillis = System.currentTimeMillis();
+        private boolean finished; // Final status written; steps still winding down must not reopen it
+
+        BatchRun(Long jobId, Long runId, BatchProgress progress) {
+            this.jobId = jobId;
+            this.runId = runId;
+            this.done = progress.getDonePartitions() != null ? BitSet.valueOf(progress.getDonePartitions()) : new BitSet();
+            this.completed = new AtomicInteger(done.cardinality());
+        }
+
+        synchronized boolean isDone(int partition) {
+            return done.get(partition);
+        }
+
+        void markDone(int partition) {
+            synchronized (this) {
+                done.set(partition);
+            }
+            completed.incrementAndGet();
+        }
+
+        void markFailed(String error) {
+            lastError = error;
+            failed.incrementAndGet();
+        }
+
+        /**
+         * Write the counters if the flush interval has elapsed (or always when forced).
+         * Steps finishing while another thread flushes skip their write, and nothing is
+         * written after a final status.
+         */
+        void flush(BatchStatus status, boolean force) {
+            if (force) {
+                flushLock.lock();
+            } else if (!flushLock.tryLock()) {
+                return;
+            }
+            try {
+                long now = System.currentTimeMillis();
+                if (finished || (!force && now - lastFlushMillis < flushIntervalMs)) {
+                    return;
+                }
+                lastFlushMillis = now;
+                byte[] snapshot;
+                synchronized (this) {
+                    snapshot = done.toByteArray();
+                }
+                finished = status != BatchStatus.RUNNING && status != BatchStatus.REDUCING;
+                batchProgressRepository.updateProgress(jobId, runId, status, completed.get(), failed.get(), snapshot,
+                        lastError, LocalDateTime.now(), finished ? LocalDateTime.now() : null);
+            } catch (Exception e) {
+                // Progress is informational; never fail partitions over it
+                log.warn("Failed to record progress of batch job {}: {}", jobId, e.getMessage());
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+}
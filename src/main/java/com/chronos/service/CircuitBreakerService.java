@@ -0,0 +1,285 @@
+package com.chronos.service;
+
+import com.chronos.exception.CircuitBreakerOpenException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-host circuit breakers for HTTP_REQUEST jobs.
+ *
+ * Each breaker keeps a count-based sliding window of recent call outcomes. Once the
+ * failure rate crosses the threshold the breaker opens and calls to that host fail
+ * fast until the open period elapses; then a limited number of trial calls are let
+ * through (half-open) to decide whether to close again.
+ *
+ * Hosts come from job URLs, so breakers are dropped, together with their host-tagged
+ * meters, once a host has not been called for {@code idle-expiry-minutes}, and at
+ * most {@code max-hosts} are tracked. A dropped host starts again with a closed
+ * breaker.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CircuitBreakerService {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private Cache<String, CircuitBreaker> breakers;
+
+    @Value("${chronos.job.http.circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chronos.job.http.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${chronos.job.http.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${chronos.job.http.circuit-breaker.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${chronos.job.http.circuit-breaker.open-duration-seconds:30}")
+    private long openDurationSeconds;
+
+    @Value("${chronos.job.http.circuit-breaker.half-open-permitted-calls:3}")
+    private int halfOpenPermittedCalls;
+
+    @Value("${chronos.job.http.circuit-breaker.idle-expiry-minutes:60}")
+    private long idleExpiryMinutes;
+
+    @Value("${chronos.job.http.circuit-breaker.max-hosts:1000}")
+    private int maxHosts;
+
+    @PostConstruct
+    public void init() {
+        breakers = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(idleExpiryMinutes))
+                .maximumSize(maxHosts)
+                // Expires idle hosts on time even when no job calls any host
+                .scheduler(Scheduler.systemScheduler())
+                // Runs inside the eviction, so a breaker created again for the same host
+                // registers its meters only after the old ones are gone
+                .<String, CircuitBreaker>evictionListener((host, breaker, cause) -> breaker.meters.forEach(meterRegistry::remove))
+                .build();
+    }
+
+    /**
+     * Derive the breaker key (host:port) for a request URL
+     */
+    public String hostKey(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                return url;
+            }
+            return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Reserve a call slot for the host, failing fast if its breaker is open
+     */
+    public void acquirePermission(String host) {
+        if (!enabled) {
+            return;
+        }
+        CircuitBreaker breaker = breakerFor(host);
+        if (!breaker.tryAcquire()) {
+            breaker.rejected.increment();
+            throw new CircuitBreakerOpenException(host, breaker.retryAt());
+        }
+    }
+
+    public void recordSuccess(String host) {
+        if (enabled) {
+            breakerFor(host).record(true);
+        }
+    }
+
+    public void recordFailure(String host) {
+        if (enabled) {
+            breakerFor(host).record(false);
+        }
+    }
+
+    /**
+     * Give back a call slot whose outcome says nothing about the host (e.g. cancelled)
+     */
+    public void releasePermission(String host) {
+        if (enabled) {
+            breakerFor(host).release();
+        }
+    }
+
+    /**
+     * Snapshot of every breaker for the monitoring API
+     */
+    public List<Map<String, Object>> getBreakerStates() {
+        List<Map<String, Object>> states = new ArrayList<>();
+        breakers.asMap().forEach((host, breaker) -> states.add(breaker.describe()));
+        return states;
+    }
+
+    private CircuitBreaker breakerFor(String host) {
+        return breakers.get(host, CircuitBreaker::new);
+    }
+
+    private class CircuitBreaker {
+        private final String host;
+        private final Counter rejected;
+        private final List<Meter> meters = new ArrayList<>();
+        private final boolean[] outcomes = new boolean[slidingWindowSize];
+        private int position;
+        private int recordedCalls;
+        private int failedCalls;
+        private State state = State.CLOSED;
+        private LocalDateTime openUntil;
+        private int halfOpenCalls;
+        private int halfOpenFailures;
+        private int halfOpenInFlight;
+
+        CircuitBreaker(String host) {
+            this.host = host;
+            this.rejected = Counter.builder("chronos.http.circuit.rejected")
+                    .description("HTTP job executions rejected by an open breaker")
+                    .tag("host", host)
+                    .register(meterRegistry);
+            meters.add(rejected);
+            meters.add(Gauge.builder("chronos.http.circuit.state", this, b -> b.state().ordinal())
+                    .description("Circuit breaker state per host (0=closed, 1=open, 2=half-open)")
+                    .tag("host", host)
+                    .register(meterRegistry));
+            meters.add(Gauge.builder("chronos.http.circuit.failure.rate", this, CircuitBreaker::failureRate)
+                    .description("Failure rate in percent over the sliding window")
+                    .tag("host", host)
+                    .register(meterRegistry));
+        }
+
+        synchronized boolean tryAcquire() {
+            if (state == State.OPEN) {
+                if (LocalDateTime.now().isBefore(openUntil)) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (halfOpenInFlight + halfOpenCalls >= halfOpenPermittedCalls) {
+                    return false;
+                }
+                halfOpenInFlight++;
+            }
+            return true;
+        }
+
+        synchronized void record(boolean success) {
+            if (state == State.HALF_OPEN) {
+                halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+                halfOpenCalls++;
+                if (!success) {
+                    halfOpenFailures++;
+                }
+                if (halfOpenFailures * 100 >= failureRateThreshold * halfOpenPermittedCalls) {
+                    transitionTo(State.OPEN);
+                } else if (halfOpenCalls >= halfOpenPermittedCalls) {
+                    transitionTo(State.CLOSED);
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // Late result of a call started before the breaker opened
+                return;
+            }
+
+            if (recordedCalls == outcomes.length) {
+                if (!outcomes[position]) {
+                    failedCalls--;
+                }
+            } else {
+                recordedCalls++;
+            }
+            outcomes[position] = success;
+            if (!success) {
+                failedCalls++;
+            }
+            position = (position + 1) % outcomes.length;
+
+            if (recordedCalls >= minimumCalls && failureRate() >= failureRateThreshold) {
+                transitionTo(State.OPEN);
+            }
+        }
+
+        synchronized void release() {
+            if (state == State.HALF_OPEN) {
+                halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            }
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized double failureRate() {
+            return recordedCalls == 0 ? 0 : failedCalls * 100.0 / recordedCalls;
+        }
+
+        synchronized LocalDateTime retryAt() {
+            return openUntil != null && openUntil.isAfter(LocalDateTime.now())
+                    ? openUntil
+                    : LocalDateTime.now().plusSeconds(openDurationSeconds);
+        }
+
+        synchronized Map<String, Object> describe() {
+            Map<String, Object> info = new HashMap<>();
+            info.put("host", host);
+            info.put("state", state.name());
+            info.put("failureRate", failureRate());
+            info.put("bufferedCalls", recordedCalls);
+            info.put("failedCalls", failedCalls);
+            info.put("openUntil", state == State.OPEN ? openUntil : null);
+            return info;
+        }
+
+        private void transitionTo(State next) {
+            log.info("Circuit breaker for host {} changed from {} to {}", host, state, next);
+            state = next;
+            if (next == State.OPEN) {
+                openUntil = LocalDateTime.now().plusSeconds(openDurationSeconds);
+            } else {
+                openUntil = null;
+            }
+            halfOpenCalls = 0;
+            halfOpenFailures = 0;
+            halfOpenInFlight = 0;
+            if (next == State.CLOSED) {
+                position = 0;
+                recordedCalls = 0;
+                failedCalls = 0;
+            }
+        }
+    }
+}
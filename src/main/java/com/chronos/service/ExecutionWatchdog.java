@@ -0,0 +1,31 @@
+package com.chronos.service;
+
+import com.chronos.service.RunningExecutionRegistry.RunningExecution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kills executions on this node that run past their timeout, whatever their job type,
+ * so a hung script or call cannot hold a worker thread indefinitely.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExecutionWatchdog {
+
+    private final RunningExecutionRegistry executionRegistry;
+
+    @Scheduled(fixedDelayString = "${chronos.job.watchdog.interval-ms:1000}")
+    public void killOverdueExecutions() {
+        long now = System.currentTimeMillis();
+        for (RunningExecution execution : executionRegistry.getAllExecutions()) {
+            if (execution.isOverdue(now)) {
+                log.warn("Run {} of job {} exceeded its {}s timeout, stopping it",
+                        execution.getRunId(), execution.getJobId(), execution.getTimeoutSeconds());
+                executionRegistry.timeOut(execution);
+            }
+        }
+    }
+}
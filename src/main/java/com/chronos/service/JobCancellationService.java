@@ -0,0 +1,28 @@
+package com.chronos.service;
+
+import com.chronos.queue.JobQueue;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobCancellationService {
+
+    private final JobQueue jobQueue;
+    private final RunningExecutionRegistry executionRegistry;
+
+    /**
+     * Ask every node to stop in-flight executions of the job. Stops local executions
+     * directly in case the broker is unavailable.
+     */
+    public void broadcastCancel(Long jobId) {
+        executionRegistry.cancel(jobId);
+        try {
+            jobQueue.broadcastCancel(jobId);
+        } catch (Exception e) {
+            log.error("Failed to broadcast cancel for job {}", jobId, e);
+        }
+    }
+}
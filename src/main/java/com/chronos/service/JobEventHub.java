@@ -0,0 +1,327 @@
+package com.chronos.service;
+
+import com.chronos.dto.JobEvent;
+import com.chronos.dto.JobSnapshot;
+import com.chronos.model.Job;
+import com.chronos.model.JobRun;
+import com.chronos.model.JobStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Broadcasts job and run state changes made on this node to server-sent event
+ * subscribers, so dashboards follow jobs without reloading them.
+ *
+ * Changes are published once their transaction commits and kept in a bounded ring
+ * under increasing ids. A client reconnecting with the id of the last event it saw
+ * gets what it missed while that is still in the ring, and a {@code resync} event
+ * telling it to reload otherwise. Each subscriber gets its events in its own bounded
+ * queue, written to the client by its own sender task, so a slow client holds up
+ * neither the execution that published the change nor the other clients. A client
+ * that falls a full queue behind has its queue replaced by a {@code resync} event.
+ */
+@Slf4j
+@Component
+public class JobEventHub {
+
+    public static final String JOB_EVENT = "job";
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private final JobSnapshotCache jobSnapshotCache;
+    private final MeterRegistry meterRegistry;
+    private final Entry[] ring;
+    private final long firstId;
+    private long lastId; // Guarded by ring
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>(); // Added and fed under ring
+
+    @Value("${chronos.events.max-subscribers:100}")
+    private int maxSubscribers;
+
+    @Value("${chronos.events.timeout-seconds:1800}")
+    private long timeoutSeconds;
+
+    @Value("${chronos.events.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${chronos.events.subscriber-queue-size:256}")
+    private int subscriberQueueSize;
+
+    private Counter overflows;
+    private ExecutorService senders;
+
+    public JobEventHub(JobSnapshotCache jobSnapshotCache, MeterRegistry meterRegistry,
+                       @Value("${chronos.events.buffer-size:1000}") int bufferSize) {
+        this.jobSnapshotCache = jobSnapshotCache;
+        this.meterRegistry = meterRegistry;
+        this.ring = new Entry[bufferSize];
+        // Ids keep increasing across restarts, so a client resuming from an id handed
+        // out by an earlier process is told to resync instead of being replayed from it
+        this.lastId = System.currentTimeMillis() * 1000;
+        this.firstId = lastId + 1;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("chronos.events.subscribers", subscribers, List::size)
+                .description("Clients streaming job events from this node")
+                .register(meterRegistry);
+        overflows = Counter.builder("chronos.events.overflows")
+                .description("Subscribers told to resync because they fell a full queue behind")
+                .register(meterRegistry);
+        AtomicInteger threadIndex = new AtomicInteger();
+        // One thread per subscriber at most, so bounded by max-subscribers
+        senders = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "chronos-job-events-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Status and run times of a job that changed outside an execution (created,
+     * cancelled, rescheduled, triggered or released by its workflow)
+     */
+    public void jobChanged(Job job) {
+        publish(jobFields(JobEvent.builder(), job).jobId(job.getId()).build());
+    }
+
+    /**
+     * A run was claimed; the job is RUNNING from the run's start
+     */
+    public void runStarted(Long jobId, JobRun run) {
+        publish(JobEvent.builder()
+                .jobId(jobId)
+                .owner(ownerOf(jobId))
+                .status(JobStatus.RUNNING)
+                .lastRunTime(run.getStartedAt())
+                .runId(run.getId())
+                .runStatus(run.getStatus())
+                .build());
+    }
+
+    /**
+     * @param job the job as the outcome left it, or null if the run did not change it
+     *            (e.g. because the job was cancelled meanwhile)
+     */
+    public void runFinished(Long jobId, JobRun run, Job job) {
+        JobEvent.JobEventBuilder event = JobEvent.builder()
+                .jobId(jobId)
+                .runId(run.getId())
+                .runStatus(run.getStatus());
+        if (job != null) {
+            jobFields(event, job);
+        } else {
+            event.owner(ownerOf(jobId));
+        }
+        publish(event.build());
+    }
+
+    /**
+     * Tell every subscriber to reload, after bulk updates that change jobs without
+     * reading them
+     */
+    public void resync() {
+        afterCommit(() -> append(RESYNC_EVENT, null));
+    }
+
+    /**
+     * Stream events to a new subscriber, starting after the given event id if it is
+     * still buffered and with the next event otherwise
+     *
+     * @param owner only events of this owner's jobs, or all when null
+     * @throws IllegalStateException if the node already has the maximum number of
+     *                               subscribers
+     */
+    public synchronized SseEmitter subscribe(String owner, Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many job event subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        Subscriber subscriber = new Subscriber(emitter, owner != null && !owner.isBlank() ? owner : null,
+                new ArrayBlockingQueue<>(subscriberQueueSize));
+        synchronized (ring) {
+            // Queue what the client missed and register in one step, so no event falls
+            // between the two
+            List<Entry> missed = entriesAfter(lastEventId != null ? lastEventId : lastId);
+            if (missed == null) {
+                subscriber.queue.offer(new Entry(lastId, RESYNC_EVENT, null));
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        // The client reconnects with Last-Event-ID
+        emitter.onTimeout(emitter::complete);
+        subscriber.sender = senders.submit(() -> send(subscriber));
+        return emitter;
+    }
+
+    private void publish(JobEvent event) {
+        event.setTimestamp(LocalDateTime.now());
+        afterCommit(() -> append(JOB_EVENT, event));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void append(String name, JobEvent event) {
+        synchronized (ring) {
+            long id = ++lastId;
+            Entry entry = new Entry(id, name, event);
+            ring[(int) (id % ring.length)] = entry;
+            // Never blocks; queued under the lock so every queue stays in id order
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        Future<?> sender = subscriber.sender;
+        if (sender != null) {
+            sender.cancel(true);
+        }
+    }
+
+    /**
+     * Buffered entries after the given id, or null if some of them have already been
+     * overwritten or the id was never handed out by this process
+     */
+    private List<Entry> entriesAfter(long cursor) {
+        synchronized (ring) {
+            long oldest = Math.max(firstId, lastId - ring.length + 1);
+            if (cursor > lastId || cursor < oldest - 1) {
+                return null;
+            }
+            List<Entry> entries = new ArrayList<>((int) (lastId - cursor));
+            for (long id = cursor + 1; id <= lastId; id++) {
+                entries.add(ring[(int) (id % ring.length)]);
+            }
+            return entries;
+        }
+    }
+
+    private String ownerOf(Long jobId) {
+        // Runs claimed from a spec never load the job; the owner is the same at any version
+        return jobSnapshotCache.get(jobId).map(JobSnapshot::getOwner).orElse(null);
+    }
+
+    private static JobEvent.JobEventBuilder jobFields(JobEvent.JobEventBuilder event, Job job) {
+        return event.owner(job.getOwner())
+                .status(job.getStatus())
+                .lastRunTime(job.getLastRunTime())
+                .nextRunTime(job.getNextRunTime());
+    }
+
+    /**
+     * Sender task of one subscriber: writes its queue to the client until it goes away
+     */
+    private void send(Subscriber subscriber) {
+        SseEmitter emitter = subscriber.emitter;
+        long heartbeatMillis = TimeUnit.SECONDS.toMillis(heartbeatSeconds);
+        try {
+            // Commits the response, so the client sees the stream open right away
+            emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+            while (!Thread.currentThread().isInterrupted()) {
+                Entry entry = subscriber.queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    // Keeps proxies from closing an idle stream and detects gone clients
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(entry.id))
+                            .name(entry.name)
+                            .data(entry.event != null ? entry.event : "{}", MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (InterruptedException e) {
+            // Unsubscribed or shutting down
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the emitter
+            log.debug("Dropping job event subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final long id;
+        private final String name;
+        private final JobEvent event; // Null for resync
+
+        boolean matches(String owner) {
+            return owner == null || event == null || owner.equals(event.getOwner());
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final String owner;
+        private final BlockingQueue<Entry> queue;
+        private volatile Future<?> sender;
+
+        Subscriber(SseEmitter emitter, String owner, BlockingQueue<Entry> queue) {
+            this.emitter = emitter;
+            this.owner = owner;
+            this.queue = queue;
+        }
+
+        /**
+         * Queue an entry if it is for this subscriber. A full queue is replaced by a
+         * resync at the entry's id: the client reloads and resumes after it. Called
+         * under the ring lock.
+         */
+        void offer(Entry entry) {
+            if (entry.matches(owner) && !queue.offer(entry)) {
+                queue.clear();
+                queue.offer(new Entry(entry.id, RESYNC_EVENT, null));
+                overflows.increment();
+            }
+        }
+    }
+}
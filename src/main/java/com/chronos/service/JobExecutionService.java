@@ -1,26 +1,43 @@
 package com.chronos.service;
 
+import com.chronos.config.NodeIdentity;
+import com.chronos.dto.JobDispatch;
+import com.chronos.exception.CircuitBreakerOpenException;
+import com.chronos.exception.JobNotFoundException;
 import com.chronos.model.Job;
 import com.chronos.model.JobRun;
 import com.chronos.model.JobStatus;
+import com.chronos.model.JobType;
+import com.chronos.profiling.JobExecutionEvent;
 import com.chronos.repository.JobRepository;
 import com.chronos.repository.JobRunRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
+import com.chronos.service.JobMetrics.Outcome;
+import com.chronos.service.RunningExecutionRegistry.RunningExecution;
+import com.chronos.spec.BatchJobSpec;
+import com.chronos.spec.CustomJobSpec;
+import com.chronos.spec.HttpJobSpec;
+import com.chronos.spec.JavaClassJobSpec;
+import com.chronos.spec.JobSpec;
+import com.chronos.spec.ScriptJobSpec;
+import io.micrometer.observation.Observation;
+import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import org.springframework.beans.factory.annotation.Value;
 
 @Slf4j
@@ -32,136 +49,358 @@ public class JobExecutionService {
     private final JobRunRepository jobRunRepository;
     private final JobService jobService;
     private final NotificationService notificationService;
-    private final ObjectMapper objectMapper;
+    private final CircuitBreakerService circuitBreakerService;
+    private final RunningExecutionRegistry executionRegistry;
+    private final WorkerLeaseService workerLeaseService;
+    private final NodeIdentity nodeIdentity;
+    private final JobSpecCache jobSpecCache;
+    private final JobSnapshotCache jobSnapshotCache;
+    private final BatchJobExecutor batchJobExecutor;
     private final WebClient.Builder webClientBuilder;
-    private final MeterRegistry meterRegistry;
+    private final JobMetrics jobMetrics;
+    private final JobTracing jobTracing;
+    private final JobEventHub jobEventHub;
 
     @Value("${chronos.job.http.timeout-seconds:60}")
     private int defaultTimeout;
 
-    @Transactional
-    public void executeJob(Long jobId) {
-        Timer.Sample sample = Timer.start(meterRegistry);
+    @Value("${chronos.job.execution.default-timeout-seconds:3600}")
+    private int defaultExecutionTimeout;
+
+    /**
+     * Execute one dispatched fire of a job.
+     *
+     * Not transactional on purpose: the run row is committed on its own so that the
+     * unique fire id constraint is enforced against runs started by other consumers,
+     * and no database transaction stays open while the job itself executes.
+     */
+    public void executeJob(JobDispatch dispatch) {
+        long consumedAtMillis = System.currentTimeMillis();
+        JobExecutionEvent event = new JobExecutionEvent(dispatch.getJobId(), dispatch.getFireId(), false);
+        event.begin();
+        jobTracing.recordQueued(dispatch, consumedAtMillis);
+        Observation observation = jobTracing.execution(dispatch).start();
+        try (Observation.Scope scope = observation.openScope()) {
+            ClaimedRun claimed = claimTraced(dispatch);
+            if (claimed != null) {
+                JobTracing.tagType(observation, claimed.type);
+                jobMetrics.recordDispatch(claimed.type, dispatch, consumedAtMillis, System.currentTimeMillis());
+                execute(claimed);
+            }
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+            event.commit();
+        }
+    }
+
+    private ClaimedRun claimTraced(JobDispatch dispatch) {
+        Observation observation = jobTracing.claim().start();
+        try (Observation.Scope scope = observation.openScope()) {
+            JobSpec spec = dispatch.getSpec() != null ? dispatch.getSpec() : cachedSpec(dispatch);
+            return spec != null && dispatch.getFireId() != null
+                    ? claimWithSpec(dispatch, spec)
+                    : claim(dispatch);
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Spec for a dispatch that carries none (BATCH jobs, or a producer that had not
+     * compiled it) from the job's cached snapshot at the dispatched version, or null to
+     * claim from the job row
+     */
+    private JobSpec cachedSpec(JobDispatch dispatch) {
+        if (dispatch.getFireId() == null || dispatch.getVersion() == null) {
+            return null;
+        }
+        try {
+            return jobSnapshotCache.get(dispatch.getJobId(), dispatch.getVersion())
+                    .filter(snapshot -> snapshot.getVersion().equals(dispatch.getVersion()))
+                    .map(jobSpecCache::get)
+                    .orElse(null);
+        } catch (IllegalArgumentException e) {
+            // Claimed from the row, so the run records the failure
+            return null;
+        }
+    }
+
+    /**
+     * Start a run from the spec carried by the message or cached for its version. The
+     * run insert and a conditional status update are the only statements; the job row
+     * is read only if the job was cancelled or changed after the message was produced.
+     */
+    private ClaimedRun claimWithSpec(JobDispatch dispatch, JobSpec spec) {
+        Long jobId = dispatch.getJobId();
+        LocalDateTime leaseExpiresAt = workerLeaseService.nextLeaseExpiry();
+
+        JobRun run = insertRun(dispatch.getFireId(), jobRepository.getReferenceById(jobId),
+                dispatch.getRetryAttempt(), leaseExpiresAt, spec.getType());
+        if (run == null) {
+            return null;
+        }
+
+        if (jobService.markJobAsRunningIfCurrent(jobId, spec.getVersion(), nodeIdentity.getNodeId(), leaseExpiresAt)) {
+            return new ClaimedRun(jobId, spec.getType(), spec, null, run);
+        }
+
         Job job = jobRepository.findById(jobId)
-                .orElseThrow(() -> new RuntimeException("Job not found: " + jobId));
+                .orElseThrow(() -> new JobNotFoundException(jobId));
+        if (job.getStatus() == JobStatus.CANCELLED) {
+            log.warn("Job {} is cancelled, skipping execution", jobId);
+            run.setStatus(JobStatus.CANCELLED);
+            run.setCompletedAt(LocalDateTime.now());
+            run.setError("Cancelled before start");
+            jobRunRepository.save(run);
+            jobEventHub.runFinished(jobId, run, null);
+            return null;
+        }
+
+        // Rescheduled since dispatch: run the current definition instead
+        jobService.markJobAsRunning(jobId, nodeIdentity.getNodeId(), leaseExpiresAt);
+        return new ClaimedRun(jobId, job.getType(), null, job, run);
+    }
+
+    private ClaimedRun claim(JobDispatch dispatch) {
+        Long jobId = dispatch.getJobId();
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new JobNotFoundException(jobId));
 
         if (job.getStatus() == JobStatus.CANCELLED) {
             log.warn("Job {} is cancelled, skipping execution", jobId);
-            return;
+            return null;
+        }
+
+        // Messages from older producers carry only the job id; the fire they refer to
+        // is whatever the job is currently due for
+        String fireId = dispatch.getFireId() != null
+                ? dispatch.getFireId()
+                : JobDispatch.fireId(jobId, job.getNextRunTime());
+        if (fireId != null && jobRunRepository.existsByFireId(fireId)) {
+            log.info("Job {} fire {} already executed or in progress, dropping duplicate", jobId, fireId);
+            jobMetrics.duplicateDropped(job.getType());
+            return null;
+        }
+
+        LocalDateTime leaseExpiresAt = workerLeaseService.nextLeaseExpiry();
+        JobRun run = insertRun(fireId, job, job.getCurrentRetries(), leaseExpiresAt, job.getType());
+        if (run == null) {
+            return null;
         }
 
-        String workerId = UUID.randomUUID().toString();
+        jobService.markJobAsRunning(jobId, nodeIdentity.getNodeId(), leaseExpiresAt);
+        return new ClaimedRun(jobId, job.getType(), null, job, run);
+    }
+
+    /**
+     * Insert the RUNNING run row, or return null if another consumer already holds the
+     * same fire
+     */
+    private JobRun insertRun(String fireId, Job job, Integer retryAttempt, LocalDateTime leaseExpiresAt, JobType type) {
         JobRun run = JobRun.builder()
                 .job(job)
                 .status(JobStatus.RUNNING)
                 .startedAt(LocalDateTime.now())
-                .workerId(workerId)
-                .retryAttempt(job.getCurrentRetries())
+                .workerId(nodeIdentity.getNodeId())
+                .leaseExpiresAt(leaseExpiresAt)
+                .fireId(fireId)
+                .retryAttempt(retryAttempt)
                 .build();
-        run = jobRunRepository.save(run);
+        try {
+            return jobRunRepository.saveAndFlush(run);
+        } catch (DataIntegrityViolationException e) {
+            if (fireId == null || !jobRunRepository.existsByFireId(fireId)) {
+                // Not a duplicate, e.g. the job row is missing
+                throw e;
+            }
+            // Lost the race against another consumer holding the same fire
+            log.info("Job {} fire {} claimed concurrently, dropping duplicate", job.getId(), fireId);
+            jobMetrics.duplicateDropped(type);
+            return null;
+        }
+    }
 
-        jobService.markJobAsRunning(jobId);
+    private void execute(ClaimedRun claimed) {
+        long startNanos = System.nanoTime();
+        Long jobId = claimed.jobId;
+        JobType type = claimed.type;
+        JobRun run = claimed.run;
+        RunningExecution execution = executionRegistry.register(jobId, run.getId(), resolveTimeoutSeconds(claimed));
+        jobEventHub.runStarted(jobId, run);
 
         try {
-            log.info("Executing job {} of type {}", jobId, job.getType());
-            String output = executeJobByType(job);
+            log.info("Executing job {} of type {}", jobId, type);
+            JobSpec spec = claimed.spec != null ? claimed.spec : jobSpecCache.get(claimed.job);
+            String output = runTraced(jobId, spec, execution);
 
             run.setStatus(JobStatus.COMPLETED);
             run.setCompletedAt(LocalDateTime.now());
             run.setOutput(output);
             jobRunRepository.save(run);
 
-            jobService.markJobAsCompleted(jobId, output);
-            sample.stop(Timer.builder("chronos.job.execution.time")
-                    .tag("status", "success")
-                    .tag("type", job.getType().name())
-                    .register(meterRegistry));
-
-            meterRegistry.counter("chronos.job.execution",
-                    "status", "success",
-                    "type", job.getType().name()).increment();
+            Optional<Job> completed = jobService.markJobAsCompleted(jobId, output);
+            jobEventHub.runFinished(jobId, run, completed.orElse(null));
+            jobMetrics.recordExecution(type, Outcome.SUCCESS, startNanos);
+            jobMetrics.jobCompleted();
 
             log.info("Job {} completed successfully", jobId);
-            notificationService.notifyJobCompletion(job);
+            completed.ifPresent(notificationService::notifyJobCompletion);
 
-        } catch (Exception e) {
-            log.error("Job {} execution failed", jobId, e);
+        } catch (CircuitBreakerOpenException e) {
+            log.warn("Job {} deferred: {}", jobId, e.getMessage());
 
             run.setStatus(JobStatus.FAILED);
             run.setCompletedAt(LocalDateTime.now());
             run.setError(e.getMessage());
             jobRunRepository.save(run);
 
-            boolean shouldRetry = job.getCurrentRetries() < job.getMaxRetries();
-            jobService.markJobAsFailed(jobId, e.getMessage(), shouldRetry);
+            // Host is known to be down, so do not burn a retry attempt on it
+            Optional<Job> deferred = jobService.deferJob(jobId, e.getRetryAt());
+            jobEventHub.runFinished(jobId, run, deferred.orElse(null));
 
-            sample.stop(Timer.builder("chronos.job.execution.time")
-                    .tag("status", "failed")
-                    .tag("type", job.getType().name())
-                    .register(meterRegistry));
+            jobMetrics.recordExecution(type, Outcome.DEFERRED, startNanos);
 
-            meterRegistry.counter("chronos.job.execution",
-                    "status", "failed",
-                    "type", job.getType().name()).increment();
+        } catch (Exception e) {
+            if (execution.isCancelled()) {
+                log.info("Job {} run {} was cancelled while running", jobId, run.getId());
+
+                run.setStatus(JobStatus.CANCELLED);
+                run.setCompletedAt(LocalDateTime.now());
+                run.setError("Cancelled while running");
+                jobRunRepository.save(run);
+                jobEventHub.runFinished(jobId, run, null);
 
-            if (shouldRetry) {
-                log.info("Job {} will be retried (attempt {}/{})",
-                        jobId, job.getCurrentRetries(), job.getMaxRetries());
+                jobMetrics.recordExecution(type, Outcome.CANCELLED, startNanos);
+                return;
+            }
+
+            boolean timedOut = execution.isTimedOut() || isTimeout(e);
+            if (timedOut) {
+                log.error("Job {} timed out after {}s", jobId, execution.getTimeoutSeconds());
             } else {
-                log.error("Job {} failed after {} retries", jobId, job.getMaxRetries());
-                notificationService.notifyJobFailure(job, e.getMessage());
+                log.error("Job {} execution failed", jobId, e);
             }
+
+            run.setStatus(timedOut ? JobStatus.TIMED_OUT : JobStatus.FAILED);
+            run.setCompletedAt(LocalDateTime.now());
+            run.setError(timedOut
+                    ? "Timed out after " + execution.getTimeoutSeconds() + "s"
+                    : e.getMessage());
+            jobRunRepository.save(run);
+
+            // Decides between retry and final failure, and notifies the owner on the latter
+            Optional<Job> failed = jobService.markJobAsFailed(jobId, e.getMessage(), true);
+            jobEventHub.runFinished(jobId, run, failed.orElse(null));
+
+            jobMetrics.recordExecution(type, timedOut ? Outcome.TIMED_OUT : Outcome.FAILED, startNanos);
+
+            failed.ifPresent(job -> {
+                if (job.getStatus() == JobStatus.RETRYING) {
+                    log.info("Job {} will be retried (attempt {}/{})",
+                            jobId, job.getCurrentRetries(), job.getMaxRetries());
+                } else {
+                    log.error("Job {} failed after {} retries", jobId, job.getMaxRetries());
+                    jobMetrics.jobFailed();
+                }
+            });
+        } finally {
+            executionRegistry.unregister(execution);
+        }
+    }
+
+    /**
+     * Timeout for one execution: the job's own timeout from its spec, otherwise the
+     * HTTP default for HTTP jobs and the global execution default for the rest.
+     */
+    private int resolveTimeoutSeconds(ClaimedRun claimed) {
+        try {
+            JobSpec spec = claimed.spec != null ? claimed.spec : jobSpecCache.get(claimed.job);
+            if (spec.getTimeoutSeconds() != null) {
+                return spec.getTimeoutSeconds();
+            }
+        } catch (IllegalArgumentException e) {
+            // The run fails with the same error once it tries to execute
+            log.warn("Invalid definition for job {}, using default timeout", claimed.jobId);
+        }
+        return claimed.type == JobType.HTTP_REQUEST ? defaultTimeout : defaultExecutionTimeout;
+    }
+
+    private boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String runTraced(Long jobId, JobSpec spec, RunningExecution execution) throws Exception {
+        Observation observation = jobTracing.run(spec.getType()).start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return executeJobByType(jobId, spec, execution);
+        } catch (Exception e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
         }
     }
 
-    private String executeJobByType(Job job) throws Exception {
-        switch (job.getType()) {
+    private String executeJobByType(Long jobId, JobSpec spec, RunningExecution execution) throws Exception {
+        switch (spec.getType()) {
+            case BATCH:
+                return batchJobExecutor.execute(jobId, spec.getVersion(), spec.execution(BatchJobSpec.class), execution,
+                        (step, stepExecution) -> executeStep(jobId, step, stepExecution));
             case HTTP_REQUEST:
-                return executeHttpRequest(job);
+                return executeHttpRequest(jobId, spec.execution(HttpJobSpec.class), execution);
             case SHELL_SCRIPT:
-                return executeShellScript(job);
+                return executeShellScript(jobId, spec.execution(ScriptJobSpec.class), execution);
             case JAVA_CLASS:
-                return executeJavaClass(job);
+                return executeJavaClass(jobId, spec.execution(JavaClassJobSpec.class));
             case PYTHON_SCRIPT:
-                return executePythonScript(job);
+                return executePythonScript(jobId, spec.execution(ScriptJobSpec.class), execution);
             case CUSTOM:
-                return executeCustomJob(job);
+                return executeCustomJob(jobId, spec.execution(CustomJobSpec.class));
             default:
-                throw new UnsupportedOperationException("Unsupported job type: " + job.getType());
+                throw new UnsupportedOperationException("Unsupported job type: " + spec.getType());
         }
     }
 
-    private String executeHttpRequest(Job job) throws Exception {
-        log.info("Executing HTTP request job: {}", job.getName());
+    private String executeStep(Long jobId, JobSpec step, RunningExecution execution) throws Exception {
+        JobExecutionEvent event = new JobExecutionEvent(jobId, null, true);
+        event.begin();
+        try {
+            return executeJobByType(jobId, step, execution);
+        } finally {
+            event.commit();
+        }
+    }
+
+    private String executeHttpRequest(Long jobId, HttpJobSpec spec, RunningExecution execution) throws Exception {
+        log.info("Executing HTTP request job {}", jobId);
 
         try {
-            JsonNode jobData = objectMapper.readTree(job.getJobData() != null ? job.getJobData() : "{}");
-            String url = jobData.path("url").asText(null);
-            String method = jobData.path("method").asText("GET");
-            int timeout = jobData.path("timeout").asInt(defaultTimeout);
-            JsonNode headers = jobData.has("headers") ? jobData.get("headers") : null;
-            JsonNode body = jobData.has("body") ? jobData.get("body") : null;
-
-            if (url == null || url.isEmpty()) {
-                throw new IllegalArgumentException("URL is required for HTTP_REQUEST job type");
-            }
+            String url = spec.getUrl();
+            String host = spec.getHost();
+            circuitBreakerService.acquirePermission(host);
 
             WebClient webClient = webClientBuilder
                     .baseUrl(url)
                     .build();
 
-            WebClient.RequestBodySpec requestSpec = webClient.method(
-                    org.springframework.http.HttpMethod.valueOf(method.toUpperCase())).uri("");
-
-            if (headers != null && headers.isObject()) {
-                headers.fields()
-                        .forEachRemaining(entry -> requestSpec.header(entry.getKey(), entry.getValue().asText()));
-            }
+            WebClient.RequestBodySpec requestSpec = webClient.method(spec.getMethod()).uri("");
+            spec.getHeaders().forEach(requestSpec::header);
 
             Mono<String> responseMono;
-            if (body != null && !body.isNull()) {
+            if (spec.getBody() != null) {
                 responseMono = requestSpec
-                        .bodyValue(body.toString())
+                        .bodyValue(spec.getBody())
                         .retrieve()
                         .bodyToMono(String.class);
             } else {
@@ -170,40 +409,64 @@ public class JobExecutionService {
                         .bodyToMono(String.class);
             }
 
-            String response = responseMono
-                    .timeout(Duration.ofSeconds(timeout))
-                    .block();
+            String response;
+            try {
+                CompletableFuture<String> future = responseMono
+                        .timeout(Duration.ofSeconds(execution.getTimeoutSeconds()))
+                        // Carries the current observation to the client span, which
+                        // injects the traceparent header
+                        .contextCapture()
+                        .toFuture();
+                // Cancelling the future disposes the underlying subscription
+                execution.attachSubscription(() -> future.cancel(true));
+                response = awaitResponse(future);
+                circuitBreakerService.recordSuccess(host);
+            } catch (CancellationException e) {
+                circuitBreakerService.releasePermission(host);
+                throw e;
+            } catch (WebClientResponseException e) {
+                // 4xx means the host is up and answering; only 5xx count against it
+                if (e.getStatusCode().is5xxServerError()) {
+                    circuitBreakerService.recordFailure(host);
+                } else {
+                    circuitBreakerService.recordSuccess(host);
+                }
+                throw e;
+            } catch (RuntimeException e) {
+                circuitBreakerService.recordFailure(host);
+                throw e;
+            }
 
             return String.format("HTTP %s request to %s completed. Response: %s",
-                    method, url, response != null ? response.substring(0, Math.min(200, response.length())) : "empty");
+                    spec.getMethod(), url, response != null ? response.substring(0, Math.min(200, response.length())) : "empty");
+        } catch (CircuitBreakerOpenException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("HTTP request execution failed for job {}", job.getId(), e);
+            log.error("HTTP request execution failed for job {}", jobId, e);
             throw new RuntimeException("HTTP request failed: " + e.getMessage(), e);
         }
     }
 
-    private String executeShellScript(Job job) throws Exception {
-        log.info("Executing shell script job: {}", job.getName());
-
+    private String awaitResponse(CompletableFuture<String> future) throws InterruptedException {
         try {
-            JsonNode jobData = objectMapper.readTree(job.getJobData() != null ? job.getJobData() : "{}");
-            String script = jobData.has("script") ? jobData.get("script").asText() : null;
-
-            if (script == null || script.isEmpty()) {
-                throw new IllegalArgumentException("Script is required for SHELL_SCRIPT job type");
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new RuntimeException(e.getCause());
+        }
+    }
 
-            ProcessBuilder processBuilder = new ProcessBuilder();
-            String os = System.getProperty("os.name").toLowerCase();
-
-            if (os.contains("win")) {
-                processBuilder.command("cmd.exe", "/c", script);
-            } else {
-                processBuilder.command("sh", "-c", script);
-            }
+    private String executeShellScript(Long jobId, ScriptJobSpec spec, RunningExecution execution) throws Exception {
+        log.info("Executing shell script job {}", jobId);
 
+        try {
+            ProcessBuilder processBuilder = new ProcessBuilder(spec.getCommand());
+            processBuilder.environment().putAll(spec.getEnvironment());
             processBuilder.redirectErrorStream(true);
             Process process = processBuilder.start();
+            execution.attachProcess(process);
 
             StringBuilder output = new StringBuilder();
             try (BufferedReader reader = new BufferedReader(
@@ -221,13 +484,13 @@ public class JobExecutionService {
 
             return "Shell script executed successfully. Output: " + output.toString();
         } catch (Exception e) {
-            log.error("Shell script execution failed for job {}", job.getId(), e);
+            log.error("Shell script execution failed for job {}", jobId, e);
             throw new RuntimeException("Shell script execution failed: " + e.getMessage(), e);
         }
     }
 
-    private String executeJavaClass(Job job) throws Exception {
-        log.info("Executing Java class job: {}", job.getName());
+    private String executeJavaClass(Long jobId, JavaClassJobSpec spec) throws Exception {
+        log.info("Executing Java class job {}", jobId);
 
         // For Java class execution, you would typically:
         // 1. Load the class dynamically using ClassLoader
@@ -235,40 +498,19 @@ public class JobExecutionService {
         // 3. Call a specific method
         // This is a simplified version
 
-        JsonNode jobData = objectMapper.readTree(job.getJobData() != null ? job.getJobData() : "{}");
-        String className = jobData.has("className") ? jobData.get("className").asText() : null;
-
-        if (className == null || className.isEmpty()) {
-            throw new IllegalArgumentException("ClassName is required for JAVA_CLASS job type");
-        }
-
         // In production, implement dynamic class loading with proper security
-        return String.format("Java class %s execution completed (placeholder implementation)", className);
+        return String.format("Java class %s execution completed (placeholder implementation)", spec.getClassName());
     }
 
-    private String executePythonScript(Job job) throws Exception {
-        log.info("Executing Python script job: {}", job.getName());
+    private String executePythonScript(Long jobId, ScriptJobSpec spec, RunningExecution execution) throws Exception {
+        log.info("Executing Python script job {}", jobId);
 
         try {
-            JsonNode jobData = objectMapper.readTree(job.getJobData() != null ? job.getJobData() : "{}");
-            String script = jobData.has("script") ? jobData.get("script").asText() : null;
-            String scriptPath = jobData.has("scriptPath") ? jobData.get("scriptPath").asText() : null;
-
-            if ((script == null || script.isEmpty()) && (scriptPath == null || scriptPath.isEmpty())) {
-                throw new IllegalArgumentException("Script or scriptPath is required for PYTHON_SCRIPT job type");
-            }
-
-            ProcessBuilder processBuilder = new ProcessBuilder();
-
-            if (scriptPath != null && !scriptPath.isEmpty()) {
-                processBuilder.command("python", scriptPath);
-            } else {
-                // Execute inline script
-                processBuilder.command("python", "-c", script);
-            }
-
+            ProcessBuilder processBuilder = new ProcessBuilder(spec.getCommand());
+            processBuilder.environment().putAll(spec.getEnvironment());
             processBuilder.redirectErrorStream(true);
             Process process = processBuilder.start();
+            execution.attachProcess(process);
 
             StringBuilder output = new StringBuilder();
             try (BufferedReader reader = new BufferedReader(
@@ -286,18 +528,27 @@ public class JobExecutionService {
 
             return "Python script executed successfully. Output: " + output.toString();
         } catch (Exception e) {
-            log.error("Python script execution failed for job {}", job.getId(), e);
+            log.error("Python script execution failed for job {}", jobId, e);
             throw new RuntimeException("Python script execution failed: " + e.getMessage(), e);
         }
     }
 
-    private String executeCustomJob(Job job) throws Exception {
-        log.info("Executing custom job: {}", job.getName());
+    private String executeCustomJob(Long jobId, CustomJobSpec spec) throws Exception {
+        log.info("Executing custom job {}", jobId);
 
-        // Custom job execution - can be extended based on specific requirements
-        JsonNode jobData = objectMapper.readTree(job.getJobData() != null ? job.getJobData() : "{}");
+        // Placeholder for custom execution logic - can be extended based on specific requirements
+        return "Custom job executed successfully. Job data: " + spec.getJobData();
+    }
 
-        // Placeholder for custom execution logic
-        return "Custom job executed successfully. Job data: " + jobData.toString();
+    /**
+     * A run this node has claimed; exactly one of spec (inline) and job (loaded) is set
+     */
+    @AllArgsConstructor
+    private static class ClaimedRun {
+        private final Long jobId;
+        private final JobType type;
+        private final JobSpec spec;
+        private final Job job;
+        private final JobRun run;
     }
 }
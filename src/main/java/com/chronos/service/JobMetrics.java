@@ -0,0 +1,158 @@
+package com.chronos.service;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.model.JobType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job meters, registered once per job type and outcome at startup so that recording
+ * on the execution path needs no meter lookup and allocates nothing.
+ *
+ * The dispatch timers split the time from a fire becoming due to its execution
+ * starting: schedule lag (fire time to enqueue), queue wait (enqueue to consume) and
+ * start delay (consume to start). Enqueue time is taken on the producing node, so the
+ * first two include clock skew between nodes; queue wait also includes redelivery
+ * backoff.
+ */
+@Component
+public class JobMetrics {
+
+    public enum Outcome {
+        SUCCESS("success"), FAILED("failed"), TIMED_OUT("timed_out"), DEFERRED("deferred"), CANCELLED("cancelled");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        /**
+         * Outcomes whose execution time is recorded
+         */
+        boolean timed() {
+            return this == SUCCESS || this == FAILED || this == TIMED_OUT;
+        }
+    }
+
+    private final Map<JobType, Timer> scheduleLag = new EnumMap<>(JobType.class);
+    private final Map<JobType, Timer> queueWait = new EnumMap<>(JobType.class);
+    private final Map<JobType, Timer> startDelay = new EnumMap<>(JobType.class);
+    private final Map<JobType, Map<Outcome, Timer>> executionTime = new EnumMap<>(JobType.class);
+    private final Map<JobType, Map<Outcome, Counter>> executions = new EnumMap<>(JobType.class);
+    private final Map<JobType, Counter> timeouts = new EnumMap<>(JobType.class);
+    private final Map<JobType, Counter> duplicatesDropped = new EnumMap<>(JobType.class);
+    private final Counter submitted;
+    private final Counter completed;
+    private final Counter failed;
+
+    public JobMetrics(MeterRegistry meterRegistry) {
+        for (JobType type : JobType.values()) {
+            String typeTag = type.name();
+            scheduleLag.put(type, dispatchTimer(meterRegistry, "chronos.job.schedule.lag",
+                    "Delay from a fire's scheduled time to its dispatch being enqueued", typeTag));
+            queueWait.put(type, dispatchTimer(meterRegistry, "chronos.job.queue.wait",
+                    "Time a dispatch spent in the queue before a worker consumed it", typeTag));
+            startDelay.put(type, dispatchTimer(meterRegistry, "chronos.job.start.delay",
+                    "Time from a worker consuming a dispatch to the execution starting", typeTag));
+
+            Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+            Map<Outcome, Counter> counters = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                if (outcome.timed()) {
+                    timers.put(outcome, Timer.builder("chronos.job.execution.time")
+                            .description("Time taken to execute jobs")
+                            .tag("status", outcome.tag)
+                            .tag("type", typeTag)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry));
+                }
+                counters.put(outcome, Counter.builder("chronos.job.execution")
+                        .description("Job executions by outcome")
+                        .tag("status", outcome.tag)
+                        .tag("type", typeTag)
+                        .register(meterRegistry));
+            }
+            executionTime.put(type, timers);
+            executions.put(type, counters);
+            timeouts.put(type, meterRegistry.counter("chronos.job.timeout", "type", typeTag));
+            duplicatesDropped.put(type, meterRegistry.counter("chronos.job.duplicate.dropped", "type", typeTag));
+        }
+        submitted = Counter.builder("chronos.job.submitted")
+                .description("Total number of jobs submitted")
+                .register(meterRegistry);
+        completed = Counter.builder("chronos.job.completed")
+                .description("Total number of jobs completed")
+                .register(meterRegistry);
+        failed = Counter.builder("chronos.job.failed")
+                .description("Total number of jobs failed")
+                .register(meterRegistry);
+    }
+
+    private static Timer dispatchTimer(MeterRegistry meterRegistry, String name, String description, String type) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record the dispatch timers of a run that is about to start. Segments whose
+     * timestamps the message does not carry (older producers) are skipped.
+     */
+    public void recordDispatch(JobType type, JobDispatch dispatch, long consumedAtMillis, long startedAtMillis) {
+        Long enqueuedAt = dispatch.getEnqueuedAt();
+        Long fireTime = dispatch.getFireTime();
+        if (enqueuedAt != null) {
+            if (fireTime != null) {
+                record(scheduleLag.get(type), enqueuedAt - fireTime);
+            }
+            record(queueWait.get(type), consumedAtMillis - enqueuedAt);
+        }
+        record(startDelay.get(type), startedAtMillis - consumedAtMillis);
+    }
+
+    private static void record(Timer timer, long millis) {
+        // Negative only through clock skew between the producing and consuming node
+        timer.record(Math.max(0, millis), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordExecution(JobType type, Outcome outcome, long startNanos) {
+        if (outcome.timed()) {
+            executionTime.get(type).get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+        executions.get(type).get(outcome).increment();
+        if (outcome == Outcome.TIMED_OUT) {
+            timeouts.get(type).increment();
+        }
+    }
+
+    public void duplicateDropped(JobType type) {
+        duplicatesDropped.get(type).increment();
+    }
+
+    public void jobSubmitted() {
+        submitted.increment();
+    }
+
+    public void jobCompleted() {
+        completed.increment();
+    }
+
+    /**
+     * A job that failed for good, after its last retry
+     */
+    public void jobFailed() {
+        failed.increment();
+    }
+}
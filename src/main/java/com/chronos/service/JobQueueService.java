@@ -1,33 +1,137 @@
 package com.chronos.service;
 
+import com.chronos.dto.JobDispatch;
 import com.chronos.model.Job;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.chronos.queue.JobQueue;
+import io.micrometer.observation.Observation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class JobQueueService {
 
-    private final RabbitTemplate rabbitTemplate;
-    private final ObjectMapper objectMapper;
+    private final JobQueue jobQueue;
+    private final JobSpecCache jobSpecCache;
+    private final JobTracing jobTracing;
 
-    @Value("${chronos.scheduler.worker.queue-name:job.execution.queue}")
-    private String queueName;
+    @Value("${chronos.scheduler.worker.inline-spec:true}")
+    private boolean inlineSpec;
 
     public void enqueueJob(Job job) {
-        try {
-            String message = objectMapper.writeValueAsString(job.getId());
-            rabbitTemplate.convertAndSend(queueName, message);
-            log.info("Enqueued job {} to queue {}", job.getId(), queueName);
+        JobDispatch dispatch = JobDispatch.forJob(job);
+        if (inlineSpec) {
+            try {
+                dispatch.setSpec(jobSpecCache.get(job));
+            } catch (IllegalArgumentException e) {
+                // Let the worker load the job and record the failure on a run
+                log.warn("Job {} has an invalid definition, dispatching without spec", job.getId());
+            }
+        }
+        enqueue(dispatch);
+    }
+
+    /**
+     * Publish a dispatch. If it carries no spec, the one cached for the same job
+     * version is attached so the worker can skip reading the job row.
+     */
+    public void enqueue(JobDispatch dispatch) {
+        attachCachedSpec(dispatch);
+        if (!deferUntilCommit(() -> publish(dispatch))) {
+            publish(dispatch);
+        }
+    }
+
+    /**
+     * Publish a batch of dispatches, in one round trip where the backend supports it.
+     * The dispatches of a batch are unrelated fires, so each starts a trace of its own
+     * rather than joining the caller's.
+     */
+    public void enqueueAll(List<JobDispatch> dispatches) {
+        if (dispatches.isEmpty()) {
+            return;
+        }
+        dispatches.forEach(this::attachCachedSpec);
+        if (!deferUntilCommit(() -> publishAll(dispatches))) {
+            publishAll(dispatches);
+        }
+    }
+
+    private void attachCachedSpec(JobDispatch dispatch) {
+        if (inlineSpec && dispatch.getSpec() == null && dispatch.getVersion() != null) {
+            dispatch.setSpec(jobSpecCache.getIfCurrent(dispatch.getJobId(), dispatch.getVersion()));
+        }
+    }
+
+    /**
+     * Backends outside the database only see a dispatch once the surrounding
+     * transaction has committed, so workers never look for rows that do not exist yet.
+     * The committed jobs are SCHEDULED and due, so if that publish fails the scheduler
+     * dispatches them on its next poll instead; the caller's work has already committed
+     * and is not failed for it.
+     */
+    private boolean deferUntilCommit(Runnable publisher) {
+        if (jobQueue.isTransactional() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    publisher.run();
+                } catch (RuntimeException e) {
+                    log.warn("Publish after commit failed, leaving the dispatch to the scheduler poll");
+                }
+            }
+        });
+        return true;
+    }
+
+    private void publish(JobDispatch dispatch) {
+        Observation observation = jobTracing.startEnqueue(dispatch, jobQueue.backend(), false);
+        try (Observation.Scope scope = observation.openScope()) {
+            dispatch.setEnqueuedAt(System.currentTimeMillis());
+            jobQueue.enqueue(dispatch);
+            log.debug("Enqueued job {} (fire {}) to {} queue", dispatch.getJobId(), dispatch.getFireId(), jobQueue.backend());
         } catch (Exception e) {
-            log.error("Error enqueueing job {}", job.getId(), e);
+            observation.error(e);
+            log.error("Error enqueueing job {}", dispatch.getJobId(), e);
             throw new RuntimeException("Failed to enqueue job", e);
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private void publishAll(List<JobDispatch> dispatches) {
+        List<Observation> observations = new ArrayList<>(dispatches.size());
+        dispatches.forEach(dispatch -> observations.add(jobTracing.startEnqueue(dispatch, jobQueue.backend(), true)));
+        try {
+            long now = System.currentTimeMillis();
+            dispatches.forEach(dispatch -> dispatch.setEnqueuedAt(now));
+            jobQueue.enqueueAll(dispatches);
+            log.debug("Enqueued {} dispatches to {} queue", dispatches.size(), jobQueue.backend());
+        } catch (Exception e) {
+            observations.forEach(observation -> observation.error(e));
+            log.error("Error enqueueing {} dispatches", dispatches.size(), e);
+            throw new RuntimeException("Failed to enqueue jobs", e);
+        } finally {
+            observations.forEach(Observation::stop);
         }
     }
-}
 
+    public long depth() {
+        return jobQueue.depth();
+    }
+
+    public String backend() {
+        return jobQueue.backend();
+    }
+}
@@ -1,14 +1,18 @@
 package com.chronos.service;
 
+import com.chronos.dto.BatchProgressResponse;
+import com.chronos.dto.JobQuery;
 import com.chronos.dto.JobRequest;
 import com.chronos.dto.JobResponse;
 import com.chronos.dto.JobRunResponse;
+import com.chronos.dto.JobSummaryResponse;
 import com.chronos.dto.RescheduleRequest;
 import com.chronos.model.Job;
-import com.chronos.model.JobRun;
 import com.chronos.model.JobStatus;
+import com.chronos.repository.BatchProgressRepository;
 import com.chronos.repository.JobRepository;
 import com.chronos.repository.JobRunRepository;
+import com.chronos.repository.JobSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -32,11 +36,30 @@ public class JobService {
     private final ScheduleService scheduleService;
     private final JobQueueService jobQueueService;
     private final NotificationService notificationService;
+    private final JobCancellationService jobCancellationService;
+    private final SchedulerShardManager schedulerShardManager;
+    private final JobSpecCompiler jobSpecCompiler;
+    private final JobSpecCache jobSpecCache;
+    private final JobSnapshotCache jobSnapshotCache;
+    private final WorkflowEngine workflowEngine;
+    private final BatchProgressRepository batchProgressRepository;
+    private final JobMetrics jobMetrics;
+    private final JobEventHub jobEventHub;
 
     @Transactional
     public JobResponse createJob(JobRequest request) {
         log.info("Creating job: {} for owner: {}", request.getName(), request.getOwner());
+        if (request.getDependsOn() != null && !request.getDependsOn().isEmpty()) {
+            throw new IllegalArgumentException("dependsOn is only supported for jobs submitted as a workflow");
+        }
+        return toJobResponse(saveNewJob(newJob(request)));
+    }
 
+    /**
+     * Validate a request and build the (unsaved) job with its initial status and next
+     * run time
+     */
+    public Job newJob(JobRequest request) {
         // Validate recurring jobs have cron expression
         if (Boolean.TRUE.equals(request.getIsRecurring()) && request.getSchedule() != null) {
             if (!scheduleService.isValidCronExpression(request.getSchedule())) {
@@ -44,6 +67,8 @@ public class JobService {
                         "Invalid cron expression for recurring job: " + request.getSchedule());
             }
         }
+        // Reject definitions that could never execute; throws IllegalArgumentException
+        jobSpecCompiler.compile(null, 1, request.getType(), request.getJobData(), request.getConfig());
 
         Job job = Job.builder()
                 .name(request.getName())
@@ -68,35 +93,74 @@ public class JobService {
                     .ifPresent(job::setNextRunTime);
             job.setStatus(JobStatus.SCHEDULED);
         } else {
-            // Immediate execution
+            // Immediate execution; due at once, so the scheduler dispatches it if its
+            // publish after commit is lost
             job.setNextRunTime(LocalDateTime.now());
-            job.setStatus(JobStatus.PENDING);
+            job.setStatus(JobStatus.SCHEDULED);
         }
+        return job;
+    }
 
+    /**
+     * Insert a job built by {@link #newJob} and dispatch it if it is already due
+     */
+    @Transactional
+    public Job saveNewJob(Job job) {
         job = jobRepository.save(job);
+        // The id is only known after insert; the change is flushed with the transaction
+        job.setShard(schedulerShardManager.shardFor(job.getId()));
+        jobMetrics.jobSubmitted();
+        jobEventHub.jobChanged(job);
 
         // If immediate execution, enqueue immediately
-        if (job.getNextRunTime() != null &&
+        if (job.getStatus() != JobStatus.WAITING && job.getNextRunTime() != null &&
                 !job.getNextRunTime().isAfter(LocalDateTime.now())) {
             jobQueueService.enqueueJob(job);
         }
-
-        return toJobResponse(job);
+        return job;
     }
 
+    /**
+     * Reads only the job's state; the definition comes from the snapshot cache. Falls
+     * back to the whole row if the job is rescheduled between the two reads.
+     */
     public Optional<JobResponse> getJob(Long id) {
-        return jobRepository.findById(id)
-                .map(this::toJobResponse);
+        return jobRepository.findStateById(id).flatMap(state -> jobSnapshotCache.get(id, state.getVersion())
+                .filter(snapshot -> snapshot.getVersion().equals(state.getVersion()))
+                .map(snapshot -> JobResponse.from(snapshot, state, recentRuns(jobRepository.getReferenceById(id))))
+                .or(() -> jobRepository.findById(id).map(this::toJobResponse)));
     }
 
-    public Page<JobResponse> getJobs(String owner, Pageable pageable) {
-        Page<Job> jobs;
-        if (owner != null && !owner.isEmpty()) {
-            jobs = jobRepository.findByOwner(owner, pageable);
-        } else {
-            jobs = jobRepository.findAll(pageable);
-        }
-        return jobs.map(this::toJobResponse);
+    /**
+     * Progress of the latest run of a BATCH job, empty until it has started
+     */
+    public Optional<BatchProgressResponse> getBatchProgress(Long jobId) {
+        return batchProgressRepository.findById(jobId).map(progress -> BatchProgressResponse.builder()
+                .jobId(progress.getJobId())
+                .runId(progress.getRunId())
+                .status(progress.getStatus())
+                .totalPartitions(progress.getTotalPartitions())
+                .totalItems(progress.getTotalItems())
+                .completedPartitions(progress.getCompletedPartitions())
+                .failedPartitions(progress.getFailedPartitions())
+                .percentComplete(progress.getTotalPartitions() == 0 ? 100.0
+                        : progress.getCompletedPartitions() * 100.0 / progress.getTotalPartitions())
+                .lastError(progress.getLastError())
+                .startedAt(progress.getStartedAt())
+                .updatedAt(progress.getUpdatedAt())
+                .completedAt(progress.getCompletedAt())
+                .build());
+    }
+
+    public Page<JobResponse> getJobs(JobQuery query, Pageable pageable) {
+        return jobRepository.findAll(JobSpecifications.matching(query), pageable).map(this::toJobResponse);
+    }
+
+    /**
+     * Same jobs as {@link #getJobs}, reading only the summary columns and no runs
+     */
+    public Page<JobSummaryResponse> getJobSummaries(JobQuery query, Pageable pageable) {
+        return jobRepository.findSummaries(JobSpecifications.matching(query), pageable);
     }
 
     @Transactional
@@ -106,9 +170,17 @@ public class JobService {
                 .map(job -> {
                     if (job.getStatus() == JobStatus.RUNNING ||
                             job.getStatus() == JobStatus.SCHEDULED ||
-                            job.getStatus() == JobStatus.PENDING) {
+                            job.getStatus() == JobStatus.PENDING ||
+                            job.getStatus() == JobStatus.WAITING) {
                         job.setStatus(JobStatus.CANCELLED);
                         jobRepository.save(job);
+                        jobEventHub.jobChanged(job);
+                        if (job.getWorkflowId() != null) {
+                            workflowEngine.onJobCancelled(job);
+                        }
+                        // The committed status may still lag an execution that has just
+                        // started, so always ask workers to stop in-flight runs
+                        jobCancellationService.broadcastCancel(id);
                         return true;
                     }
                     return false;
@@ -138,6 +210,9 @@ public class JobService {
                     job.setVersion(job.getVersion() + 1);
                     job.setStatus(JobStatus.SCHEDULED);
                     job = jobRepository.save(job);
+                    jobSpecCache.invalidate(id);
+                    jobSnapshotCache.invalidate(id);
+                    jobEventHub.jobChanged(job);
                     return toJobResponse(job);
                 });
     }
@@ -148,8 +223,9 @@ public class JobService {
         return jobRepository.findById(id)
                 .map(job -> {
                     job.setNextRunTime(LocalDateTime.now());
-                    job.setStatus(JobStatus.PENDING);
+                    job.setStatus(JobStatus.SCHEDULED);
                     jobRepository.save(job);
+                    jobEventHub.jobChanged(job);
                     jobQueueService.enqueueJob(job);
                     return true;
                 })
@@ -157,17 +233,36 @@ public class JobService {
     }
 
     @Transactional
-    public void markJobAsRunning(Long jobId) {
+    public void markJobAsRunning(Long jobId, String leaseOwner, LocalDateTime leaseExpiresAt) {
         jobRepository.findById(jobId).ifPresent(job -> {
+            if (job.getStatus() == JobStatus.CANCELLED) {
+                return;
+            }
             job.setStatus(JobStatus.RUNNING);
             job.setLastRunTime(LocalDateTime.now());
+            job.setLeaseOwner(leaseOwner);
+            job.setLeaseExpiresAt(leaseExpiresAt);
             jobRepository.save(job);
         });
     }
 
+    /**
+     * Mark a job RUNNING without reading it first, as long as it is still at the given
+     * version and not cancelled
+     *
+     * @return false if the job was cancelled, changed or removed
+     */
     @Transactional
-    public void markJobAsCompleted(Long jobId, String output) {
-        jobRepository.findById(jobId).ifPresent(job -> {
+    public boolean markJobAsRunningIfCurrent(Long jobId, Integer version, String leaseOwner, LocalDateTime leaseExpiresAt) {
+        return jobRepository.markRunningIfCurrent(jobId, version, leaseOwner, leaseExpiresAt, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * @return the updated job, or empty if it no longer exists or was cancelled
+     */
+    @Transactional
+    public Optional<Job> markJobAsCompleted(Long jobId, String output) {
+        return jobRepository.findById(jobId).filter(job -> job.getStatus() != JobStatus.CANCELLED).map(job -> {
             if (job.getIsRecurring()) {
                 // Calculate next run time for recurring jobs
                 scheduleService.getNextRunTime(job.getSchedule())
@@ -177,13 +272,23 @@ public class JobService {
                 job.setStatus(JobStatus.COMPLETED);
             }
             job.setCurrentRetries(0); // Reset retries on success
-            jobRepository.save(job);
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+            job = jobRepository.save(job);
+            if (job.getWorkflowId() != null && job.getStatus() == JobStatus.COMPLETED) {
+                workflowEngine.onJobCompleted(job);
+            }
+            return job;
         });
     }
 
+    /**
+     * @return the updated job (RETRYING or FAILED), or empty if it no longer exists or
+     * was cancelled
+     */
     @Transactional
-    public void markJobAsFailed(Long jobId, String error, boolean shouldRetry) {
-        jobRepository.findById(jobId).ifPresent(job -> {
+    public Optional<Job> markJobAsFailed(Long jobId, String error, boolean shouldRetry) {
+        return jobRepository.findById(jobId).filter(job -> job.getStatus() != JobStatus.CANCELLED).map(job -> {
             if (shouldRetry && job.getCurrentRetries() < job.getMaxRetries()) {
                 job.setStatus(JobStatus.RETRYING);
                 job.setCurrentRetries(job.getCurrentRetries() + 1);
@@ -191,15 +296,9 @@ public class JobService {
                 // Calculate retry delay
                 long retryDelaySeconds = 5;
                 try {
-                    if (job.getConfig() != null) {
-                        com.fasterxml.jackson.databind.JsonNode configNode = new com.fasterxml.jackson.databind.ObjectMapper()
-                                .readTree(job.getConfig());
-                        if (configNode.has("retryDelaySeconds")) {
-                            retryDelaySeconds = configNode.get("retryDelaySeconds").asLong();
-                        }
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to parse job config for retry delay", e);
+                    retryDelaySeconds = jobSpecCache.get(job).getRetryDelaySeconds();
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid definition for job {}, using default retry delay", jobId);
                 }
 
                 // Schedule retry after delay
@@ -209,50 +308,41 @@ public class JobService {
                 // Notify user about final failure
                 notificationService.notifyJobFailure(job, error);
             }
-            jobRepository.save(job);
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+            job = jobRepository.save(job);
+            if (job.getWorkflowId() != null && job.getStatus() == JobStatus.FAILED) {
+                workflowEngine.onJobFailed(job);
+            }
+            return job;
+        });
+    }
+
+    /**
+     * Push a job back without consuming a retry attempt (e.g. target host circuit open)
+     *
+     * @return the updated job, or empty if it no longer exists or was cancelled
+     */
+    @Transactional
+    public Optional<Job> deferJob(Long jobId, LocalDateTime retryAt) {
+        return jobRepository.findById(jobId).filter(job -> job.getStatus() != JobStatus.CANCELLED).map(job -> {
+            job.setStatus(JobStatus.RETRYING);
+            job.setNextRunTime(retryAt);
+            job.setLeaseOwner(null);
+            job.setLeaseExpiresAt(null);
+            return jobRepository.save(job);
         });
     }
 
     private JobResponse toJobResponse(Job job) {
-        List<JobRunResponse> recentRuns = jobRunRepository
+        return JobResponse.from(job, recentRuns(job));
+    }
+
+    private List<JobRunResponse> recentRuns(Job job) {
+        return jobRunRepository
                 .findByJobOrderByCreatedAtDesc(job, PageRequest.of(0, 5))
                 .stream()
-                .map(this::toJobRunResponse)
+                .map(JobRunResponse::from)
                 .collect(Collectors.toList());
-
-        return JobResponse.builder()
-                .id(job.getId())
-                .name(job.getName())
-                .owner(job.getOwner())
-                .type(job.getType())
-                .status(job.getStatus())
-                .description(job.getDescription())
-                .schedule(job.getSchedule())
-                .isRecurring(job.getIsRecurring())
-                .maxRetries(job.getMaxRetries())
-                .currentRetries(job.getCurrentRetries())
-                .jobData(job.getJobData())
-                .config(job.getConfig())
-                .version(job.getVersion())
-                .nextRunTime(job.getNextRunTime())
-                .lastRunTime(job.getLastRunTime())
-                .createdAt(job.getCreatedAt())
-                .updatedAt(job.getUpdatedAt())
-                .recentRuns(recentRuns)
-                .build();
-    }
-
-    private JobRunResponse toJobRunResponse(JobRun run) {
-        return JobRunResponse.builder()
-                .id(run.getId())
-                .jobId(run.getJob().getId())
-                .status(run.getStatus())
-                .startedAt(run.getStartedAt())
-                .completedAt(run.getCompletedAt())
-                .output(run.getOutput())
-                .error(run.getError())
-                .retryAttempt(run.getRetryAttempt())
-                .workerId(run.getWorkerId())
-                .build();
     }
 }
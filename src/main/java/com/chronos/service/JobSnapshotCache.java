@@ -0,0 +1,144 @@
+package com.chronos.service;
+
+import com.chronos.dto.JobSnapshot;
+import com.chronos.model.Job;
+import com.chronos.repository.JobRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Read-through cache of {@link JobSnapshot}s keyed by job id. Callers name the version
+ * they expect, taken from the dispatch or from the job's state, and an entry is only
+ * used while it is at that version. A reschedule on any node therefore makes every
+ * other node reload on its next lookup without an explicit invalidation, and since
+ * runs never change the version, frequently fired jobs are read once per version.
+ * Entries have no expiry; beyond {@code chronos.job.snapshot-cache.max-entries} the
+ * least used jobs are evicted.
+ *
+ * Exposed as the {@code jobSnapshots} cache meters (cache.gets by hit or miss,
+ * cache.puts, cache.evictions, cache.size).
+ */
+@Slf4j
+@Service
+public class JobSnapshotCache {
+
+    static final String CACHE_NAME = "jobSnapshots";
+
+    private final JobRepository jobRepository;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Long, JobSnapshot> snapshots;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JobSnapshotCache(JobRepository jobRepository, MeterRegistry meterRegistry,
+                            @Value("${chronos.job.snapshot-cache.max-entries:10000}") int maxEntries) {
+        this.jobRepository = jobRepository;
+        this.meterRegistry = meterRegistry;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .<Long, JobSnapshot>evictionListener((jobId, snapshot, cause) -> evictions.increment())
+                .build();
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        new SnapshotCacheMetrics(snapshots).bindTo(meterRegistry);
+    }
+
+    /**
+     * Snapshot of the job at the given version, loading the job if the cached one is
+     * missing or at another version. The loaded snapshot is at whatever version the job
+     * has now.
+     *
+     * @return empty if the job does not exist
+     */
+    public Optional<JobSnapshot> get(Long jobId, Integer version) {
+        return lookup(jobId, snapshot -> Objects.equals(snapshot.getVersion(), version));
+    }
+
+    /**
+     * Snapshot of the job at any version, for callers that only need what never
+     * changes (it exists, its owner)
+     *
+     * @return empty if the job does not exist
+     */
+    public Optional<JobSnapshot> get(Long jobId) {
+        return lookup(jobId, snapshot -> true);
+    }
+
+    private Optional<JobSnapshot> lookup(Long jobId, Predicate<JobSnapshot> usable) {
+        JobSnapshot snapshot = snapshots.getIfPresent(jobId);
+        if (snapshot != null && usable.test(snapshot)) {
+            hits.increment();
+            return Optional.of(snapshot);
+        }
+        misses.increment();
+        return jobRepository.findById(jobId).map(this::put);
+    }
+
+    /**
+     * Drop the job's entry; its next lookup reads the job again
+     */
+    public void invalidate(Long jobId) {
+        snapshots.invalidate(jobId);
+    }
+
+    private JobSnapshot put(Job job) {
+        JobSnapshot snapshot = JobSnapshot.from(job);
+        // A concurrent lookup may already have cached a newer version
+        snapshots.asMap().merge(job.getId(), snapshot, (cached, loaded) -> cached.getVersion() > loaded.getVersion() ? cached : loaded);
+        puts.increment();
+        log.debug("Cached snapshot of job {} version {}", job.getId(), job.getVersion());
+        return snapshot;
+    }
+
+    private class SnapshotCacheMetrics extends CacheMeterBinder<Cache<Long, JobSnapshot>> {
+
+        SnapshotCacheMetrics(Cache<Long, JobSnapshot> cache) {
+            super(cache, CACHE_NAME, Tags.empty());
+        }
+
+        @Override
+        protected Long size() {
+            return snapshots.estimatedSize();
+        }
+
+        @Override
+        protected long hitCount() {
+            return hits.sum();
+        }
+
+        @Override
+        protected Long missCount() {
+            return misses.sum();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            return evictions.sum();
+        }
+
+        @Override
+        protected long putCount() {
+            return puts.sum();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.chronos.service;
+
+import com.chronos.dto.JobSnapshot;
+import com.chronos.model.Job;
+import com.chronos.spec.JobSpec;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Compiled {@link JobSpec}s keyed by job id. An entry is only used while its version
+ * matches the job's, so a reschedule on any node makes every other node recompile
+ * on the next run even without an explicit invalidation. Size bounded by
+ * {@code chronos.job.spec-cache.max-entries}; a job evicted from it is compiled again
+ * on its next run.
+ */
+@Slf4j
+@Service
+public class JobSpecCache {
+
+    private final JobSpecCompiler compiler;
+    private final Cache<Long, JobSpec> specs;
+
+    public JobSpecCache(JobSpecCompiler compiler,
+                        @Value("${chronos.job.spec-cache.max-entries:10000}") int maxEntries) {
+        this.compiler = compiler;
+        this.specs = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Spec for the job's current version, compiling it on first use
+     *
+     * @throws IllegalArgumentException if the stored definition is invalid
+     */
+    public JobSpec get(Job job) {
+        return get(job.getId(), job.getVersion(), () -> compiler.compile(job));
+    }
+
+    /**
+     * Spec for the snapshot's version, compiling it on first use
+     *
+     * @throws IllegalArgumentException if the stored definition is invalid
+     */
+    public JobSpec get(JobSnapshot snapshot) {
+        return get(snapshot.getId(), snapshot.getVersion(), () -> compiler.compile(snapshot.getId(),
+                snapshot.getVersion(), snapshot.getType(), snapshot.getJobData(), snapshot.getConfig()));
+    }
+
+    private JobSpec get(Long jobId, Integer version, Supplier<JobSpec> compile) {
+        JobSpec spec = specs.getIfPresent(jobId);
+        if (spec != null && Objects.equals(spec.getVersion(), version)) {
+            return spec;
+        }
+        spec = compile.get();
+        specs.put(jobId, spec);
+        log.debug("Compiled spec for job {} version {}", jobId, version);
+        return spec;
+    }
+
+    /**
+     * Cached spec for exactly this job version, or null without compiling
+     */
+    public JobSpec getIfCurrent(Long jobId, Integer version) {
+        JobSpec spec = specs.getIfPresent(jobId);
+        return spec != null && Objects.equals(spec.getVersion(), version) ? spec : null;
+    }
+
+    public void invalidate(Long jobId) {
+        specs.invalidate(jobId);
+    }
+
+    public long size() {
+        return specs.estimatedSize();
+    }
+}
@@ -0,0 +1,245 @@
+package com.chronos.service;
+
+import com.chronos.model.Job;
+import com.chronos.model.JobType;
+import com.chronos.spec.BatchJobSpec;
+import com.chronos.spec.CustomJobSpec;
+import com.chronos.spec.ExecutionSpec;
+import com.chronos.spec.HttpJobSpec;
+import com.chronos.spec.JavaClassJobSpec;
+import com.chronos.spec.JobSpec;
+import com.chronos.spec.ScriptJobSpec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns jobData and config into a {@link JobSpec}. Used at submit time to reject
+ * invalid jobs and by {@link JobSpecCache} when a job version is first executed.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobSpecCompiler {
+
+    private static final long DEFAULT_RETRY_DELAY_SECONDS = 5;
+
+    private final ObjectMapper objectMapper;
+    private final CircuitBreakerService circuitBreakerService;
+
+    @Value("${chronos.job.batch.max-partitions:1000000}")
+    private int maxBatchPartitions = 1_000_000; // Also the default when built outside Spring
+
+    public JobSpec compile(Job job) {
+        return compile(job.getId(), job.getVersion(), job.getType(), job.getJobData(), job.getConfig());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payloads are not valid JSON or miss a
+     *                                  field the job type requires
+     */
+    public JobSpec compile(Long jobId, Integer version, JobType type, String jobDataJson, String configJson) {
+        JsonNode jobData = readJson("jobData", jobDataJson);
+        JsonNode config = readJson("config", configJson);
+
+        Integer timeoutSeconds = null;
+        if (config.path("timeoutSeconds").asInt(0) > 0) {
+            timeoutSeconds = config.get("timeoutSeconds").asInt();
+        } else if (type == JobType.HTTP_REQUEST && jobData.path("timeout").asInt(0) > 0) {
+            // Legacy per-request timeout
+            timeoutSeconds = jobData.get("timeout").asInt();
+        }
+
+        return JobSpec.builder()
+                .jobId(jobId)
+                .version(version)
+                .type(type)
+                .execution(compileExecution(type, jobData))
+                .timeoutSeconds(timeoutSeconds)
+                .retryDelaySeconds(config.path("retryDelaySeconds").asLong(DEFAULT_RETRY_DELAY_SECONDS))
+                .build();
+    }
+
+    private ExecutionSpec compileExecution(JobType type, JsonNode jobData) {
+        switch (type) {
+            case HTTP_REQUEST:
+                return compileHttp(jobData);
+            case SHELL_SCRIPT: {
+                String script = jobData.path("script").asText(null);
+                if (script == null || script.isEmpty()) {
+                    throw new IllegalArgumentException("Script is required for SHELL_SCRIPT job type");
+                }
+                boolean windows = System.getProperty("os.name").toLowerCase().contains("win");
+                return new ScriptJobSpec(windows
+                        ? List.of("cmd.exe", "/c", script)
+                        : List.of("sh", "-c", script));
+            }
+            case PYTHON_SCRIPT: {
+                String script = jobData.path("script").asText(null);
+                String scriptPath = jobData.path("scriptPath").asText(null);
+                if (scriptPath != null && !scriptPath.isEmpty()) {
+                    return new ScriptJobSpec(List.of("python", scriptPath));
+                }
+                if (script == null || script.isEmpty()) {
+                    throw new IllegalArgumentException("Script or scriptPath is required for PYTHON_SCRIPT job type");
+                }
+                return new ScriptJobSpec(List.of("python", "-c", script));
+            }
+            case JAVA_CLASS: {
+                String className = jobData.path("className").asText(null);
+                if (className == null || className.isEmpty()) {
+                    throw new IllegalArgumentException("ClassName is required for JAVA_CLASS job type");
+                }
+                return new JavaClassJobSpec(className);
+            }
+            case CUSTOM:
+                return new CustomJobSpec(jobData.toString());
+            case BATCH:
+                return compileBatch(jobData);
+            default:
+                throw new IllegalArgumentException("Unsupported job type: " + type);
+        }
+    }
+
+    /**
+     * Compile one step of a batch run from its already substituted jobData
+     */
+    public JobSpec compileStep(Long jobId, Integer version, JobType type, JsonNode jobData) {
+        return JobSpec.builder()
+                .jobId(jobId)
+                .version(version)
+                .type(type)
+                .execution(compileExecution(type, jobData))
+                .retryDelaySeconds(DEFAULT_RETRY_DELAY_SECONDS)
+                .build();
+    }
+
+    /**
+     * Number of partitions a batch input splits into
+     *
+     * @throws IllegalArgumentException if it exceeds {@code chronos.job.batch.max-partitions}
+     */
+    public int partitionCount(long totalItems, int partitionSize) {
+        long partitions = totalItems <= 0 ? 0 : (totalItems - 1) / partitionSize + 1;
+        if (partitions > maxBatchPartitions) {
+            throw new IllegalArgumentException(String.format(
+                    "Batch input of %d items splits into %d partitions, more than the %d allowed; raise partitionSize",
+                    totalItems, partitions, maxBatchPartitions));
+        }
+        return Math.toIntExact(partitions);
+    }
+
+    private BatchJobSpec compileBatch(JsonNode jobData) {
+        BatchJobSpec.BatchJobSpecBuilder batch = BatchJobSpec.builder();
+        JsonNode input = jobData.path("input");
+        long totalItems = -1; // Files are only counted when the batch runs
+        if (input.has("range")) {
+            JsonNode range = input.get("range");
+            if (!range.path("end").canConvertToLong()) {
+                throw new IllegalArgumentException("input.range.end is required for BATCH job type");
+            }
+            long start = range.path("start").asLong(0);
+            long end = range.get("end").asLong();
+            if (end <= start) {
+                throw new IllegalArgumentException("input.range.end must be greater than input.range.start");
+            }
+            try {
+                totalItems = Math.subtractExact(end, start);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("input.range is too large");
+            }
+            batch.inputKind(BatchJobSpec.InputKind.RANGE).rangeStart(start).rangeEnd(end);
+        } else if (input.has("items")) {
+            JsonNode itemsNode = input.get("items");
+            if (!itemsNode.isArray() || itemsNode.isEmpty()) {
+                throw new IllegalArgumentException("input.items must be a non-empty array");
+            }
+            List<String> items = new ArrayList<>(itemsNode.size());
+            itemsNode.forEach(item -> items.add(item.isTextual() ? item.asText() : item.toString()));
+            batch.inputKind(BatchJobSpec.InputKind.LIST).items(List.copyOf(items));
+            totalItems = items.size();
+        } else if (input.path("file").isTextual()) {
+            batch.inputKind(BatchJobSpec.InputKind.FILE).file(input.get("file").asText());
+        } else {
+            throw new IllegalArgumentException("BATCH job type needs input.range, input.items or input.file");
+        }
+
+        int partitionSize = jobData.path("partitionSize").asInt(100);
+        int parallelism = jobData.path("parallelism").asInt(4);
+        int maxFailedPartitions = jobData.path("maxFailedPartitions").asInt(0);
+        if (partitionSize < 1 || parallelism < 1 || maxFailedPartitions < 0) {
+            throw new IllegalArgumentException("partitionSize and parallelism must be positive, maxFailedPartitions not negative");
+        }
+        if (totalItems >= 0) {
+            partitionCount(totalItems, partitionSize);
+        }
+
+        JsonNode map = jobData.get("map");
+        if (map == null || !map.isObject()) {
+            throw new IllegalArgumentException("map step is required for BATCH job type");
+        }
+        batch.mapType(stepType("map", map)).mapTemplate(map.path("jobData").toString());
+        JsonNode reduce = jobData.get("reduce");
+        if (reduce != null && !reduce.isNull()) {
+            batch.reduceType(stepType("reduce", reduce)).reduceTemplate(reduce.path("jobData").toString());
+        }
+        return batch.partitionSize(partitionSize).parallelism(parallelism).maxFailedPartitions(maxFailedPartitions).build();
+    }
+
+    /**
+     * Type of a batch step, checked by compiling its template as it stands
+     */
+    private JobType stepType(String step, JsonNode node) {
+        JobType type;
+        try {
+            type = JobType.valueOf(node.path("type").asText());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(step + ".type must be a job type");
+        }
+        if (type == JobType.BATCH) {
+            throw new IllegalArgumentException(step + " step cannot itself be a BATCH job");
+        }
+        if (!node.path("jobData").isObject()) {
+            throw new IllegalArgumentException(step + ".jobData must be an object");
+        }
+        compileExecution(type, node.get("jobData"));
+        return type;
+    }
+
+    private HttpJobSpec compileHttp(JsonNode jobData) {
+        String url = jobData.path("url").asText(null);
+        if (url == null || url.isEmpty()) {
+            throw new IllegalArgumentException("URL is required for HTTP_REQUEST job type");
+        }
+        HttpMethod method = HttpMethod.valueOf(jobData.path("method").asText("GET").toUpperCase());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        JsonNode headerNode = jobData.get("headers");
+        if (headerNode != null && headerNode.isObject()) {
+            headerNode.fields().forEachRemaining(entry -> headers.put(entry.getKey(), entry.getValue().asText()));
+        }
+
+        JsonNode body = jobData.get("body");
+        return new HttpJobSpec(url, circuitBreakerService.hostKey(url), method,
+                Map.copyOf(headers), body != null && !body.isNull() ? body.toString() : null);
+    }
+
+    private JsonNode readJson(String field, String json) {
+        if (json == null) {
+            return objectMapper.createObjectNode();
+        }
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(field + " must be valid JSON: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.chronos.service;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.model.JobType;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.Kind;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trace context of job dispatches. A dispatch carries the W3C traceparent of the span
+ * that enqueued it, so the run on the worker continues the trace of the request or
+ * scheduler fire that produced it, whichever queue backend is in between.
+ *
+ * A run's trace splits into the enqueue span, a queued span covering the time the
+ * dispatch waited for a worker, and the execute span with the claim, the job's own
+ * work (and its outbound HTTP call) and every JDBC statement nested beneath it.
+ */
+@Component
+public class JobTracing {
+
+    public static final String TRACE_PARENT = "traceparent";
+
+    private final ObservationRegistry observationRegistry;
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    public JobTracing(ObservationRegistry observationRegistry, ObjectProvider<Tracer> tracer,
+                      ObjectProvider<Propagator> propagator) {
+        this.observationRegistry = observationRegistry;
+        // Absent when tracing is disabled; observations then only record metrics
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+        this.propagator = propagator.getIfAvailable(() -> Propagator.NOOP);
+    }
+
+    /**
+     * Started producer observation for one dispatch. Starting it writes the
+     * traceparent of its span into the dispatch.
+     *
+     * @param newTrace make the span the root of its own trace instead of a child of
+     *                 whatever is current, for fires that the caller merely batches
+     */
+    public Observation startEnqueue(JobDispatch dispatch, String backend, boolean newTrace) {
+        SenderContext<JobDispatch> context = new SenderContext<>(
+                (carrier, key, value) -> {
+                    if (TRACE_PARENT.equals(key)) {
+                        carrier.setTraceParent(value);
+                    }
+                }, Kind.PRODUCER);
+        context.setCarrier(dispatch);
+        context.setRemoteServiceName(backend);
+        Observation observation = Observation.createNotStarted("chronos.job.enqueue", () -> context, observationRegistry)
+                .contextualName("enqueue")
+                .lowCardinalityKeyValue("backend", backend);
+        tagDispatch(observation, dispatch);
+        if (!newTrace) {
+            return observation.start();
+        }
+        observation.parentObservation(null);
+        try (Tracer.SpanInScope ignored = tracer.withSpan(null)) {
+            return observation.start();
+        }
+    }
+
+    /**
+     * Consumer observation of a run, continuing the trace the dispatch carries. The
+     * job type is not known before the claim, see {@link #tagType}.
+     */
+    public Observation execution(JobDispatch dispatch) {
+        ReceiverContext<JobDispatch> context = new ReceiverContext<>(
+                (carrier, key) -> TRACE_PARENT.equals(key) ? carrier.getTraceParent() : null, Kind.CONSUMER);
+        context.setCarrier(dispatch);
+        Observation observation = Observation.createNotStarted("chronos.job.execute", () -> context, observationRegistry)
+                .contextualName("execute")
+                .parentObservation(null)
+                .lowCardinalityKeyValue("type", "unknown");
+        return tagDispatch(observation, dispatch);
+    }
+
+    public static Observation tagType(Observation observation, JobType type) {
+        return observation.lowCardinalityKeyValue("type", type.name())
+                .contextualName("execute " + spanName(type));
+    }
+
+    /**
+     * Claiming the fire: the run insert and job status update
+     */
+    public Observation claim() {
+        return Observation.createNotStarted("chronos.job.claim", observationRegistry)
+                .contextualName("claim");
+    }
+
+    /**
+     * The job's own work: the HTTP call, script or batch
+     */
+    public Observation run(JobType type) {
+        return Observation.createNotStarted("chronos.job.run", observationRegistry)
+                .contextualName("run " + spanName(type))
+                .lowCardinalityKeyValue("type", type.name());
+    }
+
+    /**
+     * Record the time the dispatch sat in the queue as a span of the producer's trace,
+     * from its enqueue to the worker consuming it. Spans cannot be back-dated through
+     * observations, so this one goes to the tracer directly.
+     */
+    public void recordQueued(JobDispatch dispatch, long consumedAtMillis) {
+        if (dispatch.getTraceParent() == null || dispatch.getEnqueuedAt() == null) {
+            return;
+        }
+        Span span = propagator.extract(dispatch, (carrier, key) -> TRACE_PARENT.equals(key) ? carrier.getTraceParent() : null)
+                .name("queued")
+                .tag("job.id", String.valueOf(dispatch.getJobId()))
+                .startTimestamp(dispatch.getEnqueuedAt(), TimeUnit.MILLISECONDS)
+                .start();
+        span.end(Math.max(consumedAtMillis, dispatch.getEnqueuedAt()), TimeUnit.MILLISECONDS);
+    }
+
+    // Span names are lower case; upper case letters would be hyphenated
+    private static String spanName(JobType type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static Observation tagDispatch(Observation observation, JobDispatch dispatch) {
+        observation.highCardinalityKeyValue("job.id", String.valueOf(dispatch.getJobId()));
+        if (dispatch.getFireId() != null) {
+            observation.highCardinalityKeyValue("fire.id", dispatch.getFireId());
+        }
+        if (dispatch.getRetryAttempt() != null) {
+            observation.highCardinalityKeyValue("retry.attempt", String.valueOf(dispatch.getRetryAttempt()));
+        }
+        return observation;
+    }
+}
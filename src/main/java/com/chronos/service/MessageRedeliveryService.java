@@ -0,0 +1,151 @@
+package com.chronos.service;
+
+import com.chronos.config.RabbitMQConfig;
+import com.rabbitmq.client.GetResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.support.DefaultMessagePropertiesConverter;
+import org.springframework.amqp.rabbit.support.MessagePropertiesConverter;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Routes consumer failures: transient errors go to a TTL-delayed retry queue,
+ * poison messages (and exhausted retries) go to the dead letter queue with the
+ * failure cause attached as a header.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "chronos.queue.backend", havingValue = "amqp", matchIfMissing = true)
+public class MessageRedeliveryService {
+
+    public static final String ATTEMPT_HEADER = "x-chronos-attempt";
+    public static final String FAILURE_CAUSE_HEADER = "x-chronos-failure-cause";
+    public static final String FAILED_AT_HEADER = "x-chronos-failed-at";
+
+    private static final MessagePropertiesConverter PROPERTIES_CONVERTER = new DefaultMessagePropertiesConverter();
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chronos.scheduler.worker.queue-name:job.execution.queue}")
+    private String queueName;
+
+    @Value("${chronos.scheduler.worker.dead-letter-queue:job.execution.dlq}")
+    private String deadLetterQueue;
+
+    @Value("${chronos.scheduler.worker.redelivery.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * Send the message to the delay queue for its next attempt, or to the DLQ once
+     * attempts are exhausted
+     */
+    public void retryLater(Message message, Throwable cause) {
+        int attempt = currentAttempt(message) + 1;
+        if (attempt > maxAttempts) {
+            deadLetter(message, "Redelivery attempts exhausted: " + describe(cause));
+            return;
+        }
+
+        MessageProperties properties = message.getMessageProperties();
+        properties.setHeader(ATTEMPT_HEADER, attempt);
+        properties.setHeader(FAILURE_CAUSE_HEADER, describe(cause));
+        String retryQueue = RabbitMQConfig.retryQueueName(queueName, attempt);
+        rabbitTemplate.send("", retryQueue, new Message(message.getBody(), properties));
+
+        meterRegistry.counter("chronos.queue.redelivery", "outcome", "retry").increment();
+        log.warn("Message scheduled for redelivery attempt {}/{} via {}: {}",
+                attempt, maxAttempts, retryQueue, describe(cause));
+    }
+
+    /**
+     * Park a message on the dead letter queue with its failure cause
+     */
+    public void deadLetter(Message message, String cause) {
+        MessageProperties properties = message.getMessageProperties();
+        properties.setHeader(FAILURE_CAUSE_HEADER, cause);
+        properties.setHeader(FAILED_AT_HEADER, LocalDateTime.now().toString());
+        rabbitTemplate.send("", deadLetterQueue, new Message(message.getBody(), properties));
+
+        meterRegistry.counter("chronos.queue.redelivery", "outcome", "dead-lettered").increment();
+        log.error("Message dead-lettered to {}: {}", deadLetterQueue, cause);
+    }
+
+    /**
+     * Move up to {@code max} messages from the DLQ back onto the execution queue
+     * with a fresh attempt budget. Each dead letter is fetched unacknowledged and
+     * only acked once it has been republished, so a failed publish leaves it on the
+     * DLQ instead of losing it.
+     */
+    public int replayDeadLetters(int max) {
+        Integer replayed = rabbitTemplate.execute(channel -> {
+            int count = 0;
+            while (count < max) {
+                GetResponse response = channel.basicGet(deadLetterQueue, false);
+                if (response == null) {
+                    break;
+                }
+                long deliveryTag = response.getEnvelope().getDeliveryTag();
+                try {
+                    MessageProperties properties = PROPERTIES_CONVERTER.toMessageProperties(
+                            response.getProps(), response.getEnvelope(), StandardCharsets.UTF_8.name());
+                    properties.getHeaders().remove(ATTEMPT_HEADER);
+                    properties.getHeaders().remove(FAILURE_CAUSE_HEADER);
+                    properties.getHeaders().remove(FAILED_AT_HEADER);
+                    properties.getHeaders().remove("x-death");
+                    channel.basicPublish("", queueName,
+                            PROPERTIES_CONVERTER.fromMessageProperties(properties, StandardCharsets.UTF_8.name()),
+                            response.getBody());
+                } catch (IOException | RuntimeException e) {
+                    channel.basicNack(deliveryTag, false, true);
+                    throw e;
+                }
+                channel.basicAck(deliveryTag, false);
+                count++;
+            }
+            return count;
+        });
+        int total = replayed != null ? replayed : 0;
+        if (total > 0) {
+            meterRegistry.counter("chronos.queue.dlq.replayed").increment(total);
+            log.info("Replayed {} messages from {} to {}", total, deadLetterQueue, queueName);
+        }
+        return total;
+    }
+
+    public long deadLetterCount() {
+        QueueInformation info = amqpAdmin.getQueueInfo(deadLetterQueue);
+        return info != null ? info.getMessageCount() : 0;
+    }
+
+    public String getDeadLetterQueue() {
+        return deadLetterQueue;
+    }
+
+    private int currentAttempt(Message message) {
+        Object attempt = message.getMessageProperties().getHeader(ATTEMPT_HEADER);
+        return attempt instanceof Number ? ((Number) attempt).intValue() : 0;
+    }
+
+    private String describe(Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getClass().getSimpleName() + ": " + root.getMessage();
+    }
+}
@@ -0,0 +1,177 @@
+package com.chronos.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executions currently running on this node, keyed by job and run id, together with
+ * the handles needed to stop them (child process or reactive subscription).
+ */
+@Slf4j
+@Component
+public class RunningExecutionRegistry {
+
+    private final Map<Long, Map<Long, RunningExecution>> executionsByJob = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService killScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "chronos-execution-killer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${chronos.job.cancel.grace-period-ms:5000}")
+    private long gracePeriodMs;
+
+    public RunningExecution register(Long jobId, Long runId, int timeoutSeconds) {
+        RunningExecution execution = new RunningExecution(jobId, runId, timeoutSeconds);
+        executionsByJob.computeIfAbsent(jobId, id -> new ConcurrentHashMap<>()).put(runId, execution);
+        return execution;
+    }
+
+    public void unregister(RunningExecution execution) {
+        executionsByJob.computeIfPresent(execution.getJobId(), (id, runs) -> {
+            runs.remove(execution.getRunId());
+            return runs.isEmpty() ? null : runs;
+        });
+    }
+
+    public Collection<RunningExecution> getExecutions(Long jobId) {
+        Map<Long, RunningExecution> runs = executionsByJob.get(jobId);
+        return runs != null ? runs.values() : Collections.emptyList();
+    }
+
+    public List<RunningExecution> getAllExecutions() {
+        List<RunningExecution> all = new ArrayList<>();
+        executionsByJob.values().forEach(runs -> all.addAll(runs.values()));
+        return all;
+    }
+
+    public int size() {
+        return executionsByJob.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Stop every execution of the job running on this node
+     *
+     * @return number of executions that were signalled
+     */
+    public int cancel(Long jobId) {
+        Collection<RunningExecution> executions = getExecutions(jobId);
+        executions.forEach(execution -> {
+            execution.cancelled = true;
+            terminate(execution);
+        });
+        if (!executions.isEmpty()) {
+            log.info("Cancelled {} running execution(s) of job {}", executions.size(), jobId);
+        }
+        return executions.size();
+    }
+
+    /**
+     * Handle for one step of a batch run. It is not registered: the batch stops its
+     * steps when the registered parent execution is cancelled or times out.
+     */
+    public RunningExecution child(RunningExecution parent) {
+        return new RunningExecution(parent.getJobId(), parent.getRunId(), parent.getTimeoutSeconds());
+    }
+
+    /**
+     * Stop an unregistered step execution
+     */
+    public void stop(RunningExecution execution) {
+        execution.cancelled = true;
+        terminate(execution);
+    }
+
+    /**
+     * Stop an execution that has run past its deadline
+     */
+    public void timeOut(RunningExecution execution) {
+        execution.timedOut = true;
+        terminate(execution);
+    }
+
+    /**
+     * Dispose the subscription, or ask the process tree to terminate and kill it
+     * forcibly once the grace period has elapsed
+     */
+    private void terminate(RunningExecution execution) {
+        Disposable subscription = execution.subscription;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+
+        Process process = execution.process;
+        if (process != null && process.isAlive()) {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+            killScheduler.schedule(() -> {
+                if (process.isAlive()) {
+                    log.warn("Run {} of job {} did not stop within {} ms, killing it",
+                            execution.getRunId(), execution.getJobId(), gracePeriodMs);
+                    process.descendants().forEach(ProcessHandle::destroyForcibly);
+                    process.destroyForcibly();
+                }
+            }, gracePeriodMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        killScheduler.shutdownNow();
+    }
+
+    @Getter
+    public static class RunningExecution {
+        private final Long jobId;
+        private final Long runId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final int timeoutSeconds;
+        private final long deadlineMillis;
+        private volatile Process process;
+        private volatile Disposable subscription;
+        private volatile boolean cancelled;
+        private volatile boolean timedOut;
+
+        RunningExecution(Long jobId, Long runId, int timeoutSeconds) {
+            this.jobId = jobId;
+            this.runId = runId;
+            this.timeoutSeconds = timeoutSeconds;
+            this.deadlineMillis = System.currentTimeMillis() + timeoutSeconds * 1000L;
+        }
+
+        public boolean isOverdue(long nowMillis) {
+            return !timedOut && !cancelled && nowMillis >= deadlineMillis;
+        }
+
+        public void attachProcess(Process process) {
+            this.process = process;
+            if (cancelled || timedOut) {
+                // Stop was requested before the process was started
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+            }
+        }
+
+        public void attachSubscription(Disposable subscription) {
+            this.subscription = subscription;
+            if (cancelled || timedOut) {
+                subscription.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.chronos.service;
+
+import com.chronos.config.NodeIdentity;
+import com.chronos.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Elects a single node to run the scheduler loop using a lease row in the database.
+ * The leader renews the lease well before it expires; if it dies, another node takes
+ * the lease over once it has expired.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchedulerLeaderElection {
+
+    private static final String SCHEDULER_LEASE = "scheduler";
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${chronos.scheduler.leader-election.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chronos.scheduler.leader-election.lease-duration-seconds:15}")
+    private long leaseDurationSeconds;
+
+    private volatile LocalDateTime leaseExpiresAt;
+
+    /**
+     * True while this node holds an unexpired scheduler lease. Checked against the
+     * local copy of the expiry so a node that stalls past its lease stops scheduling
+     * even before it notices someone else took over.
+     */
+    public boolean isLeader() {
+        if (!enabled) {
+            return true;
+        }
+        LocalDateTime expiresAt = leaseExpiresAt;
+        return expiresAt != null && LocalDateTime.now().isBefore(expiresAt);
+    }
+
+    @Scheduled(fixedDelayString = "${chronos.scheduler.leader-election.renew-interval-ms:5000}")
+    public void renewLeadership() {
+        if (!enabled) {
+            return;
+        }
+        boolean wasLeader = isLeader();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(leaseDurationSeconds);
+        String nodeId = nodeIdentity.getNodeId();
+
+        try {
+            boolean acquired = leaseRepository.tryAcquire(SCHEDULER_LEASE, nodeId, expiresAt, now) > 0;
+            if (!acquired && !leaseRepository.existsById(SCHEDULER_LEASE)) {
+                acquired = tryInsert(nodeId, expiresAt);
+            }
+            leaseExpiresAt = acquired ? expiresAt : null;
+        } catch (Exception e) {
+            // Keep the current lease until it expires; the database may just be blipping
+            log.error("Failed to renew scheduler lease", e);
+        }
+
+        boolean leader = isLeader();
+        if (leader && !wasLeader) {
+            log.info("Node {} became scheduler leader", nodeId);
+        } else if (!leader && wasLeader) {
+            log.warn("Node {} lost scheduler leadership", nodeId);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLeadership() {
+        if (enabled && isLeader()) {
+            leaseExpiresAt = null;
+            try {
+                leaseRepository.release(SCHEDULER_LEASE, nodeIdentity.getNodeId(), LocalDateTime.now());
+                log.info("Released scheduler leadership");
+            } catch (Exception e) {
+                log.warn("Failed to release scheduler lease", e);
+            }
+        }
+    }
+
+    private boolean tryInsert(String nodeId, LocalDateTime expiresAt) {
+        try {
+            return leaseRepository.insert(SCHEDULER_LEASE, nodeId, expiresAt) > 0;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
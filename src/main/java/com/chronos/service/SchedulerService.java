@@ -1,16 +1,19 @@
 package com.chronos.service;
 
-import com.chronos.model.Job;
-import com.chronos.model.JobStatus;
+import com.chronos.dto.DueJob;
+import com.chronos.dto.JobDispatch;
+import com.chronos.profiling.SchedulerTickEvent;
 import com.chronos.repository.JobRepository;
+import com.chronos.service.SchedulerShardManager.ShardRange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -18,8 +21,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SchedulerService {
 
+    // Keyset start; earlier than any real nextRunTime and within every database's range
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final JobRepository jobRepository;
     private final JobQueueService jobQueueService;
+    private final SchedulerLeaderElection leaderElection;
+    private final SchedulerShardManager shardManager;
 
     @Value("${chronos.scheduler.enabled:true}")
     private boolean schedulerEnabled;
@@ -27,40 +35,76 @@ public class SchedulerService {
     @Value("${chronos.scheduler.poll-interval-ms:5000}")
     private long pollIntervalMs;
 
+    @Value("${chronos.scheduler.batch-size:500}")
+    private int batchSize;
+
+    @Value("${chronos.scheduler.max-batches-per-tick:20}")
+    private int maxBatchesPerTick;
+
     /**
-     * Polls for jobs that are ready to execute and enqueues them
+     * Polls for jobs that are ready to execute and enqueues them. With sharding enabled
+     * every node polls only its own shard range; otherwise only the elected leader
+     * polls, so adding nodes does not multiply the load on the database.
+     *
+     * Due jobs are read as (id, nextRunTime) pages in fire-time order, so each tick
+     * touches only the partial due-job index and never loads job payloads.
      */
     @Scheduled(fixedDelayString = "${chronos.scheduler.poll-interval-ms:5000}")
-    @Transactional
     public void scheduleJobs() {
         if (!schedulerEnabled) {
             return;
         }
 
+        ShardRange shards = null;
+        if (shardManager.isEnabled()) {
+            shards = shardManager.getOwnedShards();
+            if (shards == null) {
+                return;
+            }
+        } else if (!leaderElection.isLeader()) {
+            return;
+        }
+
+        SchedulerTickEvent event = new SchedulerTickEvent();
+        event.begin();
         LocalDateTime now = LocalDateTime.now();
-        
-        // Find scheduled jobs ready to execute
-        List<Job> jobsToExecute = jobRepository.findByStatusAndNextRunTimeLessThanEqual(
-            JobStatus.SCHEDULED, now
-        );
-
-        // Also check for retrying jobs
-        List<Job> retryingJobs = jobRepository.findByStatusAndNextRunTimeLessThanEqual(
-            JobStatus.RETRYING, now
-        );
-
-        jobsToExecute.addAll(retryingJobs);
-
-        for (Job job : jobsToExecute) {
-            if (job.getNextRunTime() != null && !job.getNextRunTime().isAfter(now)) {
-                log.info("Scheduling job {} for execution", job.getId());
-                jobQueueService.enqueueJob(job);
+        LocalDateTime afterTime = KEYSET_START;
+        long afterId = 0;
+        int dispatched = 0;
+
+        try {
+            for (int batch = 0; batch < maxBatchesPerTick; batch++) {
+                List<DueJob> dueJobs = findDueJobs(shards, now, afterTime, afterId);
+                List<JobDispatch> dispatches = new ArrayList<>(dueJobs.size());
+                for (DueJob dueJob : dueJobs) {
+                    log.info("Scheduling job {} for execution", dueJob.getId());
+                    dispatches.add(JobDispatch.forDueJob(dueJob));
+                }
+                jobQueueService.enqueueAll(dispatches);
+                dispatched += dueJobs.size();
+
+                if (dueJobs.size() < batchSize) {
+                    break;
+                }
+                DueJob last = dueJobs.get(dueJobs.size() - 1);
+                afterTime = last.getNextRunTime();
+                afterId = last.getId();
             }
+        } finally {
+            event.setDispatched(dispatched);
+            event.commit();
         }
 
-        if (!jobsToExecute.isEmpty()) {
-            log.debug("Scheduled {} jobs for execution", jobsToExecute.size());
+        if (dispatched > 0) {
+            log.debug("Scheduled {} jobs for execution", dispatched);
         }
     }
-}
 
+    private List<DueJob> findDueJobs(ShardRange shards, LocalDateTime now, LocalDateTime afterTime, long afterId) {
+        PageRequest page = PageRequest.of(0, batchSize);
+        if (shards == null) {
+            return jobRepository.findDueJobs(now, afterTime, afterId, page);
+        }
+        return jobRepository.findDueJobsInShards(shards.getFrom(), shards.getTo(), now, afterTime, afterId, page);
+    }
+}
@@ -0,0 +1,149 @@
+package com.chronos.service;
+
+import com.chronos.config.NodeIdentity;
+import com.chronos.repository.JobRepository;
+import com.chronos.repository.SchedulerNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits the job space into a fixed number of shards (job id modulo shard count) and
+ * assigns each live scheduler node a contiguous shard range. Membership is tracked in
+ * {@code scheduler_nodes}; every heartbeat recomputes the ranges, so shards are
+ * rebalanced as nodes join or leave. While ranges move, a shard may briefly be polled
+ * by two nodes; fire id deduplication makes that harmless.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchedulerShardManager {
+
+    private final SchedulerNodeRepository nodeRepository;
+    private final JobRepository jobRepository;
+    private final NodeIdentity nodeIdentity;
+
+    @Value("${chronos.scheduler.sharding.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chronos.scheduler.sharding.shard-count:64}")
+    private int shardCount;
+
+    @Value("${chronos.scheduler.sharding.node-ttl-seconds:30}")
+    private long nodeTtlSeconds;
+
+    private volatile ShardRange ownedShards;
+    private volatile List<String> liveNodes = Collections.emptyList();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Shard of a job. Identity ids are sequential, so the modulo spreads them evenly.
+     * Changing the shard count requires recomputing {@code jobs.shard}.
+     */
+    public int shardFor(Long jobId) {
+        return (int) Math.floorMod(jobId, (long) shardCount);
+    }
+
+    /**
+     * Range of shards this node should poll, or null if it currently owns none
+     */
+    public ShardRange getOwnedShards() {
+        return ownedShards;
+    }
+
+    public List<String> getLiveNodes() {
+        return liveNodes;
+    }
+
+    /**
+     * Give rows created before sharding was introduced a shard
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void assignMissingShards() {
+        if (!enabled) {
+            return;
+        }
+        int updated = jobRepository.assignMissingShards(shardCount);
+        if (updated > 0) {
+            log.info("Assigned shards to {} existing jobs", updated);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chronos.scheduler.sharding.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        String nodeId = nodeIdentity.getNodeId();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            if (nodeRepository.heartbeat(nodeId, now) == 0) {
+                try {
+                    nodeRepository.insert(nodeId, now);
+                    log.info("Node {} joined the scheduler group", nodeId);
+                } catch (DataIntegrityViolationException e) {
+                    nodeRepository.heartbeat(nodeId, now);
+                }
+            }
+            nodeRepository.deleteStale(now.minusSeconds(nodeTtlSeconds * 10));
+            rebalance(nodeRepository.findLiveNodeIds(now.minusSeconds(nodeTtlSeconds)));
+        } catch (Exception e) {
+            // Stop polling rather than risk scheduling on a stale view of the membership
+            log.error("Scheduler membership heartbeat failed", e);
+            ownedShards = null;
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (enabled) {
+            ownedShards = null;
+            try {
+                nodeRepository.deleteById(nodeIdentity.getNodeId());
+            } catch (Exception e) {
+                log.warn("Failed to remove node from scheduler group", e);
+            }
+        }
+    }
+
+    private void rebalance(List<String> nodes) {
+        int index = nodes.indexOf(nodeIdentity.getNodeId());
+        ShardRange range = null;
+        if (index >= 0) {
+            int from = index * shardCount / nodes.size();
+            int to = (index + 1) * shardCount / nodes.size() - 1;
+            range = from <= to ? new ShardRange(from, to) : null;
+        }
+        if (!nodes.equals(liveNodes)) {
+            log.info("Scheduler group changed to {} nodes, this node owns shards {}", nodes.size(), range);
+        }
+        liveNodes = nodes;
+        ownedShards = range;
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class ShardRange {
+        private final int from;
+        private final int to;
+    }
+}
@@ -0,0 +1,85 @@
+package com.chronos.service;
+
+import com.chronos.config.NodeIdentity;
+import com.chronos.model.Job;
+import com.chronos.repository.JobRepository;
+import com.chronos.repository.JobRunRepository;
+import com.chronos.service.RunningExecutionRegistry.RunningExecution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the leases of this node's running jobs alive and reclaims jobs whose owner
+ * stopped heartbeating (crashed or partitioned worker).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkerLeaseService {
+
+    private final JobRepository jobRepository;
+    private final JobRunRepository jobRunRepository;
+    private final RunningExecutionRegistry executionRegistry;
+    private final NodeIdentity nodeIdentity;
+    private final WorkflowEngine workflowEngine;
+    private final JobEventHub jobEventHub;
+
+    @Value("${chronos.job.worker.lease.duration-seconds:30}")
+    private long leaseDurationSeconds;
+
+    public LocalDateTime nextLeaseExpiry() {
+        return LocalDateTime.now().plusSeconds(leaseDurationSeconds);
+    }
+
+    /**
+     * Extend the leases of every execution running on this node with one batch
+     * UPDATE per table
+     */
+    @Scheduled(fixedDelayString = "${chronos.job.worker.lease.heartbeat-interval-ms:10000}")
+    @Transactional
+    public void heartbeat() {
+        List<RunningExecution> executions = executionRegistry.getAllExecutions();
+        if (executions.isEmpty()) {
+            return;
+        }
+        LocalDateTime expiresAt = nextLeaseExpiry();
+        List<Long> jobIds = executions.stream().map(RunningExecution::getJobId).distinct().collect(Collectors.toList());
+        List<Long> runIds = executions.stream().map(RunningExecution::getRunId).collect(Collectors.toList());
+
+        int jobs = jobRepository.renewLeases(jobIds, nodeIdentity.getNodeId(), expiresAt);
+        int runs = jobRunRepository.renewLeases(runIds, expiresAt);
+        log.debug("Renewed leases for {} jobs and {} runs until {}", jobs, runs, expiresAt);
+    }
+
+    /**
+     * Fail runs and requeue (or fail) jobs whose lease has expired. Jobs with retries
+     * left are retried immediately, exhausted recurring jobs go back on their schedule
+     * and exhausted one-time jobs are failed, cancelling their workflow's downstream jobs.
+     * RUNNING rows without a lease predate leases and are treated as expired.
+     */
+    @Scheduled(fixedDelayString = "${chronos.job.worker.lease.reaper-interval-ms:15000}")
+    @Transactional
+    public void reapExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        int runs = jobRunRepository.failExpiredLeases(now);
+        int requeued = jobRepository.requeueExpiredLeases(now);
+        int rescheduled = jobRepository.rescheduleExpiredRecurringLeases(now);
+        List<Job> failedWorkflowJobs = jobRepository.findExpiredWorkflowLeases(now);
+        int failed = jobRepository.failExpiredLeases(now);
+        failedWorkflowJobs.forEach(workflowEngine::onJobFailed);
+
+        if (runs + requeued + rescheduled + failed > 0) {
+            log.warn("Reaped expired leases: {} runs failed, {} jobs requeued, {} recurring jobs rescheduled, {} jobs failed",
+                    runs, requeued, rescheduled, failed);
+            jobEventHub.resync();
+        }
+    }
+}
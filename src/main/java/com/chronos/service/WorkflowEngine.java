@@ -0,0 +1,121 @@
+package com.chronos.service;
+
+import com.chronos.model.Job;
+import com.chronos.model.JobDependency;
+import com.chronos.model.JobStatus;
+import com.chronos.model.WorkflowStatus;
+import com.chronos.repository.JobDependencyRepository;
+import com.chronos.repository.JobRepository;
+import com.chronos.repository.WorkflowRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Advances workflows as their jobs finish. Every job of a workflow carries the number
+ * of its upstream jobs that have not completed yet. Completing a job decrements the
+ * counters of its direct downstream jobs in the same transaction and dispatches the
+ * ones that reach zero, so independent branches start as soon as their own inputs are
+ * done and nothing polls for readiness. A failed or cancelled job cancels everything
+ * downstream of it.
+ *
+ * Must be called inside the transaction that records the job's final status.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkflowEngine {
+
+    private final JobRepository jobRepository;
+    private final JobDependencyRepository jobDependencyRepository;
+    private final WorkflowRepository workflowRepository;
+    private final JobQueueService jobQueueService;
+    private final JobEventHub jobEventHub;
+
+    public void onJobCompleted(Job job) {
+        List<Long> downstreamIds = jobDependencyRepository.findDownstreamJobIds(job.getId());
+        if (!downstreamIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Job> released = new ArrayList<>();
+            // Row locks serialize concurrent completions of sibling upstream jobs
+            for (Job next : jobRepository.lockAllById(downstreamIds)) {
+                if (next.getStatus() != JobStatus.WAITING) {
+                    // Cancelled, or already started by hand
+                    continue;
+                }
+                next.setPendingDependencies(Math.max(0, next.getPendingDependencies() - 1));
+                if (next.getPendingDependencies() == 0) {
+                    // Due now, so the scheduler is the backstop for a lost publish
+                    next.setStatus(JobStatus.SCHEDULED);
+                    next.setNextRunTime(now);
+                    released.add(next);
+                }
+            }
+            for (Job next : released) {
+                log.info("Workflow {}: job {} released by completion of job {}", job.getWorkflowId(), next.getId(), job.getId());
+                jobEventHub.jobChanged(next);
+                jobQueueService.enqueueJob(next);
+            }
+        }
+
+        // Without the lock two last jobs finishing together each count the other as
+        // still running and neither finishes the workflow. The holder counts after the
+        // previous one commits, so the last completion always sees every other one
+        workflowRepository.lockById(job.getWorkflowId());
+        if (jobRepository.countByWorkflowIdAndStatusNot(job.getWorkflowId(), JobStatus.COMPLETED) == 0) {
+            if (workflowRepository.finish(job.getWorkflowId(), WorkflowStatus.COMPLETED, LocalDateTime.now()) > 0) {
+                log.info("Workflow {} completed", job.getWorkflowId());
+            }
+        }
+    }
+
+    public void onJobFailed(Job job) {
+        int cancelled = cancelDownstream(job);
+        if (workflowRepository.finish(job.getWorkflowId(), WorkflowStatus.FAILED, LocalDateTime.now()) > 0) {
+            log.warn("Workflow {} failed at job {}, cancelled {} downstream jobs", job.getWorkflowId(), job.getId(), cancelled);
+        }
+    }
+
+    public void onJobCancelled(Job job) {
+        int cancelled = cancelDownstream(job);
+        if (workflowRepository.finish(job.getWorkflowId(), WorkflowStatus.CANCELLED, LocalDateTime.now()) > 0) {
+            log.info("Workflow {} cancelled at job {}, cancelled {} downstream jobs", job.getWorkflowId(), job.getId(), cancelled);
+        }
+    }
+
+    /**
+     * Cancel every job transitively downstream of the given one that has not started
+     */
+    private int cancelDownstream(Job job) {
+        Map<Long, List<Long>> downstream = new HashMap<>();
+        for (JobDependency edge : jobDependencyRepository.findByWorkflowId(job.getWorkflowId())) {
+            downstream.computeIfAbsent(edge.getDependsOnJobId(), id -> new ArrayList<>()).add(edge.getJobId());
+        }
+        Set<Long> reached = new LinkedHashSet<>();
+        Deque<Long> pending = new ArrayDeque<>(downstream.getOrDefault(job.getId(), List.of()));
+        while (!pending.isEmpty()) {
+            Long id = pending.poll();
+            if (reached.add(id)) {
+                pending.addAll(downstream.getOrDefault(id, List.of()));
+            }
+        }
+        if (reached.isEmpty()) {
+            return 0;
+        }
+        int cancelled = jobRepository.cancelWaiting(reached);
+        if (cancelled > 0) {
+            jobEventHub.resync();
+        }
+        return cancelled;
+    }
+}
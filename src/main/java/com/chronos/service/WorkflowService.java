@@ -0,0 +1,220 @@
+package com.chronos.service;
+
+import com.chronos.dto.JobRequest;
+import com.chronos.dto.WorkflowRequest;
+import com.chronos.dto.WorkflowResponse;
+import com.chronos.model.Job;
+import com.chronos.model.JobDependency;
+import com.chronos.model.JobStatus;
+import com.chronos.model.Workflow;
+import com.chronos.model.WorkflowStatus;
+import com.chronos.repository.JobDependencyRepository;
+import com.chronos.repository.JobRepository;
+import com.chronos.repository.WorkflowRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkflowService {
+
+    private static final Set<JobStatus> CANCELLABLE = Set.of(
+            JobStatus.WAITING, JobStatus.PENDING, JobStatus.SCHEDULED, JobStatus.RETRYING, JobStatus.RUNNING);
+
+    private final WorkflowRepository workflowRepository;
+    private final JobRepository jobRepository;
+    private final JobDependencyRepository jobDependencyRepository;
+    private final JobService jobService;
+    private final JobCancellationService jobCancellationService;
+    private final JobEventHub jobEventHub;
+
+    /**
+     * Create a workflow and all of its jobs in one transaction. Jobs without
+     * dependencies are scheduled as usual; the others wait for their upstream jobs.
+     */
+    @Transactional
+    public WorkflowResponse createWorkflow(WorkflowRequest request) {
+        log.info("Creating workflow: {} with {} jobs for owner: {}", request.getName(), request.getJobs().size(), request.getOwner());
+        Map<String, JobRequest> jobsByKey = indexByKey(request);
+        List<String> order = topologicalOrder(jobsByKey);
+
+        Workflow workflow = workflowRepository.save(Workflow.builder()
+                .name(request.getName())
+                .owner(request.getOwner())
+                .status(WorkflowStatus.RUNNING)
+                .build());
+
+        Map<String, Long> idsByKey = new HashMap<>();
+        List<JobDependency> edges = new ArrayList<>();
+        for (String key : order) {
+            JobRequest jobRequest = jobsByKey.get(key);
+            List<String> dependsOn = dependsOn(jobRequest);
+
+            Job job = jobService.newJob(jobRequest);
+            job.setWorkflowId(workflow.getId());
+            if (!dependsOn.isEmpty()) {
+                job.setStatus(JobStatus.WAITING);
+                job.setNextRunTime(null);
+                job.setPendingDependencies(dependsOn.size());
+            }
+            job = jobService.saveNewJob(job);
+            idsByKey.put(key, job.getId());
+            for (String upstream : dependsOn) {
+                edges.add(new JobDependency(job.getId(), idsByKey.get(upstream)));
+            }
+        }
+        jobDependencyRepository.saveAll(edges);
+
+        return toWorkflowResponse(workflow);
+    }
+
+    public Optional<WorkflowResponse> getWorkflow(Long id) {
+        return workflowRepository.findById(id).map(this::toWorkflowResponse);
+    }
+
+    /**
+     * Cancel every unfinished job of the workflow and stop the running ones
+     */
+    @Transactional
+    public boolean cancelWorkflow(Long id) {
+        log.info("Cancelling workflow: {}", id);
+        Optional<Workflow> workflow = workflowRepository.findById(id);
+        if (workflow.isEmpty() || workflow.get().getStatus() != WorkflowStatus.RUNNING) {
+            return false;
+        }
+        List<Long> started = new ArrayList<>();
+        for (Job job : jobRepository.findByWorkflowIdOrderById(id)) {
+            if (CANCELLABLE.contains(job.getStatus())) {
+                if (job.getStatus() != JobStatus.WAITING) {
+                    started.add(job.getId());
+                }
+                job.setStatus(JobStatus.CANCELLED);
+                jobRepository.save(job);
+                jobEventHub.jobChanged(job);
+            }
+        }
+        workflowRepository.finish(id, WorkflowStatus.CANCELLED, LocalDateTime.now());
+        // Dispatched jobs may already be executing on some node
+        started.forEach(jobCancellationService::broadcastCancel);
+        return true;
+    }
+
+    private Map<String, JobRequest> indexByKey(WorkflowRequest request) {
+        Map<String, JobRequest> jobsByKey = new LinkedHashMap<>();
+        for (JobRequest job : request.getJobs()) {
+            if (job.getName() == null || job.getName().isBlank() || job.getType() == null) {
+                throw new IllegalArgumentException("Every workflow job needs a name and a type");
+            }
+            if (job.getOwner() == null || job.getOwner().isBlank()) {
+                job.setOwner(request.getOwner());
+            }
+            if (Boolean.TRUE.equals(job.getIsRecurring())) {
+                throw new IllegalArgumentException("Workflow job " + job.getName() + " cannot be recurring");
+            }
+            String key = job.getKey() != null ? job.getKey() : job.getName();
+            if (jobsByKey.put(key, job) != null) {
+                throw new IllegalArgumentException("Duplicate workflow job key: " + key);
+            }
+        }
+        for (Map.Entry<String, JobRequest> entry : jobsByKey.entrySet()) {
+            JobRequest job = entry.getValue();
+            for (String upstream : dependsOn(job)) {
+                if (!jobsByKey.containsKey(upstream)) {
+                    throw new IllegalArgumentException("Job " + entry.getKey() + " depends on unknown job " + upstream);
+                }
+            }
+            if (!dependsOn(job).isEmpty() && job.getSchedule() != null) {
+                throw new IllegalArgumentException("Job " + entry.getKey() + " has dependencies and cannot have a schedule");
+            }
+        }
+        return jobsByKey;
+    }
+
+    /**
+     * Kahn's algorithm; upstream jobs come first so their ids are known when the
+     * edges of their downstream jobs are written
+     */
+    private List<String> topologicalOrder(Map<String, JobRequest> jobsByKey) {
+        Map<String, Integer> indegree = new HashMap<>();
+        Map<String, List<String>> downstream = new HashMap<>();
+        for (Map.Entry<String, JobRequest> entry : jobsByKey.entrySet()) {
+            List<String> upstream = dependsOn(entry.getValue());
+            indegree.put(entry.getKey(), (int) upstream.stream().distinct().count());
+            upstream.stream().distinct()
+                    .forEach(key -> downstream.computeIfAbsent(key, k -> new ArrayList<>()).add(entry.getKey()));
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        indegree.forEach((key, count) -> {
+            if (count == 0) {
+                ready.add(key);
+            }
+        });
+        List<String> order = new ArrayList<>(jobsByKey.size());
+        while (!ready.isEmpty()) {
+            String key = ready.poll();
+            order.add(key);
+            for (String next : downstream.getOrDefault(key, List.of())) {
+                if (indegree.merge(next, -1, Integer::sum) == 0) {
+                    ready.add(next);
+                }
+            }
+        }
+        if (order.size() != jobsByKey.size()) {
+            throw new IllegalArgumentException("Workflow dependencies contain a cycle");
+        }
+        return order;
+    }
+
+    private List<String> dependsOn(JobRequest job) {
+        return job.getDependsOn() != null ? job.getDependsOn().stream().distinct().toList() : List.of();
+    }
+
+    private WorkflowResponse toWorkflowResponse(Workflow workflow) {
+        Map<Long, List<Long>> upstream = new HashMap<>();
+        for (JobDependency edge : jobDependencyRepository.findByWorkflowId(workflow.getId())) {
+            upstream.computeIfAbsent(edge.getJobId(), id -> new ArrayList<>()).add(edge.getDependsOnJobId());
+        }
+
+        Map<JobStatus, Long> counts = new EnumMap<>(JobStatus.class);
+        List<WorkflowResponse.Node> nodes = new ArrayList<>();
+        for (Job job : jobRepository.findByWorkflowIdOrderById(workflow.getId())) {
+            counts.merge(job.getStatus(), 1L, Long::sum);
+            nodes.add(WorkflowResponse.Node.builder()
+                    .id(job.getId())
+                    .name(job.getName())
+                    .status(job.getStatus())
+                    .dependsOn(upstream.getOrDefault(job.getId(), List.of()))
+                    .pendingDependencies(job.getPendingDependencies())
+                    .lastRunTime(job.getLastRunTime())
+                    .build());
+        }
+
+        return WorkflowResponse.builder()
+                .id(workflow.getId())
+                .name(workflow.getName())
+                .owner(workflow.getOwner())
+                .status(workflow.getStatus())
+                .jobCounts(counts)
+                .createdAt(workflow.getCreatedAt())
+                .updatedAt(workflow.getUpdatedAt())
+                .completedAt(workflow.getCompletedAt())
+                .jobs(nodes)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.chronos.spec;
+
+import com.chronos.model.JobType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * BATCH job: a partitioned input and the step template run once per partition, with
+ * an optional reduce step once every partition has finished. Templates are jobData
+ * JSON of the step's own type and may contain placeholders, which are substituted
+ * before each step is compiled.
+ */
+@Value
+@Builder
+public class BatchJobSpec implements ExecutionSpec {
+
+    public enum InputKind {
+        RANGE,
+        LIST,
+        FILE
+    }
+
+    InputKind inputKind;
+    long rangeStart; // RANGE: half-open [rangeStart, rangeEnd)
+    long rangeEnd;
+    List<String> items; // LIST
+    String file; // FILE: one item per line
+    int partitionSize;
+    int parallelism;
+    int maxFailedPartitions;
+    JobType mapType;
+    String mapTemplate;
+    JobType reduceType; // Null without a reduce step
+    String reduceTemplate;
+}
@@ -0,0 +1,8 @@
+package com.chronos.spec;
+
+import lombok.Value;
+
+@Value
+public class CustomJobSpec implements ExecutionSpec {
+    String jobData; // Normalized JSON
+}
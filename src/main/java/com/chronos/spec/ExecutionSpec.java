@@ -0,0 +1,7 @@
+package com.chronos.spec;
+
+/**
+ * Type-specific part of a compiled job definition.
+ */
+public interface ExecutionSpec {
+}
@@ -0,0 +1,18 @@
+package com.chronos.spec;
+
+import lombok.Value;
+import org.springframework.http.HttpMethod;
+
+import java.util.Map;
+
+/**
+ * HTTP_REQUEST job: request line, headers and serialized body, ready to send.
+ */
+@Value
+public class HttpJobSpec implements ExecutionSpec {
+    String url;
+    String host; // Circuit breaker key
+    HttpMethod method;
+    Map<String, String> headers;
+    String body; // Null when the request has no body
+}
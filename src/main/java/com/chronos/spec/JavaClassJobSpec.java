@@ -0,0 +1,8 @@
+package com.chronos.spec;
+
+import lombok.Value;
+
+@Value
+public class JavaClassJobSpec implements ExecutionSpec {
+    String className;
+}
@@ -0,0 +1,24 @@
+package com.chronos.spec;
+
+import com.chronos.model.JobType;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable, fully validated form of a job's jobData and config. Compiled once per
+ * job version so that executions never touch JSON.
+ */
+@Value
+@Builder
+public class JobSpec {
+    Long jobId;
+    Integer version;
+    JobType type;
+    ExecutionSpec execution;
+    Integer timeoutSeconds; // Null when the job does not override the default
+    long retryDelaySeconds;
+
+    public <T extends ExecutionSpec> T execution(Class<T> specType) {
+        return specType.cast(execution);
+    }
+}
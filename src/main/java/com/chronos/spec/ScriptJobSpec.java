@@ -0,0 +1,33 @@
+package com.chronos.spec;
+
+import lombok.Value;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SHELL_SCRIPT and PYTHON_SCRIPT jobs: the command line of the child process, plus
+ * extra environment variables (only set for batch partitions, which never travel in
+ * a dispatch envelope).
+ */
+@Value
+public class ScriptJobSpec implements ExecutionSpec {
+    List<String> command;
+    Map<String, String> environment;
+
+    public ScriptJobSpec(List<String> command) {
+        this(command, Map.of());
+    }
+
+    public ScriptJobSpec(List<String> command, Map<String, String> environment) {
+        this.command = command;
+        this.environment = environment;
+    }
+
+    public ScriptJobSpec withEnvironment(Map<String, String> extra) {
+        Map<String, String> merged = new HashMap<>(environment);
+        merged.putAll(extra);
+        return new ScriptJobSpec(command, Map.copyOf(merged));
+    }
+}
@@ -0,0 +1,12 @@
+-- Runs record the fire (job id + scheduled fire time) they execute; the unique
+-- constraint lets at most one run claim each fire.
+
+ALTER TABLE job_runs ADD COLUMN IF NOT EXISTS fire_id VARCHAR(255);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_job_run_fire_id') THEN
+        ALTER TABLE job_runs ADD CONSTRAINT uk_job_run_fire_id UNIQUE (fire_id);
+    END IF;
+END
+$$;
@@ -0,0 +1,6 @@
+-- A RUNNING job and its run carry a lease that the executing node keeps renewing;
+-- the reaper reclaims rows whose lease expired or was never set.
+
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(255);
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP(6);
+ALTER TABLE job_runs ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP(6);
@@ -0,0 +1,9 @@
+-- One row per named lease; the active scheduler is whichever node holds the
+-- scheduler lease row.
+
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name       VARCHAR(255) NOT NULL,
+    owner      VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (name)
+);
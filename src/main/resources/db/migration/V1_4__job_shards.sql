@@ -0,0 +1,13 @@
+-- Scheduler nodes register with a heartbeat and split jobs by shard (job id modulo
+-- the shard count). Shards of existing jobs are assigned at startup. The
+-- (shard, status, next_run_time) index ddl-auto created alongside is superseded by
+-- the partial idx_jobs_shard_due in V2, which also drops it where it exists.
+
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS shard INTEGER;
+
+CREATE TABLE IF NOT EXISTS scheduler_nodes (
+    node_id      VARCHAR(255) NOT NULL,
+    heartbeat_at TIMESTAMP(6) NOT NULL,
+    joined_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (node_id)
+);
@@ -0,0 +1,48 @@
+-- Baseline schema, equivalent to what hibernate ddl-auto produced from the entities
+-- before any of the scheduler's later features. Existing databases are baselined at
+-- this version and skip it; everything added since comes in later migrations, which
+-- tolerate what ddl-auto update may already have added.
+
+CREATE TABLE jobs (
+    id               BIGSERIAL    NOT NULL,
+    name             VARCHAR(255) NOT NULL,
+    owner            VARCHAR(255) NOT NULL,
+    type             VARCHAR(255) NOT NULL CHECK (type IN ('HTTP_REQUEST', 'SHELL_SCRIPT', 'JAVA_CLASS', 'PYTHON_SCRIPT', 'CUSTOM')),
+    status           VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'SCHEDULED', 'RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED', 'RETRYING')),
+    description      TEXT,
+    schedule         TEXT,
+    is_recurring     BOOLEAN      NOT NULL,
+    max_retries      INTEGER      NOT NULL,
+    current_retries  INTEGER      NOT NULL,
+    job_data         TEXT,
+    config           TEXT,
+    version          INTEGER      NOT NULL,
+    next_run_time    TIMESTAMP(6),
+    last_run_time    TIMESTAMP(6),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE job_runs (
+    id               BIGSERIAL    NOT NULL,
+    job_id           BIGINT       NOT NULL,
+    status           VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'SCHEDULED', 'RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED', 'RETRYING')),
+    started_at       TIMESTAMP(6),
+    completed_at     TIMESTAMP(6),
+    output           TEXT,
+    error            TEXT,
+    retry_attempt    INTEGER,
+    worker_id        VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_job_runs_job FOREIGN KEY (job_id) REFERENCES jobs (id)
+);
+
+CREATE INDEX idx_owner ON jobs (owner);
+CREATE INDEX idx_status ON jobs (status);
+CREATE INDEX idx_next_run ON jobs (next_run_time);
+
+CREATE INDEX idx_job_id ON job_runs (job_id);
+CREATE INDEX idx_run_status ON job_runs (status);
+CREATE INDEX idx_started_at ON job_runs (started_at);
@@ -0,0 +1,14 @@
+-- The scheduler only ever polls SCHEDULED and RETRYING jobs, which are a small
+-- fraction of the table. Partial indexes over just those rows replace the full
+-- next_run_time and (shard, status, next_run_time) indexes, so due-job lookups stay
+-- small at any table size and completed jobs no longer cost index maintenance.
+-- The trailing id supports keyset pagination over (next_run_time, id).
+
+DROP INDEX IF EXISTS idx_next_run;
+DROP INDEX IF EXISTS idx_shard_status_next_run;
+
+CREATE INDEX idx_jobs_due ON jobs (next_run_time, id)
+    WHERE status IN ('SCHEDULED', 'RETRYING');
+
+CREATE INDEX idx_jobs_shard_due ON jobs (shard, next_run_time, id)
+    WHERE status IN ('SCHEDULED', 'RETRYING');
@@ -0,0 +1,18 @@
+-- Queue table for chronos.queue.backend=postgres. Workers claim rows in batches with
+-- FOR UPDATE SKIP LOCKED and hide them for a visibility timeout; a row is deleted
+-- once its dispatch has been handled.
+CREATE TABLE job_queue (
+    id           BIGSERIAL   NOT NULL,
+    job_id       BIGINT      NOT NULL,
+    payload      BYTEA       NOT NULL, -- JobDispatchCodec envelope
+    attempts     INTEGER     NOT NULL DEFAULT 0,
+    available_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    enqueued_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_job_queue_available ON job_queue (available_at, id);
+
+-- Every row is updated and deleted within seconds; vacuum often so dead tuples
+-- do not pile up in front of the claim scan
+ALTER TABLE job_queue SET (autovacuum_vacuum_scale_factor = 0.01, autovacuum_analyze_scale_factor = 0.02);
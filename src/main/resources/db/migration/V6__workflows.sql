@@ -0,0 +1,40 @@
+-- Workflows: DAGs of one-time jobs. Jobs with unfinished upstream jobs wait in the
+-- WAITING status with the number of unfinished upstream jobs in pending_dependencies;
+-- completing an upstream job decrements its downstream counters in the same
+-- transaction and releases the jobs that reach zero.
+
+CREATE TABLE workflows (
+    id           BIGSERIAL    NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    owner        VARCHAR(255) NOT NULL,
+    status       VARCHAR(255) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED')),
+    created_at   TIMESTAMP(6),
+    updated_at   TIMESTAMP(6),
+    completed_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE jobs ADD COLUMN workflow_id BIGINT;
+ALTER TABLE jobs ADD COLUMN pending_dependencies INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE jobs ADD CONSTRAINT fk_jobs_workflow FOREIGN KEY (workflow_id) REFERENCES workflows (id);
+CREATE INDEX idx_jobs_workflow ON jobs (workflow_id) WHERE workflow_id IS NOT NULL;
+
+-- One row per edge: job_id runs after depends_on_job_id has completed
+CREATE TABLE job_dependencies (
+    job_id            BIGINT NOT NULL,
+    depends_on_job_id BIGINT NOT NULL,
+    PRIMARY KEY (job_id, depends_on_job_id),
+    CONSTRAINT fk_job_dependencies_job FOREIGN KEY (job_id) REFERENCES jobs (id),
+    CONSTRAINT fk_job_dependencies_upstream FOREIGN KEY (depends_on_job_id) REFERENCES jobs (id)
+);
+
+-- Downstream lookup when an upstream job finishes
+CREATE INDEX idx_job_dependencies_upstream ON job_dependencies (depends_on_job_id);
+
+ALTER TABLE jobs DROP CONSTRAINT IF EXISTS jobs_status_check;
+ALTER TABLE jobs ADD CONSTRAINT jobs_status_check
+    CHECK (status IN ('PENDING', 'SCHEDULED', 'RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED', 'RETRYING', 'TIMED_OUT', 'WAITING'));
+
+ALTER TABLE job_runs DROP CONSTRAINT IF EXISTS job_runs_status_check;
+ALTER TABLE job_runs ADD CONSTRAINT job_runs_status_check
+    CHECK (status IN ('PENDING', 'SCHEDULED', 'RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED', 'RETRYING', 'TIMED_OUT', 'WAITING'));
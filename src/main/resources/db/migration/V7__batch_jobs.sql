@@ -0,0 +1,25 @@
+-- BATCH jobs fan a partitioned input out inside one run. Progress is one row per
+-- batch job: counters plus a bitmap of completed partitions, so a retried run
+-- resumes with the partitions that have not completed yet.
+
+ALTER TABLE jobs DROP CONSTRAINT IF EXISTS jobs_type_check;
+ALTER TABLE jobs ADD CONSTRAINT jobs_type_check
+    CHECK (type IN ('HTTP_REQUEST', 'SHELL_SCRIPT', 'JAVA_CLASS', 'PYTHON_SCRIPT', 'CUSTOM', 'BATCH'));
+
+CREATE TABLE batch_progress (
+    job_id               BIGINT       NOT NULL,
+    run_id               BIGINT,
+    version              INTEGER      NOT NULL,
+    status               VARCHAR(255) NOT NULL CHECK (status IN ('RUNNING', 'REDUCING', 'COMPLETED', 'FAILED', 'CANCELLED')),
+    total_partitions     INTEGER      NOT NULL,
+    total_items          BIGINT       NOT NULL,
+    completed_partitions INTEGER      NOT NULL,
+    failed_partitions    INTEGER      NOT NULL,
+    done_partitions      BYTEA,
+    last_error           TEXT,
+    started_at           TIMESTAMP(6),
+    updated_at           TIMESTAMP(6),
+    completed_at         TIMESTAMP(6),
+    PRIMARY KEY (job_id),
+    CONSTRAINT fk_batch_progress_job FOREIGN KEY (job_id) REFERENCES jobs (id)
+);
@@ -0,0 +1,14 @@
+-- Job lists are filtered by owner and paged newest first. (owner, id) serves the
+-- unfiltered owner list as a backward index scan that stops after one page, and
+-- (owner, status, id) the same per status. Both supersede idx_owner.
+DROP INDEX IF EXISTS idx_owner;
+CREATE INDEX idx_jobs_owner_id ON jobs (owner, id);
+CREATE INDEX idx_jobs_owner_status_id ON jobs (owner, status, id);
+
+-- Name prefix search within an owner. The pattern operator class lets LIKE 'prefix%'
+-- use the index whatever the database collation is.
+CREATE INDEX idx_jobs_owner_name ON jobs (owner, name varchar_pattern_ops);
+
+-- Job updates are never HOT (see V4), so each of these indexes gets a new entry on
+-- every job update, whether or not its columns changed. Dropping idx_owner leaves
+-- two more index writes per update than before.
@@ -0,0 +1,265 @@
+package com.chronos.dto;
+
+import com.chronos.model.JobType;
+import com.chronos.spec.BatchJobSpec;
+import com.chronos.spec.CustomJobSpec;
+import com.chronos.spec.ExecutionSpec;
+import com.chronos.spec.HttpJobSpec;
+import com.chronos.spec.JavaClassJobSpec;
+import com.chronos.spec.JobSpec;
+import com.chronos.spec.ScriptJobSpec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobDispatchCodecTest {
+
+    private static final long FIRE_TIME = 1_700_000_000_000L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void roundTripsHttpSpec() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("X-Trace", "ü");
+        assertRoundTrip(JobType.HTTP_REQUEST, new HttpJobSpec("https://example.com/hook", "example.com",
+                HttpMethod.POST, Map.copyOf(headers), "{\"a\":1}"));
+    }
+
+    @Test
+    void roundTripsHttpSpecWithoutBody() {
+        assertRoundTrip(JobType.HTTP_REQUEST, new HttpJobSpec("http://localhost/ping", "localhost",
+                HttpMethod.GET, Map.of(), null));
+    }
+
+    @Test
+    void roundTripsShellScriptSpec() {
+        assertRoundTrip(JobType.SHELL_SCRIPT, new ScriptJobSpec(List.of("/bin/sh", "-c", "echo hi")));
+    }
+
+    @Test
+    void roundTripsPythonScriptSpec() {
+        assertRoundTrip(JobType.PYTHON_SCRIPT, new ScriptJobSpec(List.of("python3", "job.py")));
+    }
+
+    @Test
+    void roundTripsJavaClassSpec() {
+        assertRoundTrip(JobType.JAVA_CLASS, new JavaClassJobSpec("com.example.ReportJob"));
+    }
+
+    @Test
+    void roundTripsCustomSpec() {
+        assertRoundTrip(JobType.CUSTOM, new CustomJobSpec("{\"key\":\"value\"}"));
+    }
+
+    @Test
+    void neverInlinesBatchSpec() {
+        BatchJobSpec batch = BatchJobSpec.builder()
+                .inputKind(BatchJobSpec.InputKind.RANGE)
+                .rangeStart(0)
+                .rangeEnd(100)
+                .partitionSize(10)
+                .parallelism(2)
+                .mapType(JobType.CUSTOM)
+                .mapTemplate("{}")
+                .build();
+        JobDispatch dispatch = dispatch(spec(JobType.BATCH, batch));
+
+        JobDispatch decoded = JobDispatchCodec.decode(JobDispatchCodec.encode(dispatch));
+
+        assertThat(decoded.getSpec()).isNull();
+        assertThat(decoded.getJobId()).isEqualTo(42L);
+        assertThat(decoded.getVersion()).isEqualTo(7);
+    }
+
+    @Test
+    void roundTripsDispatchWithoutOptionalFields() {
+        JobDispatch dispatch = JobDispatch.builder().jobId(9L).build();
+
+        JobDispatch decoded = JobDispatchCodec.decode(JobDispatchCodec.encode(dispatch));
+
+        assertThat(decoded).isEqualTo(dispatch);
+    }
+
+    @Test
+    void roundTripsTrailingFields() {
+        JobDispatch dispatch = dispatch(null);
+        dispatch.setEnqueuedAt(FIRE_TIME + 5);
+        dispatch.setTraceParent("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+
+        JobDispatch decoded = JobDispatchCodec.decode(JobDispatchCodec.encode(dispatch));
+
+        assertThat(decoded).isEqualTo(dispatch);
+    }
+
+    @Test
+    void decodesEnvelopeWrittenBeforeTrailingFieldsExisted() throws IOException {
+        // Format version 1 as first shipped: fire time, version and retry attempt only
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte('C');
+        out.writeByte('J');
+        out.writeByte(1);
+        out.writeByte(0b111);
+        out.writeLong(42L);
+        out.writeLong(FIRE_TIME);
+        out.writeInt(7);
+        out.writeInt(2);
+        out.writeByte(0);
+
+        JobDispatch decoded = JobDispatchCodec.decode(bytes.toByteArray());
+
+        assertThat(decoded.getJobId()).isEqualTo(42L);
+        assertThat(decoded.getFireId()).isEqualTo("42:" + FIRE_TIME);
+        assertThat(decoded.getVersion()).isEqualTo(7);
+        assertThat(decoded.getRetryAttempt()).isEqualTo(2);
+        assertThat(decoded.getEnqueuedAt()).isNull();
+        assertThat(decoded.getTraceParent()).isNull();
+    }
+
+    @Test
+    void ignoresFieldsAppendedByNewerProducers() {
+        JobDispatch dispatch = dispatch(spec(JobType.JAVA_CLASS, new JavaClassJobSpec("com.example.Job")));
+        dispatch.setEnqueuedAt(FIRE_TIME + 5);
+        dispatch.setTraceParent("00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        byte[] encoded = JobDispatchCodec.encode(dispatch);
+        // A newer producer sets a flag this decoder does not know and appends its field
+        byte[] extended = Arrays.copyOf(encoded, encoded.length + 6);
+        extended[3] |= 1 << 6;
+        extended[encoded.length] = 0x7f;
+
+        JobDispatch decoded = JobDispatchCodec.decode(extended);
+
+        assertThat(decoded).isEqualTo(dispatch);
+    }
+
+    @Test
+    void encodesStableBytes() {
+        JobDispatch dispatch = JobDispatch.builder()
+                .jobId(1L)
+                .version(2)
+                .build();
+
+        assertThat(JobDispatchCodec.encode(dispatch)).containsExactly(
+                'C', 'J', 1, 0b10,
+                0, 0, 0, 0, 0, 0, 0, 1,
+                0, 0, 0, 2,
+                0);
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() {
+        byte[] encoded = JobDispatchCodec.encode(dispatch(null));
+        encoded[2] = 2;
+
+        assertThatThrownBy(() -> JobDispatchCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("format version 2");
+    }
+
+    @Test
+    void rejectsTruncatedEnvelope() {
+        byte[] encoded = JobDispatchCodec.encode(dispatch(spec(JobType.HTTP_REQUEST,
+                new HttpJobSpec("https://example.com", "example.com", HttpMethod.GET, Map.of("A", "b"), null))));
+
+        for (int length = 3; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThatThrownBy(() -> JobDispatchCodec.decode(truncated))
+                    .as("truncated to %d bytes", length)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Truncated");
+        }
+    }
+
+    @Test
+    void rejectsNonEnvelope() {
+        assertThatThrownBy(() -> JobDispatchCodec.decode("{}".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decodeAnyAcceptsEnvelope() throws IOException {
+        JobDispatch dispatch = dispatch(spec(JobType.CUSTOM, new CustomJobSpec("{}")));
+
+        assertThat(JobDispatchCodec.decodeAny(JobDispatchCodec.encode(dispatch), objectMapper)).isEqualTo(dispatch);
+    }
+
+    @Test
+    void decodesLegacyJson() throws IOException {
+        byte[] body = "{\"jobId\":42,\"fireId\":\"42:1700000000000\"}".getBytes(StandardCharsets.UTF_8);
+
+        JobDispatch decoded = JobDispatchCodec.decodeAny(body, objectMapper);
+
+        assertThat(decoded.getJobId()).isEqualTo(42L);
+        assertThat(decoded.getFireId()).isEqualTo("42:1700000000000");
+        assertThat(decoded.getSpec()).isNull();
+    }
+
+    @Test
+    void decodesBareJobId() throws IOException {
+        JobDispatch decoded = JobDispatchCodec.decodeAny("42".getBytes(StandardCharsets.UTF_8), objectMapper);
+
+        assertThat(decoded.getJobId()).isEqualTo(42L);
+        assertThat(decoded.getFireId()).isNull();
+    }
+
+    @Test
+    void decodesDoubleEncodedJson() throws IOException {
+        JobDispatch decoded = JobDispatchCodec.decodeAny("\"42\"".getBytes(StandardCharsets.UTF_8), objectMapper);
+        assertThat(decoded.getJobId()).isEqualTo(42L);
+
+        decoded = JobDispatchCodec.decodeAny("\"{\\\"jobId\\\":43}\"".getBytes(StandardCharsets.UTF_8), objectMapper);
+        assertThat(decoded.getJobId()).isEqualTo(43L);
+    }
+
+    @Test
+    void rejectsJsonWithoutJobId() {
+        assertThatThrownBy(() -> JobDispatchCodec.decodeAny("{\"fireId\":\"x\"}".getBytes(StandardCharsets.UTF_8), objectMapper))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("jobId");
+    }
+
+    private void assertRoundTrip(JobType type, ExecutionSpec execution) {
+        JobDispatch dispatch = dispatch(spec(type, execution));
+
+        JobDispatch decoded = JobDispatchCodec.decode(JobDispatchCodec.encode(dispatch));
+
+        assertThat(decoded).isEqualTo(dispatch);
+        assertThat(decoded.getSpec().getExecution()).isEqualTo(execution);
+    }
+
+    private static JobSpec spec(JobType type, ExecutionSpec execution) {
+        return JobSpec.builder()
+                .jobId(42L)
+                .version(7)
+                .type(type)
+                .execution(execution)
+                .timeoutSeconds(30)
+                .retryDelaySeconds(60)
+                .build();
+    }
+
+    private static JobDispatch dispatch(JobSpec spec) {
+        return JobDispatch.builder()
+                .jobId(42L)
+                .fireId(JobDispatch.fireId(42L, FIRE_TIME))
+                .fireTime(FIRE_TIME)
+                .version(7)
+                .retryAttempt(1)
+                .spec(spec)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.chronos.queue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DispatchJournalTest {
+
+    // Type, sequence and length ahead of each ENQUEUE payload
+    private static final int ENQUEUE_HEADER_BYTES = 13;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoversOnlyUnacknowledgedDispatchesInEnqueueOrder() {
+        Path path = dir.resolve("queue.journal");
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            assertThat(journal.recovered()).isEmpty();
+            long a = journal.append(bytes("a"));
+            long b = journal.append(bytes("b"));
+            journal.append(bytes("c"));
+            journal.ack(b);
+            assertThat(a).isZero();
+        }
+
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            Map<Long, byte[]> recovered = journal.recovered();
+            assertThat(recovered.keySet()).containsExactly(0L, 2L);
+            assertThat(text(recovered.get(0L))).isEqualTo("a");
+            assertThat(text(recovered.get(2L))).isEqualTo("c");
+            // Sequences continue after the replayed ones, so later ACKs cannot collide
+            assertThat(journal.append(bytes("d"))).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    void replayedDispatchAcknowledgedAfterRestartIsNotReplayedAgain() {
+        Path path = dir.resolve("queue.journal");
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            journal.append(bytes("a"));
+            journal.append(bytes("b"));
+        }
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            journal.ack(0L);
+        }
+
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            assertThat(journal.recovered().keySet()).containsExactly(1L);
+        }
+    }
+
+    @Test
+    void ignoresATornLastRecord() throws IOException {
+        Path path = dir.resolve("queue.journal");
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            journal.append(bytes("first"));
+            journal.append(bytes("second"));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            assertThat(journal.recovered().keySet()).containsExactly(0L);
+            assertThat(text(journal.recovered().get(0L))).isEqualTo("first");
+        }
+    }
+
+    @Test
+    void compactsToTheUnacknowledgedRecordsOnOpen() throws IOException {
+        Path path = dir.resolve("queue.journal");
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            for (int i = 0; i < 100; i++) {
+                long sequence = journal.append(bytes("dispatch-" + i));
+                if (i != 42) {
+                    journal.ack(sequence);
+                }
+            }
+        }
+        long before = Files.size(path);
+
+        try (DispatchJournal journal = new DispatchJournal(path, false, Long.MAX_VALUE)) {
+            assertThat(journal.recovered().keySet()).containsExactly(42L);
+        }
+
+        assertThat(Files.size(path)).isEqualTo(ENQUEUE_HEADER_BYTES + "dispatch-42".length()).isLessThan(before);
+        assertThat(Files.exists(dir.resolve("queue.journal.compact"))).isFalse();
+    }
+
+    @Test
+    void flushTruncatesPastTheThresholdOnlyOnceNothingIsPending() throws IOException {
+        Path path = dir.resolve("queue.journal");
+        try (DispatchJournal journal = new DispatchJournal(path, false, 16)) {
+            long a = journal.append(bytes("aaaaaaaaaa"));
+            long b = journal.append(bytes("bbbbbbbbbb"));
+            journal.ack(a);
+            journal.flush();
+            assertThat(Files.size(path)).isPositive();
+
+            journal.ack(b);
+            journal.flush();
+            assertThat(Files.size(path)).isZero();
+
+            journal.append(bytes("c"));
+        }
+
+        try (DispatchJournal journal = new DispatchJournal(path, false, 16)) {
+            assertThat(journal.recovered().keySet()).containsExactly(2L);
+            assertThat(text(journal.recovered().get(2L))).isEqualTo("c");
+        }
+    }
+
+    @Test
+    void flushKeepsASmallJournalBelowTheThreshold() throws IOException {
+        Path path = dir.resolve("queue.journal");
+        try (DispatchJournal journal = new DispatchJournal(path, false, 1024)) {
+            journal.ack(journal.append(bytes("a")));
+            journal.flush();
+
+            assertThat(Files.size(path)).isEqualTo(ENQUEUE_HEADER_BYTES + 1 + 9);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
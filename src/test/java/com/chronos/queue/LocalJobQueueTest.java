@@ -0,0 +1,130 @@
+package com.chronos.queue;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.queue.LocalJobQueue.Delivery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalJobQueueTest {
+
+    private static final long FIRE_TIME = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private final List<LocalJobQueue> queues = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        queues.forEach(LocalJobQueue::close);
+    }
+
+    @Test
+    void deliversDispatchesInEnqueueOrder() {
+        LocalJobQueue queue = withoutJournal(8, 100);
+        queue.enqueue(dispatch(1));
+        queue.enqueue(dispatch(2));
+
+        assertThat(queue.depth()).isEqualTo(2);
+        assertThat(queue.poll().getDispatch().getJobId()).isEqualTo(1L);
+        assertThat(queue.poll().getDispatch().getJobId()).isEqualTo(2L);
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    void enqueueFailsOnceTheRingStaysFullForTheOfferTimeout() {
+        LocalJobQueue queue = withoutJournal(2, 20);
+        queue.enqueue(dispatch(1));
+        queue.enqueue(dispatch(2));
+
+        assertThatThrownBy(() -> queue.enqueue(dispatch(3)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("full");
+        assertThat(queue.depth()).isEqualTo(2);
+    }
+
+    @Test
+    void replaysUnacknowledgedDispatchesAfterARestart() {
+        Path journal = dir.resolve("queue.journal");
+        LocalJobQueue queue = withJournal(journal, 8);
+        queue.enqueue(dispatch(1));
+        queue.enqueue(dispatch(2));
+        queue.enqueue(dispatch(3));
+        queue.acknowledge(queue.poll());
+        // Taken by a worker that died before finishing it
+        queue.poll();
+        queue.close();
+
+        LocalJobQueue restarted = withJournal(journal, 8);
+
+        assertThat(restarted.depth()).isEqualTo(2);
+        Delivery replayed = restarted.poll();
+        assertThat(replayed.getDispatch().getJobId()).isEqualTo(2L);
+        assertThat(replayed.getDispatch().getFireId()).isEqualTo(JobDispatch.fireId(2L, FIRE_TIME));
+        assertThat(restarted.poll().getDispatch().getJobId()).isEqualTo(3L);
+        assertThat(restarted.poll()).isNull();
+    }
+
+    @Test
+    void replaysADispatchOnceAfterItWasRedelivered() {
+        Path journal = dir.resolve("queue.journal");
+        LocalJobQueue queue = withJournal(journal, 8);
+        queue.enqueue(dispatch(1));
+        queue.redeliver(queue.poll());
+        queue.close();
+
+        LocalJobQueue restarted = withJournal(journal, 8);
+
+        assertThat(restarted.depth()).isEqualTo(1);
+        restarted.acknowledge(restarted.poll());
+        restarted.close();
+        assertThat(withJournal(journal, 8).depth()).isZero();
+    }
+
+    @Test
+    void doesNotReplayADispatchRejectedAsFull() {
+        Path journal = dir.resolve("queue.journal");
+        LocalJobQueue queue = withJournal(journal, 2);
+        queue.enqueue(dispatch(1));
+        queue.enqueue(dispatch(2));
+        assertThatThrownBy(() -> queue.enqueue(dispatch(3))).isInstanceOf(IllegalStateException.class);
+        queue.close();
+
+        LocalJobQueue restarted = withJournal(journal, 2);
+
+        assertThat(restarted.poll().getDispatch().getJobId()).isEqualTo(1L);
+        assertThat(restarted.poll().getDispatch().getJobId()).isEqualTo(2L);
+        assertThat(restarted.poll()).isNull();
+    }
+
+    private LocalJobQueue withoutJournal(int capacity, long offerTimeoutMs) {
+        return track(new LocalJobQueue(capacity, offerTimeoutMs, false, null, 10, false, Long.MAX_VALUE));
+    }
+
+    private LocalJobQueue withJournal(Path journal, int capacity) {
+        return track(new LocalJobQueue(capacity, 20, true, journal.toString(), 10, false, Long.MAX_VALUE));
+    }
+
+    private LocalJobQueue track(LocalJobQueue queue) {
+        queues.add(queue);
+        return queue;
+    }
+
+    private static JobDispatch dispatch(long jobId) {
+        return JobDispatch.builder()
+                .jobId(jobId)
+                .fireId(JobDispatch.fireId(jobId, FIRE_TIME))
+                .fireTime(FIRE_TIME)
+                .version(1)
+                .retryAttempt(0)
+                .build();
+    }
+}
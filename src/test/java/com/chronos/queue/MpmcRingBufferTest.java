@@ -0,0 +1,130 @@
+package com.chronos.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpmcRingBufferTest {
+
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new MpmcRingBuffer<Integer>(2).capacity()).isEqualTo(2);
+        assertThat(new MpmcRingBuffer<Integer>(5).capacity()).isEqualTo(8);
+        assertThat(new MpmcRingBuffer<Integer>(8).capacity()).isEqualTo(8);
+        assertThatThrownBy(() -> new MpmcRingBuffer<Integer>(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pollReturnsNullWhenEmpty() {
+        MpmcRingBuffer<Integer> ring = new MpmcRingBuffer<>(4);
+
+        assertThat(ring.poll()).isNull();
+        ring.offer(1);
+        assertThat(ring.poll()).isEqualTo(1);
+        assertThat(ring.poll()).isNull();
+        assertThat(ring.size()).isZero();
+    }
+
+    @Test
+    void offerReturnsFalseWhenFullUntilASlotIsFreed() {
+        MpmcRingBuffer<Integer> ring = new MpmcRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+
+        assertThat(ring.poll()).isZero();
+        assertThat(ring.offer(4)).isTrue();
+        assertThat(ring.offer(5)).isFalse();
+    }
+
+    @Test
+    void keepsFifoOrderAcrossManyLaps() {
+        MpmcRingBuffer<Integer> ring = new MpmcRingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        // Three in, three out: each round starts one slot further on, so the
+        // positions wrap around the array many times
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 3; i++) {
+                assertThat(ring.offer(next++)).isTrue();
+            }
+            assertThat(ring.size()).isEqualTo(3);
+            for (int i = 0; i < 3; i++) {
+                assertThat(ring.poll()).isEqualTo(expected++);
+            }
+        }
+        assertThat(ring.poll()).isNull();
+    }
+
+    @Test
+    void deliversEveryElementExactlyOnceUnderContention() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 100_000;
+        int total = producers * perProducer;
+        // Small enough that producers regularly find it full and consumers empty;
+        // both yield rather than spin, so the run also finishes on a single core
+        MpmcRingBuffer<Integer> ring = new MpmcRingBuffer<>(64);
+        AtomicIntegerArray deliveries = new AtomicIntegerArray(total);
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + perProducer; i++) {
+                        while (!ring.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    while (consumed.get() < total) {
+                        Integer element = ring.poll();
+                        if (element == null) {
+                            Thread.yield();
+                            continue;
+                        }
+                        deliveries.incrementAndGet(element);
+                        consumed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(consumed.get()).isEqualTo(total);
+        for (int i = 0; i < total; i++) {
+            assertThat(deliveries.get(i)).as("deliveries of %d", i).isEqualTo(1);
+        }
+        assertThat(ring.poll()).isNull();
+    }
+}
@@ -0,0 +1,203 @@
+package com.chronos.queue;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.service.RunningExecutionRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Claim, acknowledgement and redelivery SQL of the Postgres queue against a real
+ * Postgres, migrated with the application's Flyway migrations
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresJobQueueTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static PGSimpleDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private PostgresJobQueue queue;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setURL(POSTGRES.getJdbcUrl());
+        dataSource.setUser(POSTGRES.getUsername());
+        dataSource.setPassword(POSTGRES.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM job_queue");
+        queue = new PostgresJobQueue(jdbcTemplate, dataSource, mock(RunningExecutionRegistry.class));
+        ReflectionTestUtils.setField(queue, "visibilityTimeoutSeconds", 300);
+    }
+
+    @Test
+    void claimsAvailableDispatchesInOrderAndHidesThem() {
+        queue.enqueueAll(List.of(dispatch(1L), dispatch(2L), dispatch(3L)));
+
+        List<PostgresJobQueue.Delivery> first = queue.claim(2);
+        List<PostgresJobQueue.Delivery> second = queue.claim(10);
+
+        assertThat(jobIds(first)).containsExactly(1L, 2L);
+        assertThat(first).allSatisfy(delivery -> assertThat(delivery.getAttempts()).isEqualTo(1));
+        assertThat(first.get(0).getDispatch().getFireId()).isEqualTo("1:1000");
+        assertThat(jobIds(second)).containsExactly(3L);
+        assertThat(queue.claim(10)).isEmpty();
+        assertThat(queue.depth()).isEqualTo(3);
+    }
+
+    @Test
+    void skipsRowsLockedByAnotherClaim() throws Exception {
+        queue.enqueueAll(List.of(dispatch(1L), dispatch(2L)));
+        long lockedId = jdbcTemplate.queryForObject("SELECT min(id) FROM job_queue", Long.class);
+
+        try (Connection other = dataSource.getConnection()) {
+            other.setAutoCommit(false);
+            try (Statement statement = other.createStatement()) {
+                statement.execute("SELECT id FROM job_queue WHERE id = " + lockedId + " FOR UPDATE");
+            }
+
+            // Would block on the locked row without SKIP LOCKED
+            List<PostgresJobQueue.Delivery> claimed = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> queue.claim(10));
+
+            assertThat(jobIds(claimed)).containsExactly(2L);
+            other.rollback();
+        }
+        assertThat(jobIds(queue.claim(10))).containsExactly(1L);
+    }
+
+    @Test
+    void concurrentClaimsNeverShareADispatch() throws Exception {
+        List<JobDispatch> dispatches = new ArrayList<>();
+        for (long jobId = 1; jobId <= 200; jobId++) {
+            dispatches.add(dispatch(jobId));
+        }
+        queue.enqueueAll(dispatches);
+
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<List<Long>>> claimers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                claimers.add(() -> {
+                    List<Long> claimed = new ArrayList<>();
+                    List<PostgresJobQueue.Delivery> batch;
+                    while (!(batch = queue.claim(7)).isEmpty()) {
+                        claimed.addAll(jobIds(batch));
+                    }
+                    return claimed;
+                });
+            }
+            List<Long> all = new ArrayList<>();
+            for (Future<List<Long>> claimed : workers.invokeAll(claimers)) {
+                all.addAll(claimed.get());
+            }
+
+            assertThat(all).hasSize(200).doesNotHaveDuplicates();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void acknowledgeRemovesTheDispatch() {
+        queue.enqueue(dispatch(1L));
+        PostgresJobQueue.Delivery delivery = queue.claim(1).get(0);
+
+        queue.acknowledge(delivery);
+
+        assertThat(queue.depth()).isZero();
+    }
+
+    @Test
+    void redeliversAfterVisibilityTimeout() throws InterruptedException {
+        ReflectionTestUtils.setField(queue, "visibilityTimeoutSeconds", 1);
+        queue.enqueue(dispatch(1L));
+        PostgresJobQueue.Delivery first = queue.claim(1).get(0);
+        assertThat(queue.claim(1)).isEmpty();
+
+        // The worker dies without acknowledging
+        Thread.sleep(1500);
+        List<PostgresJobQueue.Delivery> redelivered = queue.claim(1);
+
+        assertThat(redelivered).hasSize(1);
+        assertThat(redelivered.get(0).getId()).isEqualTo(first.getId());
+        assertThat(redelivered.get(0).getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void retryLaterDelaysTheNextDelivery() {
+        queue.enqueueAll(List.of(dispatch(1L), dispatch(2L)));
+        List<PostgresJobQueue.Delivery> claimed = queue.claim(2);
+
+        queue.retryLater(claimed.get(0), 0);
+        queue.retryLater(claimed.get(1), 60_000);
+
+        assertThat(jobIds(queue.claim(10))).containsExactly(1L);
+    }
+
+    @Test
+    void dropsUnreadableRows() {
+        jdbcTemplate.update("INSERT INTO job_queue (job_id, payload) VALUES (?, ?)", 1L, new byte[]{'x'});
+        queue.enqueue(dispatch(2L));
+
+        assertThat(jobIds(queue.claim(10))).containsExactly(2L);
+        assertThat(queue.depth()).isEqualTo(1);
+    }
+
+    @Test
+    void enqueueJoinsTheCallersTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        transaction.executeWithoutResult(status -> {
+            queue.enqueue(dispatch(1L));
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status -> queue.enqueue(dispatch(2L)));
+
+        assertThat(jobIds(queue.claim(10))).containsExactly(2L);
+    }
+
+    private static JobDispatch dispatch(long jobId) {
+        return JobDispatch.builder()
+                .jobId(jobId)
+                .fireId(JobDispatch.fireId(jobId, 1000L))
+                .fireTime(1000L)
+                .version(1)
+                .build();
+    }
+
+    private static List<Long> jobIds(List<PostgresJobQueue.Delivery> deliveries) {
+        return deliveries.stream().map(delivery -> delivery.getDispatch().getJobId()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,205 @@
+package com.chronos.service;
+
+import com.chronos.model.BatchProgress;
+import com.chronos.model.BatchStatus;
+import com.chronos.model.JobType;
+import com.chronos.repository.BatchProgressRepository;
+import com.chronos.service.RunningExecutionRegistry.RunningExecution;
+import com.chronos.spec.BatchJobSpec;
+import com.chronos.spec.CustomJobSpec;
+import com.chronos.spec.JobSpec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs batches with CUSTOM map steps whose jobData is the partition index, against a
+ * mocked progress repository
+ */
+class BatchJobExecutorTest {
+
+    private static final long JOB_ID = 7L;
+    private static final long RUN_ID = 70L;
+    private static final int VERSION = 3;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JobSpecCompiler compiler = new JobSpecCompiler(objectMapper,
+            new CircuitBreakerService(new SimpleMeterRegistry()));
+    private final RunningExecutionRegistry executionRegistry = new RunningExecutionRegistry();
+    private BatchProgressRepository progressRepository;
+    private BatchJobExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        progressRepository = mock(BatchProgressRepository.class);
+        when(progressRepository.save(any())).thenAnswer(returnsFirstArg());
+        executor = new BatchJobExecutor(compiler, progressRepository, executionRegistry, objectMapper);
+        ReflectionTestUtils.setField(executor, "maxParallelism", 16);
+        ReflectionTestUtils.setField(executor, "flushIntervalMs", 1000L);
+    }
+
+    @Test
+    void runsEveryPartitionOfAFreshBatch() throws Exception {
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+
+        String output = executor.execute(JOB_ID, VERSION, rangeBatch(40, 10, 2, 0), execution(), recordingRunner(ran));
+
+        assertThat(ran).containsExactlyInAnyOrder(0, 1, 2, 3);
+        assertThat(output).startsWith("Batch completed: 4 partitions (40 items), 0 failed");
+        assertThat(lastStatus()).isEqualTo(BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void resumesFromTheDoneBitmapOfAnUnfinishedRun() throws Exception {
+        BitSet done = new BitSet();
+        done.set(0);
+        done.set(2);
+        when(progressRepository.findById(JOB_ID)).thenReturn(Optional.of(progress(BatchStatus.FAILED, VERSION, 4, done)));
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+
+        executor.execute(JOB_ID, VERSION, rangeBatch(40, 10, 2, 0), execution(), recordingRunner(ran));
+
+        assertThat(ran).containsExactlyInAnyOrder(1, 3);
+        verify(progressRepository, atLeastOnce()).updateProgress(eq(JOB_ID), eq(RUN_ID), eq(BatchStatus.COMPLETED),
+                eq(4), eq(0), any(), any(), any(), any());
+    }
+
+    @Test
+    void startsOverWhenTheJobVersionChanged() throws Exception {
+        BitSet done = new BitSet();
+        done.set(0);
+        when(progressRepository.findById(JOB_ID)).thenReturn(Optional.of(progress(BatchStatus.FAILED, VERSION - 1, 4, done)));
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+
+        executor.execute(JOB_ID, VERSION, rangeBatch(40, 10, 2, 0), execution(), recordingRunner(ran));
+
+        assertThat(ran).containsExactlyInAnyOrder(0, 1, 2, 3);
+    }
+
+    @Test
+    void stopsStartingPartitionsOnceMoreThanMaxFailedPartitionsFailed() {
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+        BatchJobExecutor.StepRunner failing = (step, stepExecution) -> {
+            ran.add(partition(step));
+            throw new IllegalStateException("boom");
+        };
+
+        // One partition at a time, so the cutoff is checked after every failure
+        assertThatThrownBy(() -> executor.execute(JOB_ID, VERSION, rangeBatch(10, 1, 1, 1), execution(), failing))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Batch failed: 2 of 10 partitions failed (allowed 1)");
+        assertThat(ran).containsExactly(0, 1);
+        assertThat(lastStatus()).isEqualTo(BatchStatus.FAILED);
+    }
+
+    @Test
+    void toleratesUpToMaxFailedPartitions() throws Exception {
+        BatchJobExecutor.StepRunner failsFirst = (step, stepExecution) -> {
+            if (partition(step) == 0) {
+                throw new IllegalStateException("boom");
+            }
+            return "ok";
+        };
+
+        String output = executor.execute(JOB_ID, VERSION, rangeBatch(10, 1, 1, 1), execution(), failsFirst);
+
+        assertThat(output).startsWith("Batch completed: 10 partitions (10 items), 1 failed");
+        assertThat(lastStatus()).isEqualTo(BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void closesTheProgressRowWhenTheInputFileBecomesUnreadable(@TempDir Path dir) throws Exception {
+        // Lines of 2000 bytes: the reader's first 8 KiB buffer holds four of them
+        Path file = dir.resolve("input.txt");
+        Files.writeString(file, ("x".repeat(1999) + "\n").repeat(10));
+        BatchJobSpec spec = compiler.compile(JOB_ID, VERSION, JobType.BATCH,
+                "{\"input\":{\"file\":\"" + file + "\"},\"partitionSize\":1,\"parallelism\":1,"
+                        + "\"map\":{\"type\":\"CUSTOM\",\"jobData\":{\"partition\":\"{{partition}}\"}}}", null)
+                .execution(BatchJobSpec.class);
+        BatchJobExecutor.StepRunner corruptsFile = (step, stepExecution) -> {
+            if (partition(step) == 0) {
+                // Invalid UTF-8 past the buffered part, met when the reader refills
+                try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                    raf.seek(15_000);
+                    raf.write(new byte[]{(byte) 0xFF, (byte) 0xFE});
+                }
+            }
+            return "ok";
+        };
+
+        assertThatThrownBy(() -> executor.execute(JOB_ID, VERSION, spec, execution(), corruptsFile))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThat(lastStatus()).isEqualTo(BatchStatus.FAILED);
+    }
+
+    private BatchJobSpec rangeBatch(long items, int partitionSize, int parallelism, int maxFailedPartitions) {
+        String jobData = String.format("{\"input\":{\"range\":{\"end\":%d}},\"partitionSize\":%d,\"parallelism\":%d,"
+                        + "\"maxFailedPartitions\":%d,\"map\":{\"type\":\"CUSTOM\",\"jobData\":{\"partition\":\"{{partition}}\"}}}",
+                items, partitionSize, parallelism, maxFailedPartitions);
+        return compiler.compile(JOB_ID, VERSION, JobType.BATCH, jobData, null).execution(BatchJobSpec.class);
+    }
+
+    private RunningExecution execution() {
+        return executionRegistry.register(JOB_ID, RUN_ID, 60);
+    }
+
+    private BatchJobExecutor.StepRunner recordingRunner(List<Integer> ran) {
+        return (step, stepExecution) -> {
+            ran.add(partition(step));
+            return "ok";
+        };
+    }
+
+    private int partition(JobSpec step) throws Exception {
+        return objectMapper.readTree(step.execution(CustomJobSpec.class).getJobData()).get("partition").asInt();
+    }
+
+    private static BatchProgress progress(BatchStatus status, int version, int totalPartitions, BitSet done) {
+        return BatchProgress.builder()
+                .jobId(JOB_ID)
+                .runId(RUN_ID - 1)
+                .version(version)
+                .status(status)
+                .totalPartitions(totalPartitions)
+                .totalItems(40L)
+                .completedPartitions(done.cardinality())
+                .failedPartitions(0)
+                .donePartitions(done.toByteArray())
+                .build();
+    }
+
+    /**
+     * Status of the last progress write
+     */
+    private BatchStatus lastStatus() {
+        ArgumentCaptor<BatchStatus> status = ArgumentCaptor.forClass(BatchStatus.class);
+        verify(progressRepository, atLeastOnce()).updateProgress(eq(JOB_ID), eq(RUN_ID), status.capture(),
+                anyInt(), anyInt(), any(), any(), any(), any());
+        return status.getValue();
+    }
+}
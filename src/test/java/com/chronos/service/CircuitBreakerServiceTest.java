@@ -0,0 +1,61 @@
+package com.chronos.service;
+
+import com.chronos.exception.CircuitBreakerOpenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CircuitBreakerService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CircuitBreakerService(meterRegistry);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(service, "minimumCalls", 2);
+        ReflectionTestUtils.setField(service, "failureRateThreshold", 50);
+        ReflectionTestUtils.setField(service, "openDurationSeconds", 30L);
+        ReflectionTestUtils.setField(service, "halfOpenPermittedCalls", 1);
+        ReflectionTestUtils.setField(service, "idleExpiryMinutes", 60L);
+        ReflectionTestUtils.setField(service, "maxHosts", 2);
+        service.init();
+    }
+
+    @Test
+    void opensAfterFailureRateIsReachedAndCountsRejections() {
+        service.recordFailure("a");
+        service.recordFailure("a");
+
+        assertThatThrownBy(() -> service.acquirePermission("a")).isInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(meterRegistry.get("chronos.http.circuit.rejected").tag("host", "a").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("chronos.http.circuit.state").tag("host", "a").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsBreakersAndTheirMetersBeyondMaxHosts() throws InterruptedException {
+        for (String host : new String[]{"a", "b", "c", "d", "e"}) {
+            service.acquirePermission(host);
+            service.recordSuccess(host);
+        }
+
+        // Caffeine evicts in its maintenance pass, which may run just after the calls
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getBreakerStates().size() > 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.getBreakerStates()).hasSize(2);
+        assertThat(meterRegistry.find("chronos.http.circuit.state").gauges()).hasSize(2);
+        assertThat(meterRegistry.find("chronos.http.circuit.failure.rate").gauges()).hasSize(2);
+        assertThat(meterRegistry.find("chronos.http.circuit.rejected").counters()).hasSize(2);
+    }
+}
@@ -0,0 +1,147 @@
+package com.chronos.service;
+
+import com.chronos.dto.JobDispatch;
+import com.chronos.dto.JobRequest;
+import com.chronos.model.Job;
+import com.chronos.model.JobStatus;
+import com.chronos.model.JobType;
+import com.chronos.queue.JobQueue;
+import com.chronos.repository.JobRepository;
+import io.micrometer.observation.Observation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Submits jobs through the service against the H2 schema with a queue backend that
+ * publishes after commit and fails, then polls with the scheduler. Runs outside a test
+ * transaction so the after-commit publish happens.
+ */
+@DataJpaTest(properties = "chronos.scheduler.enabled=true")
+@ActiveProfiles("test")
+@Import({JobService.class, JobQueueService.class, SchedulerService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobServiceTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private SchedulerService schedulerService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @MockBean
+    private JobQueue jobQueue;
+
+    @MockBean
+    private JobTracing jobTracing;
+
+    @MockBean
+    private JobSpecCache jobSpecCache;
+
+    @MockBean
+    private JobSnapshotCache jobSnapshotCache;
+
+    @MockBean
+    private JobSpecCompiler jobSpecCompiler;
+
+    @MockBean
+    private ScheduleService scheduleService;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @MockBean
+    private JobCancellationService jobCancellationService;
+
+    @MockBean
+    private SchedulerShardManager schedulerShardManager;
+
+    @MockBean
+    private SchedulerLeaderElection leaderElection;
+
+    @MockBean
+    private WorkflowEngine workflowEngine;
+
+    @MockBean
+    private JobMetrics jobMetrics;
+
+    @MockBean
+    private JobEventHub jobEventHub;
+
+    private final List<Long> createdJobIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(jobQueue.backend()).thenReturn("test");
+        when(jobTracing.startEnqueue(any(), anyString(), anyBoolean())).thenReturn(Observation.NOOP);
+        when(leaderElection.isLeader()).thenReturn(true);
+        doThrow(new IllegalStateException("Broker unavailable")).when(jobQueue).enqueue(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAllById(createdJobIds);
+    }
+
+    @Test
+    void immediateJobWhosePublishFailsIsDispatchedByTheNextPoll() {
+        JobRequest request = new JobRequest();
+        request.setName("now");
+        request.setOwner("tester");
+        request.setType(JobType.CUSTOM);
+
+        Long id = jobService.createJob(request).getId();
+        createdJobIds.add(id);
+
+        Job job = jobRepository.findById(id).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(JobStatus.SCHEDULED);
+        assertThat(job.getNextRunTime()).isBeforeOrEqualTo(LocalDateTime.now());
+        assertDispatchedByPoll(id);
+    }
+
+    @Test
+    void manualRunWhosePublishFailsIsDispatchedByTheNextPoll() {
+        Job job = jobRepository.save(Job.builder()
+                .name("done")
+                .owner("tester")
+                .type(JobType.CUSTOM)
+                .status(JobStatus.COMPLETED)
+                .build());
+        createdJobIds.add(job.getId());
+
+        assertThat(jobService.runJob(job.getId())).isTrue();
+
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getStatus()).isEqualTo(JobStatus.SCHEDULED);
+        assertDispatchedByPoll(job.getId());
+    }
+
+    private void assertDispatchedByPoll(Long jobId) {
+        schedulerService.scheduleJobs();
+
+        verify(jobQueue).enqueueAll(argThat((List<JobDispatch> dispatches) ->
+                dispatches.stream().anyMatch(dispatch -> dispatch.getJobId().equals(jobId))));
+    }
+}
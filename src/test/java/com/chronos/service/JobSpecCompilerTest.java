@@ -0,0 +1,79 @@
+package com.chronos.service;
+
+import com.chronos.model.JobType;
+import com.chronos.spec.BatchJobSpec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobSpecCompilerTest {
+
+    private static final int MAX_PARTITIONS = 1_000_000;
+
+    private final JobSpecCompiler compiler = new JobSpecCompiler(new ObjectMapper(),
+            new CircuitBreakerService(new SimpleMeterRegistry()));
+
+    @Test
+    void partitionCountRoundsUp() {
+        assertThat(compiler.partitionCount(0, 10)).isZero();
+        assertThat(compiler.partitionCount(1, 10)).isEqualTo(1);
+        assertThat(compiler.partitionCount(10, 10)).isEqualTo(1);
+        assertThat(compiler.partitionCount(11, 10)).isEqualTo(2);
+    }
+
+    @Test
+    void partitionCountAcceptsExactlyTheMaximum() {
+        assertThat(compiler.partitionCount(MAX_PARTITIONS, 1)).isEqualTo(MAX_PARTITIONS);
+        assertThat(compiler.partitionCount(MAX_PARTITIONS * 10L, 10)).isEqualTo(MAX_PARTITIONS);
+    }
+
+    @Test
+    void partitionCountRejectsOneMoreThanTheMaximum() {
+        assertThatThrownBy(() -> compiler.partitionCount(MAX_PARTITIONS + 1L, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than the 1000000 allowed");
+        assertThatThrownBy(() -> compiler.partitionCount(MAX_PARTITIONS * 10L + 1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void partitionCountDoesNotOverflowNearLongMax() {
+        // (items + size - 1) / size would wrap to a negative count here
+        assertThatThrownBy(() -> compiler.partitionCount(Long.MAX_VALUE, Integer.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("4294967299 partitions");
+        assertThatThrownBy(() -> compiler.partitionCount(Long.MAX_VALUE, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsRangeWithTooManyPartitionsAtSubmitTime() {
+        assertThatThrownBy(() -> compileBatch("{\"range\":{\"start\":0,\"end\":1000001}}", 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1000001 partitions");
+        assertThat(compileBatch("{\"range\":{\"start\":0,\"end\":1000001}}", 2).getRangeEnd()).isEqualTo(1_000_001);
+    }
+
+    @Test
+    void rejectsRangeWhoseSizeOverflows() {
+        assertThatThrownBy(() -> compileBatch(
+                "{\"range\":{\"start\":" + Long.MIN_VALUE + ",\"end\":" + Long.MAX_VALUE + "}}", 1000))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("input.range is too large");
+    }
+
+    @Test
+    void leavesFileInputsToBeCountedWhenTheBatchRuns() {
+        assertThat(compileBatch("{\"file\":\"/does/not/exist\"}", 1).getInputKind())
+                .isEqualTo(BatchJobSpec.InputKind.FILE);
+    }
+
+    private BatchJobSpec compileBatch(String input, int partitionSize) {
+        String jobData = "{\"input\":" + input + ",\"partitionSize\":" + partitionSize
+                + ",\"map\":{\"type\":\"CUSTOM\",\"jobData\":{}}}";
+        return compiler.compile(1L, 1, JobType.BATCH, jobData, null).execution(BatchJobSpec.class);
+    }
+}
@@ -0,0 +1,274 @@
+package com.chronos.service;
+
+import com.chronos.model.Job;
+import com.chronos.model.JobDependency;
+import com.chronos.model.JobStatus;
+import com.chronos.model.JobType;
+import com.chronos.model.Workflow;
+import com.chronos.model.WorkflowStatus;
+import com.chronos.repository.JobDependencyRepository;
+import com.chronos.repository.JobRepository;
+import com.chronos.repository.WorkflowRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the workflow engine against the H2 schema with the queue and event hub mocked
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(WorkflowEngine.class)
+class WorkflowEngineTest {
+
+    @Autowired
+    private WorkflowEngine workflowEngine;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobDependencyRepository jobDependencyRepository;
+
+    @Autowired
+    private WorkflowRepository workflowRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private JobQueueService jobQueueService;
+
+    @MockBean
+    private JobEventHub jobEventHub;
+
+    @Test
+    void releasesDownstreamJobOnlyWhenAllUpstreamJobsComplete() {
+        Workflow workflow = workflow();
+        Job a = job(workflow, JobStatus.RUNNING, 0);
+        Job b = job(workflow, JobStatus.RUNNING, 0);
+        Job c = job(workflow, JobStatus.WAITING, 2);
+        dependsOn(c, a);
+        dependsOn(c, b);
+
+        complete(a);
+        assertThat(reload(c).getStatus()).isEqualTo(JobStatus.WAITING);
+        assertThat(reload(c).getPendingDependencies()).isEqualTo(1);
+        verify(jobQueueService, never()).enqueueJob(any());
+
+        complete(b);
+        Job released = reload(c);
+        assertThat(released.getStatus()).isEqualTo(JobStatus.SCHEDULED);
+        assertThat(released.getPendingDependencies()).isZero();
+        assertThat(released.getNextRunTime()).isNotNull();
+        verify(jobQueueService).enqueueJob(argThat(job -> job.getId().equals(c.getId())));
+        verify(jobEventHub).jobChanged(argThat(job -> job.getId().equals(c.getId())));
+        assertThat(reload(workflow).getStatus()).isEqualTo(WorkflowStatus.RUNNING);
+    }
+
+    @Test
+    void doesNotReleaseDownstreamJobThatIsNoLongerWaiting() {
+        Workflow workflow = workflow();
+        Job a = job(workflow, JobStatus.RUNNING, 0);
+        Job b = job(workflow, JobStatus.CANCELLED, 1);
+        dependsOn(b, a);
+
+        complete(a);
+
+        assertThat(reload(b).getStatus()).isEqualTo(JobStatus.CANCELLED);
+        verify(jobQueueService, never()).enqueueJob(any());
+    }
+
+    @Test
+    void failedJobCancelsEverythingDownstreamAndFailsTheWorkflow() {
+        Workflow workflow = workflow();
+        Job a = job(workflow, JobStatus.RUNNING, 0);
+        Job b = job(workflow, JobStatus.WAITING, 1);
+        Job c = job(workflow, JobStatus.WAITING, 1);
+        Job d = job(workflow, JobStatus.WAITING, 1);
+        Job independent = job(workflow, JobStatus.RUNNING, 0);
+        dependsOn(b, a);
+        dependsOn(c, b);
+        dependsOn(d, a);
+
+        a.setStatus(JobStatus.FAILED);
+        jobRepository.save(a);
+        workflowEngine.onJobFailed(a);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(reload(b).getStatus()).isEqualTo(JobStatus.CANCELLED);
+        assertThat(reload(c).getStatus()).isEqualTo(JobStatus.CANCELLED);
+        assertThat(reload(d).getStatus()).isEqualTo(JobStatus.CANCELLED);
+        assertThat(reload(independent).getStatus()).isEqualTo(JobStatus.RUNNING);
+        Workflow failed = reload(workflow);
+        assertThat(failed.getStatus()).isEqualTo(WorkflowStatus.FAILED);
+        assertThat(failed.getCompletedAt()).isNotNull();
+        verify(jobEventHub).resync();
+    }
+
+    @Test
+    void cancelledJobCancelsDownstreamAndTheWorkflow() {
+        Workflow workflow = workflow();
+        Job a = job(workflow, JobStatus.RUNNING, 0);
+        Job b = job(workflow, JobStatus.WAITING, 1);
+        dependsOn(b, a);
+
+        a.setStatus(JobStatus.CANCELLED);
+        jobRepository.save(a);
+        workflowEngine.onJobCancelled(a);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(reload(b).getStatus()).isEqualTo(JobStatus.CANCELLED);
+        assertThat(reload(workflow).getStatus()).isEqualTo(WorkflowStatus.CANCELLED);
+    }
+
+    @Test
+    void completesTheWorkflowWhenItsLastJobCompletes() {
+        Workflow workflow = workflow();
+        Job a = job(workflow, JobStatus.RUNNING, 0);
+        Job b = job(workflow, JobStatus.WAITING, 1);
+        dependsOn(b, a);
+
+        complete(a);
+        assertThat(reload(workflow).getStatus()).isEqualTo(WorkflowStatus.RUNNING);
+
+        complete(b);
+        Workflow completed = reload(workflow);
+        assertThat(completed.getStatus()).isEqualTo(WorkflowStatus.COMPLETED);
+        assertThat(completed.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void completionDoesNotOverwriteAFinishedWorkflow() {
+        Workflow workflow = workflow();
+        Job a = job(workflow, JobStatus.RUNNING, 0);
+        workflowRepository.finish(workflow.getId(), WorkflowStatus.CANCELLED, LocalDateTime.now());
+
+        complete(a);
+
+        assertThat(reload(workflow).getStatus()).isEqualTo(WorkflowStatus.CANCELLED);
+    }
+
+    /**
+     * Both jobs record their status before either checks the workflow, and neither
+     * commits until both have checked, unless the other is blocked on the workflow lock.
+     * Without the lock each one counts the other as still running
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void completesTheWorkflowWhenItsLastTwoJobsCompleteConcurrently() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Workflow workflow = tx.execute(status -> workflow());
+        List<Long> jobIds = tx.execute(status -> List.of(
+                job(workflow, JobStatus.RUNNING, 0).getId(),
+                job(workflow, JobStatus.RUNNING, 0).getId()));
+
+        CyclicBarrier bothRecorded = new CyclicBarrier(2);
+        CyclicBarrier bothChecked = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Object>> completions = jobIds.stream()
+                    .map(id -> executor.submit(() -> tx.execute(status -> {
+                        Job job = jobRepository.findById(id).orElseThrow();
+                        job.setStatus(JobStatus.COMPLETED);
+                        jobRepository.saveAndFlush(job);
+                        await(bothRecorded, 10_000);
+                        workflowEngine.onJobCompleted(job);
+                        await(bothChecked, 300);
+                        return null;
+                    })))
+                    .toList();
+            for (Future<Object> completion : completions) {
+                completion.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(workflowRepository.findById(workflow.getId()).orElseThrow().getStatus())
+                    .isEqualTo(WorkflowStatus.COMPLETED);
+        } finally {
+            executor.shutdownNow();
+            tx.executeWithoutResult(status -> {
+                jobRepository.deleteAllById(jobIds);
+                workflowRepository.deleteById(workflow.getId());
+            });
+        }
+    }
+
+    /**
+     * Wait for the other completion; a timeout or broken barrier means it is waiting
+     * for a lock this transaction holds
+     */
+    private static void await(CyclicBarrier barrier, long timeoutMillis) {
+        try {
+            barrier.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | BrokenBarrierException e) {
+            // Carry on and commit, which releases the lock
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void complete(Job job) {
+        job.setStatus(JobStatus.COMPLETED);
+        jobRepository.save(job);
+        workflowEngine.onJobCompleted(job);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Workflow workflow() {
+        return workflowRepository.save(Workflow.builder().name("wf").owner("tester").build());
+    }
+
+    private Job job(Workflow workflow, JobStatus status, int pendingDependencies) {
+        return jobRepository.save(Job.builder()
+                .name("step")
+                .owner("tester")
+                .type(JobType.CUSTOM)
+                .status(status)
+                .workflowId(workflow.getId())
+                .pendingDependencies(pendingDependencies)
+                .build());
+    }
+
+    private void dependsOn(Job job, Job upstream) {
+        jobDependencyRepository.save(new JobDependency(job.getId(), upstream.getId()));
+    }
+
+    private Job reload(Job job) {
+        return jobRepository.findById(job.getId()).orElseThrow();
+    }
+
+    private Workflow reload(Workflow workflow) {
+        return workflowRepository.findById(workflow.getId()).orElseThrow();
+    }
+}